@@ -0,0 +1,45 @@
+package com.project.library_comparison_tool.Config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers PostgreSQL full-text search functions for JPA Criteria queries.
+ *
+ * Criteria has no way to express the tsvector @@ operator, so LibrarySpecification
+ * calls these pattern functions instead. The vector expression must stay identical
+ * to the GIN index in "SQL files/Add_Full_Text_Search_Migration.sql" so Postgres
+ * can use the index.
+ *
+ * Arguments: (name, searchKeywords, description, query text)
+ * Registered through META-INF/services/org.hibernate.boot.model.FunctionContributor
+ */
+public class LibrarySearchFunctionContributor implements FunctionContributor {
+
+    // Weighted document: name (A) > tags/categories (B) > description (C)
+    public static final String SEARCH_VECTOR =
+            "(setweight(to_tsvector('english', coalesce(?1, '')), 'A')"
+            + " || setweight(to_tsvector('english', coalesce(?2, '')), 'B')"
+            + " || setweight(to_tsvector('english', coalesce(?3, '')), 'C'))";
+
+    private static final String SEARCH_QUERY = "websearch_to_tsquery('english', ?4)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry().registerPattern(
+                "library_fts_match",
+                "(" + SEARCH_VECTOR + " @@ " + SEARCH_QUERY + ")",
+                types.resolve(StandardBasicTypes.BOOLEAN)
+        );
+
+        functionContributions.getFunctionRegistry().registerPattern(
+                "library_fts_rank",
+                "ts_rank(" + SEARCH_VECTOR + ", " + SEARCH_QUERY + ")",
+                types.resolve(StandardBasicTypes.DOUBLE)
+        );
+    }
+}
@@ -68,11 +68,14 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/me").authenticated()
                         .requestMatchers("/api/auth/logout").authenticated()
                         .requestMatchers("/api/libraries/search**").permitAll()
+                        .requestMatchers("/api/libraries/search/full-text").permitAll()
+                        .requestMatchers("/api/libraries/search/instant").permitAll()
                         .requestMatchers("/api/libraries").permitAll()
                         .requestMatchers("/api/libraries/{id}").permitAll()
                         .requestMatchers("/api/libraries/category/**").permitAll()
                         .requestMatchers("/api/libraries/popular").permitAll()
                         .requestMatchers("/api/libraries/advanced-search").permitAll()
+                        .requestMatchers("/api/libraries/advanced-search/facets").permitAll()
 
                         // Admin endpoints - require authentication
                         // NOTE: Admin data load endpoint is public for testing purposes (localhost only)
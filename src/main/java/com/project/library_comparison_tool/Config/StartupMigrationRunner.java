@@ -0,0 +1,48 @@
+package com.project.library_comparison_tool.Config;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Applies the SQL migrations Hibernate (ddl-auto=update) cannot express on startup:
+ * - Full-text search expression / trigram indexes
+ * - Backfill of the normalized library_category table
+ * - Pooled (increment 50) id sequences for batched inserts
+ *
+ * Every statement is idempotent; failures (e.g. no permission to create pg_trgm) are logged and skipped.
+ */
+@Component
+public class StartupMigrationRunner implements ApplicationRunner {
+
+    private static final List<String> MIGRATION_SCRIPTS = List.of(
+            "SQL files/Add_Full_Text_Search_Migration.sql",
+            "SQL files/Add_Library_Category_Table_Migration.sql",
+            "SQL files/Increase_Sequence_Allocation_Migration.sql"
+    );
+
+    private final DataSource dataSource;
+
+    public StartupMigrationRunner(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String script : MIGRATION_SCRIPTS) {
+            try {
+                ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource(script));
+                populator.setContinueOnError(true);
+                populator.execute(dataSource);
+                System.out.println("[migration] Applied " + script);
+            } catch (Exception e) {
+                System.err.println("[migration] Could not apply " + script + ": " + e.getMessage());
+            }
+        }
+    }
+}
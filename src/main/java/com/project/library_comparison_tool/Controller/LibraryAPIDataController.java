@@ -1,10 +1,30 @@
 package com.project.library_comparison_tool.Controller;
+import com.project.library_comparison_tool.service.CatalogueRefreshService;
+import com.project.library_comparison_tool.service.ClassificationRuleEngine;
+import com.project.library_comparison_tool.entity.IngestionJob;
+import com.project.library_comparison_tool.service.EnrichmentExecutor;
+import com.project.library_comparison_tool.service.IngestionJobService;
 import com.project.library_comparison_tool.service.LibrariesIoDataLoader;
+import com.project.library_comparison_tool.service.LibraryFacetService;
+import com.project.library_comparison_tool.service.LibraryReclassificationService;
+import com.project.library_comparison_tool.service.LibraryReplayService;
+import com.project.library_comparison_tool.service.LibraryRescoringService;
+import com.project.library_comparison_tool.service.LibrarySearchIndex;
+import com.project.library_comparison_tool.service.LibraryService;
+import com.project.library_comparison_tool.service.OsvBatchScanner;
+import com.project.library_comparison_tool.service.SecurityVulnerabilityService;
+import com.project.library_comparison_tool.service.UpstreamHttpClient;
+import com.project.library_comparison_tool.service.UpstreamPayloadStore;
+import com.project.library_comparison_tool.service.UpstreamRateLimiter;
+import com.project.library_comparison_tool.service.VulnerabilityRefreshService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin/data")
@@ -15,14 +35,63 @@ import java.util.Map;
 public class LibraryAPIDataController {
 
         private final LibrariesIoDataLoader dataLoader ;
+        private final LibraryRescoringService rescoringService;
+        private final LibrarySearchIndex searchIndex;
+        private final LibraryService libraryService;
+        private final LibraryFacetService facetService;
+        private final UpstreamRateLimiter rateLimiter;
+        private final EnrichmentExecutor enrichmentExecutor;
+        private final UpstreamHttpClient httpClient;
+        private final VulnerabilityRefreshService vulnerabilityRefreshService;
+        private final SecurityVulnerabilityService securityVulnerabilityService;
+        private final OsvBatchScanner osvBatchScanner;
+        private final CatalogueRefreshService catalogueRefreshService;
+        private final IngestionJobService ingestionJobService;
+        private final ClassificationRuleEngine ruleEngine;
+        private final LibraryReclassificationService reclassificationService;
+        private final UpstreamPayloadStore payloadStore;
+        private final LibraryReplayService replayService;
 
-        public LibraryAPIDataController(LibrariesIoDataLoader dataLoader) {
+        public LibraryAPIDataController(LibrariesIoDataLoader dataLoader,
+                                        LibraryRescoringService rescoringService,
+                                        LibrarySearchIndex searchIndex,
+                                        LibraryService libraryService,
+                                        LibraryFacetService facetService,
+                                        UpstreamRateLimiter rateLimiter,
+                                        EnrichmentExecutor enrichmentExecutor,
+                                        UpstreamHttpClient httpClient,
+                                        VulnerabilityRefreshService vulnerabilityRefreshService,
+                                        SecurityVulnerabilityService securityVulnerabilityService,
+                                        OsvBatchScanner osvBatchScanner,
+                                        CatalogueRefreshService catalogueRefreshService,
+                                        IngestionJobService ingestionJobService,
+                                        ClassificationRuleEngine ruleEngine,
+                                        LibraryReclassificationService reclassificationService,
+                                        UpstreamPayloadStore payloadStore,
+                                        LibraryReplayService replayService) {
             this.dataLoader = dataLoader;
+            this.rescoringService = rescoringService;
+            this.searchIndex = searchIndex;
+            this.libraryService = libraryService;
+            this.facetService = facetService;
+            this.rateLimiter = rateLimiter;
+            this.enrichmentExecutor = enrichmentExecutor;
+            this.httpClient = httpClient;
+            this.vulnerabilityRefreshService = vulnerabilityRefreshService;
+            this.securityVulnerabilityService = securityVulnerabilityService;
+            this.osvBatchScanner = osvBatchScanner;
+            this.catalogueRefreshService = catalogueRefreshService;
+            this.ingestionJobService = ingestionJobService;
+            this.ruleEngine = ruleEngine;
+            this.reclassificationService = reclassificationService;
+            this.payloadStore = payloadStore;
+            this.replayService = replayService;
         }
 
         /**
          * This method is for loading the data
          * doc link check : https://libraries.io/api
+         * The load runs as a background job - poll GET /api/admin/data/jobs/{jobId} for progress
          * 
          * Examples:
          * - Load 1 library: POST /api/admin/data/load?query=react&platform=NPM&pages=1&limit=1
@@ -32,7 +101,8 @@ public class LibraryAPIDataController {
          * @param query Search term (e.g., "react", "lodash")
          * @param platform Platform (e.g., "NPM", "Maven", "PyPI")
          * @param pages Number of pages to fetch (default: 1)
-         * @param limit Maximum number of libraries to load (default: unlimited, use -1 for unlimited)
+         * @param limit Maximum number of search results to submit (default: unlimited, use -1 for unlimited);
+         *              unchanged or failed results count too, so fewer libraries may be saved
          */
         @PostMapping("/load")
         public ResponseEntity<Map<String, Object>> loadLibraries(
@@ -41,17 +111,19 @@ public class LibraryAPIDataController {
                 @RequestParam(defaultValue = "1") int pages,
                 @RequestParam(defaultValue = "-1") int limit) {
 
-            int count = dataLoader.loadLibraries(query, platform, pages, limit);
+            IngestionJob job = ingestionJobService.startSearchLoad(query, platform, pages, limit);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
+            response.put("jobId", job.getId());
+            response.put("status", job.getStatus());
             response.put("query", query);
             response.put("platform", platform);
-            response.put("pagesLoaded", pages);
+            response.put("pages", pages);
             response.put("limit", limit == -1 ? "unlimited" : limit);
-            response.put("librariesLoaded", count);
+            response.put("message", "Load started - check /api/admin/data/jobs/" + job.getId() + " for progress");
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
         }
 
         /**
@@ -81,18 +153,374 @@ public class LibraryAPIDataController {
         }
 
         /**
-         * Load popular libraries
+         * Load popular libraries (background job, like /load)
          * POST /api/admin/data/load-popular
          */
         @PostMapping("/load-popular")
         public ResponseEntity<Map<String, Object>> loadPopularLibraries() {
 
-            int count = dataLoader.loadPopularLibraries();
+            IngestionJob job = ingestionJobService.startPopularLoad();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("librariesLoaded", count);
-            response.put("message", "Loaded popular libraries across multiple platforms");
+            response.put("jobId", job.getId());
+            response.put("status", job.getStatus());
+            response.put("message", "Loading popular libraries across multiple platforms - check /api/admin/data/jobs/"
+                    + job.getId() + " for progress");
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        }
+
+        /**
+         * Recent load jobs, newest first
+         * GET /api/admin/data/jobs
+         */
+        @GetMapping("/jobs")
+        public ResponseEntity<Map<String, Object>> getJobs() {
+
+            List<Map<String, Object>> jobs = ingestionJobService.getRecentJobs().stream()
+                    .map(ingestionJobService::describe)
+                    .collect(Collectors.toList());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("jobs", jobs);
+
+            return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Status of a load job: per-stage counters, libraries/sec, ETA and page checkpoints
+         * GET /api/admin/data/jobs/{id}
+         */
+        @GetMapping("/jobs/{id}")
+        public ResponseEntity<Map<String, Object>> getJob(@PathVariable Long id) {
+            try {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("job", ingestionJobService.describe(ingestionJobService.getJob(id)));
+                return ResponseEntity.ok(response);
+
+            } catch (IllegalArgumentException e) {
+                return jobError(HttpStatus.NOT_FOUND, e.getMessage());
+            }
+        }
+
+        /**
+         * Cancel a load job (libraries already in flight are still saved)
+         * POST /api/admin/data/jobs/{id}/cancel
+         */
+        @PostMapping("/jobs/{id}/cancel")
+        public ResponseEntity<Map<String, Object>> cancelJob(@PathVariable Long id) {
+            try {
+                IngestionJob job = ingestionJobService.cancel(id);
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("job", ingestionJobService.describe(job));
+                response.put("message", "Cancellation requested for job " + id);
+                return ResponseEntity.ok(response);
+
+            } catch (IllegalArgumentException e) {
+                return jobError(HttpStatus.NOT_FOUND, e.getMessage());
+            } catch (IllegalStateException e) {
+                return jobError(HttpStatus.CONFLICT, e.getMessage());
+            }
+        }
+
+        /**
+         * Resume a cancelled, interrupted or failed load job after its last finished page
+         * POST /api/admin/data/jobs/{id}/resume
+         */
+        @PostMapping("/jobs/{id}/resume")
+        public ResponseEntity<Map<String, Object>> resumeJob(@PathVariable Long id) {
+            try {
+                IngestionJob job = ingestionJobService.resume(id);
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("job", ingestionJobService.describe(job));
+                response.put("message", "Job " + id + " queued to resume from its last checkpoint");
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+            } catch (IllegalArgumentException e) {
+                return jobError(HttpStatus.NOT_FOUND, e.getMessage());
+            } catch (IllegalStateException e) {
+                return jobError(HttpStatus.CONFLICT, e.getMessage());
+            }
+        }
+
+        private ResponseEntity<Map<String, Object>> jobError(HttpStatus status, String message) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", message);
+            return ResponseEntity.status(status).body(response);
+        }
+
+        /**
+         * Rescore libraries whose scoring inputs changed or whose maintenance score expired
+         * The same expiry pass also runs nightly (app.scoring.rescore-cron)
+         * POST /api/admin/data/rescore
+         */
+        @PostMapping("/rescore")
+        public ResponseEntity<Map<String, Object>> rescoreLibraries() {
+
+            int changed = rescoringService.rescoreChangedLibraries();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("librariesRescored", changed);
+            response.put("message", "Rescored libraries with changed or expired scores");
+
+            return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Classification rules currently loaded (version, rule counts, last reload error)
+         * GET /api/admin/data/rules
+         */
+        @GetMapping("/rules")
+        public ResponseEntity<Map<String, Object>> getRules() {
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("rules", ruleEngine.getStatus());
+            response.put("reclassifying", reclassificationService.isRunning());
+
+            return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Re-read the classification rule file now (an invalid file is rejected and the current rules stay active)
+         * POST /api/admin/data/rules/reload
+         */
+        @PostMapping("/rules/reload")
+        public ResponseEntity<Map<String, Object>> reloadRules() {
+            try {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("rules", ruleEngine.reload());
+                response.put("message", "Classification rules reloaded");
+                return ResponseEntity.ok(response);
+
+            } catch (IllegalStateException e) {
+                return jobError(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+
+        /**
+         * Re-derive framework, runtime, OS, cost and generated use cases of every library, and categories of those
+         * with stored registry keywords, in the background and without upstream calls
+         * POST /api/admin/data/reclassify
+         */
+        @PostMapping("/reclassify")
+        public ResponseEntity<Map<String, Object>> reclassifyLibraries() {
+            if (!reclassificationService.start()) {
+                return jobError(HttpStatus.CONFLICT, "Reclassification is already running");
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Reclassification started with rules " + ruleEngine.getVersion()
+                    + " - progress at /api/admin/data/reclassify/status");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        }
+
+        /**
+         * Progress of the running reclassification and the result of the last one
+         * GET /api/admin/data/reclassify/status
+         */
+        @GetMapping("/reclassify/status")
+        public ResponseEntity<Map<String, Object>> getReclassifyStatus() {
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("reclassification", reclassificationService.getStatus());
+
+            return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Raw upstream payload store: mode, size, compression ratio, replay hits / misses and the last replay
+         * GET /api/admin/data/payloads
+         */
+        @GetMapping("/payloads")
+        public ResponseEntity<Map<String, Object>> getPayloadStore() {
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("store", payloadStore.getStats());
+            response.put("replay", replayService.getStatus());
+
+            return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Switch the payload store mode at runtime (off, record, replay, offline)
+         * POST /api/admin/data/payloads/mode?mode=offline
+         */
+        @PostMapping("/payloads/mode")
+        public ResponseEntity<Map<String, Object>> setPayloadMode(@RequestParam String mode) {
+            try {
+                payloadStore.setMode(UpstreamPayloadStore.parseMode(mode));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("mode", payloadStore.getMode().name().toLowerCase());
+                response.put("message", "Payload store mode set to " + payloadStore.getMode().name().toLowerCase());
+                return ResponseEntity.ok(response);
+
+            } catch (IllegalArgumentException e) {
+                return jobError(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+
+        /**
+         * Re-map and re-enrich every stored libraries.io project from the payload store, in the background
+         * Needs replay or offline mode
+         * POST /api/admin/data/payloads/replay
+         */
+        @PostMapping("/payloads/replay")
+        public ResponseEntity<Map<String, Object>> replayPayloads() {
+            try {
+                if (!replayService.start()) {
+                    return jobError(HttpStatus.CONFLICT, "A replay is already running");
+                }
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Replay started - progress at /api/admin/data/payloads");
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+            } catch (IllegalStateException e) {
+                return jobError(HttpStatus.CONFLICT, e.getMessage());
+            }
+        }
+
+        /**
+         * Re-check the whole catalogue against OSV with batched querybatch requests, in the background
+         * POST /api/admin/data/vulnerabilities/refresh
+         */
+        @PostMapping("/vulnerabilities/refresh")
+        public ResponseEntity<Map<String, Object>> refreshVulnerabilities() {
+            if (!vulnerabilityRefreshService.start()) {
+                return jobError(HttpStatus.CONFLICT, "A vulnerability refresh is already running");
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Vulnerability refresh started - progress at /api/admin/data/vulnerabilities/refresh/status");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        }
+
+        /**
+         * Progress of the running vulnerability refresh and the result of the last one
+         * GET /api/admin/data/vulnerabilities/refresh/status
+         */
+        @GetMapping("/vulnerabilities/refresh/status")
+        public ResponseEntity<Map<String, Object>> getVulnerabilityRefreshStatus() {
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("vulnerabilityRefresh", vulnerabilityRefreshService.getStatus());
+
+            return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Vulnerability cache counters: memory hit rate, evictions, table hits and load times
+         * GET /api/admin/data/vulnerabilities/cache-stats
+         */
+        @GetMapping("/vulnerabilities/cache-stats")
+        public ResponseEntity<Map<String, Object>> getVulnerabilityCacheStats() {
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("vulnerabilities", securityVulnerabilityService.getCacheStats());
+            response.put("osvRecords", osvBatchScanner.getCacheStats());
+
+            return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Background catalogue refresh: tracked / due libraries and what recent refreshes changed
+         * GET /api/admin/data/refresh/status
+         */
+        @GetMapping("/refresh/status")
+        public ResponseEntity<Map<String, Object>> getRefreshStatus() {
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("refresh", catalogueRefreshService.getStats());
+
+            return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Run one refresh tick now instead of waiting for the scheduler
+         * POST /api/admin/data/refresh/tick
+         */
+        @PostMapping("/refresh/tick")
+        public ResponseEntity<Map<String, Object>> triggerRefreshTick() {
+
+            boolean started = catalogueRefreshService.triggerTick();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", started);
+            response.put("message", started ? "Refresh tick started" : "A refresh tick is already running");
+
+            return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Reload the in-memory search index from the database
+         * POST /api/admin/data/search-index/rebuild
+         */
+        @PostMapping("/search-index/rebuild")
+        public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+
+            searchIndex.rebuild();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("index", searchIndex.getStats());
+            response.put("message", "Search index rebuilt");
+
+            return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Hit / miss / eviction counters of the advanced-search result, summary row and facet caches
+         * Use these to size app.search.cache.max-entries and app.search.cache.ttl-seconds
+         * GET /api/admin/data/search-cache/stats
+         */
+        @GetMapping("/search-cache/stats")
+        public ResponseEntity<Map<String, Object>> searchCacheStats() {
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("catalogueVersion", searchIndex.getVersion());
+            response.put("results", libraryService.getSearchCacheStats());
+            response.put("summaries", libraryService.getSummaryCacheStats());
+            response.put("facets", facetService.getCacheStats());
+
+            return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Per-host token bucket state: rate, available permits, waits, skipped calls and throttled responses
+         * plus the parallel enrichment pool (completed / failed / timed-out calls)
+         * and the shared HTTP client (requests, status classes, latency, bytes per host)
+         * GET /api/admin/data/rate-limits
+         */
+        @GetMapping("/rate-limits")
+        public ResponseEntity<Map<String, Object>> rateLimits() {
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("hosts", rateLimiter.getStats());
+            response.put("enrichmentCalls", enrichmentExecutor.getStats());
+            response.put("http", httpClient.getStats());
 
             return ResponseEntity.ok(response);
         }
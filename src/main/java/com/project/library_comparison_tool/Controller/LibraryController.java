@@ -1,17 +1,26 @@
 package com.project.library_comparison_tool.Controller;
 
 import com.project.library_comparison_tool.dto.AdvancedSearchDTO;
+import com.project.library_comparison_tool.dto.CursorPageDTO;
+import com.project.library_comparison_tool.dto.LibrarySummaryDTO;
+import com.project.library_comparison_tool.dto.SearchFacetsDTO;
 import com.project.library_comparison_tool.entity.Library;
 import com.project.library_comparison_tool.service.LibraryService;
 import com.project.library_comparison_tool.service.ComparisonService;
+import com.project.library_comparison_tool.service.LibraryExportService;
+import com.project.library_comparison_tool.service.LibraryFacetService;
 import com.project.library_comparison_tool.dto.LibraryDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,10 +33,17 @@ public class LibraryController {
 
     private final LibraryService libraryService;
     private final ComparisonService comparisonService;
+    private final LibraryFacetService facetService;
+    private final LibraryExportService exportService;
 
-    public LibraryController(LibraryService libraryService, ComparisonService comparisonService) {
+    public LibraryController(LibraryService libraryService,
+                             ComparisonService comparisonService,
+                             LibraryFacetService facetService,
+                             LibraryExportService exportService) {
         this.libraryService = libraryService;
         this.comparisonService = comparisonService;
+        this.facetService = facetService;
+        this.exportService = exportService;
     }
 
     // add new library
@@ -38,16 +54,39 @@ public class LibraryController {
     }
 
     // list all libraries with pagination support
+    // keyset=true (or any cursor) switches to cursor pagination: pass nextCursor back as cursor
+    // view=summary returns the slim LibrarySummaryDTO (no vulnerability details / dependencies)
     @GetMapping
     public ResponseEntity<?> getAllLibraries(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "false") boolean paginate) {
+            @RequestParam(defaultValue = "false") boolean paginate,
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "false") boolean includeCount,
+            @RequestParam(defaultValue = "full") String view) {
+
+        boolean summary = isSummaryView(view);
+
+        // Cursor pagination - seeks on (sortKey, id), COUNT only if requested
+        if (keyset || cursor != null) {
+            try {
+                CursorPageDTO<?> cursorPage = summary
+                        ? libraryService.getLibrarySummariesAfter(cursor, sortBy, size, includeCount)
+                        : libraryService.getLibrariesAfter(cursor, sortBy, size, includeCount);
+                return ResponseEntity.ok(buildCursorResponse(cursorPage));
+            } catch (IllegalArgumentException e) {
+                return cursorErrorResponse(e);
+            }
+        }
 
         // If pagination is disabled, return all libraries (backward compatibility)
         if (!paginate) {
             List<Library> libraries = libraryService.getAllLibraries();
-            return ResponseEntity.ok(LibraryDTO.fromEntities(libraries, comparisonService));
+            return ResponseEntity.ok(summary
+                    ? LibrarySummaryDTO.fromEntities(libraries, comparisonService)
+                    : LibraryDTO.fromEntities(libraries, comparisonService));
         }
 
         // Return paginated results
@@ -55,7 +94,9 @@ public class LibraryController {
         Page<Library> libraryPage = libraryService.getAllLibrariesPaginated(pageable);
 
         // Convert to DTOs
-        List<LibraryDTO> libraryDTOs = LibraryDTO.fromEntities(libraryPage.getContent(), comparisonService);
+        List<?> libraryDTOs = summary
+                ? LibrarySummaryDTO.fromEntities(libraryPage.getContent(), comparisonService)
+                : LibraryDTO.fromEntities(libraryPage.getContent(), comparisonService);
 
         // Build response with pagination metadata
         Map<String, Object> response = new HashMap<>();
@@ -69,6 +110,33 @@ public class LibraryController {
         return ResponseEntity.ok(response);
     }
 
+    // stream the whole catalogue as NDJSON (default) or CSV without loading it into memory
+    // prefer this over paginate=false for dumps / offline analysis
+    @GetMapping("/export")
+    public ResponseEntity<?> exportLibraries(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Unsupported export format: " + format + " (use ndjson or csv)");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        StreamingResponseBody body = out -> {
+            if (csv) {
+                exportService.exportCsv(out);
+            } else {
+                exportService.exportNdjson(out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"libraries." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
     // get library by ID
     @GetMapping("/{id}")
     public ResponseEntity<LibraryDTO> getLibraryById(@PathVariable Long id) {
@@ -85,6 +153,29 @@ public class LibraryController {
         return ResponseEntity.ok(LibraryDTO.fromEntities(libraries, comparisonService));
     }
 
+    // ranked full-text search (name, tags, categories, description)
+    @GetMapping("/search/full-text")
+    public ResponseEntity<List<LibraryDTO>> fullTextSearch(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<Library> libraries = libraryService.fullTextSearch(query, Math.min(Math.max(limit, 1), 100));
+        return ResponseEntity.ok(LibraryDTO.fromEntities(libraries, comparisonService));
+    }
+
+    // search-as-you-type suggestions served from the in-memory search index
+    @GetMapping("/search/instant")
+    public ResponseEntity<?> instantSearch(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (!libraryService.isSearchIndexReady()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Search index is still loading, try again shortly");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        return ResponseEntity.ok(libraryService.instantSearch(query, Math.min(Math.max(limit, 1), 50)));
+    }
+
     // filter by category
     @GetMapping("/category/{category}")
     public ResponseEntity<List<LibraryDTO>> getByCategory(@PathVariable String category) {
@@ -99,24 +190,52 @@ public class LibraryController {
         return ResponseEntity.ok(LibraryDTO.fromEntities(libraries, comparisonService));
     }
 
-    //AdvancedSearch with pagination support
+    //AdvancedSearch with pagination support (offset or cursor)
     @PostMapping("/advanced-search")
     public ResponseEntity<?> advancedSearch(
             @RequestBody AdvancedSearchDTO criteria,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "false") boolean paginate) {
+            @RequestParam(defaultValue = "false") boolean paginate,
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeCount,
+            @RequestParam(defaultValue = "true") boolean includeFacets,
+            @RequestParam(defaultValue = "full") String view) {
+
+        boolean summary = isSummaryView(view);
+
+        // Cursor pagination - sort order comes from criteria.sortBy
+        if (keyset || cursor != null) {
+            try {
+                CursorPageDTO<?> cursorPage = summary
+                        ? libraryService.advancedSearchSummariesAfter(criteria, cursor, size, includeCount)
+                        : libraryService.advancedSearchAfter(criteria, cursor, size, includeCount);
+                Map<String, Object> response = buildCursorResponse(cursorPage);
+                // Facets don't change between pages, so only the first page carries them
+                if (includeFacets && cursor == null) {
+                    response.put("facets", facetService.getFacets(criteria));
+                }
+                return ResponseEntity.ok(response);
+            } catch (IllegalArgumentException e) {
+                return cursorErrorResponse(e);
+            }
+        }
 
         try {
             // If pagination is disabled, return all results
+            // view=summary reads only the summary columns of the hits, never the full DTOs
             if (!paginate) {
-                List<LibraryDTO> results = libraryService.advancedSearch(criteria);
-                return ResponseEntity.ok(results);
+                return ResponseEntity.ok(summary
+                        ? libraryService.advancedSearchSummaries(criteria)
+                        : libraryService.advancedSearch(criteria));
             }
 
             // Get paginated results
             Pageable pageable = PageRequest.of(page, size);
-            Page<LibraryDTO> resultPage = libraryService.advancedSearchPaginated(criteria, pageable);
+            Page<?> resultPage = summary
+                    ? libraryService.advancedSearchSummariesPaginated(criteria, pageable)
+                    : libraryService.advancedSearchPaginated(criteria, pageable);
 
             // Build response with pagination metadata
             Map<String, Object> response = new HashMap<>();
@@ -126,6 +245,9 @@ public class LibraryController {
             response.put("totalItems", resultPage.getTotalElements());
             response.put("hasNext", resultPage.hasNext());
             response.put("hasPrevious", resultPage.hasPrevious());
+            if (includeFacets) {
+                response.put("facets", facetService.getFacets(criteria));
+            }
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -133,4 +255,33 @@ public class LibraryController {
                     .body(null);
         }
     }
+
+    // facet counts only (category, platform, grade, deprecated, vulnerable) for the given filters
+    @PostMapping("/advanced-search/facets")
+    public ResponseEntity<SearchFacetsDTO> advancedSearchFacets(@RequestBody AdvancedSearchDTO criteria) {
+        return ResponseEntity.ok(facetService.getFacets(criteria));
+    }
+
+    // response body for cursor pagination
+    private Map<String, Object> buildCursorResponse(CursorPageDTO<?> cursorPage) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("libraries", cursorPage.getContent());
+        response.put("nextCursor", cursorPage.getNextCursor());
+        response.put("hasNext", cursorPage.isHasNext());
+        if (cursorPage.getTotalItems() != null) {
+            response.put("totalItems", cursorPage.getTotalItems());
+        }
+        return response;
+    }
+
+    private boolean isSummaryView(String view) {
+        return "summary".equalsIgnoreCase(view);
+    }
+
+    private ResponseEntity<Map<String, Object>> cursorErrorResponse(IllegalArgumentException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
 }
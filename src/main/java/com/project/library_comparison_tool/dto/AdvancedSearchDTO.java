@@ -3,12 +3,14 @@ package com.project.library_comparison_tool.dto;
 import lombok.*;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.StringJoiner;
+import java.util.TreeSet;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class AdvancedSearchDTO {
 
     // Keyword search
@@ -40,5 +42,55 @@ public class AdvancedSearchDTO {
     private List<String> excludeCategories;
 
     // Sorting
-    private String sortBy;  // "stars", "dependents", "name", "updated"
+    private String sortBy;  // "stars", "dependents", "name", "updated", "score", "relevance"
+
+    /**
+     * Canonical form of these criteria for cache keys
+     * List order, blank values and keyword case/inner spacing don't change the key
+     * A trailing space is kept: the search index only prefix-matches the last keyword when it is still being typed
+     *
+     * @param includeSort false when the cached value doesn't depend on ordering (e.g. facet counts)
+     */
+    public String toCacheKey(boolean includeSort) {
+        StringJoiner key = new StringJoiner("|");
+        key.add("q=" + canonicalQuery(searchQuery));
+        key.add("cat=" + canonical(categories, true));
+        key.add("plat=" + canonical(platforms, false));
+        key.add("stars=" + minStars + ".." + maxStars);
+        key.add("deps=" + minDependents + ".." + maxDependents);
+        key.add("after=" + lastCommitAfter);
+        key.add("grades=" + canonical(includeGrades, false));
+        key.add("xdep=" + Boolean.TRUE.equals(excludeDeprecated));
+        key.add("xvuln=" + Boolean.TRUE.equals(excludeSecurityVulnerabilities));
+        key.add("xunm=" + Boolean.TRUE.equals(excludeUnmaintained));
+        key.add("xplat=" + canonical(excludePlatforms, false));
+        key.add("xcat=" + canonical(excludeCategories, true));
+        if (includeSort) {
+            key.add("sort=" + (sortBy == null ? "" : sortBy.toLowerCase()));
+        }
+        return key.toString();
+    }
+
+    // Same notion of "last word finished" as LibrarySearchIndex.matchKeywords
+    private static String canonicalQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        String collapsed = query.trim().replaceAll("\\s+", " ").toLowerCase();
+        boolean lastWordFinished = !query.isEmpty() && Character.isWhitespace(query.charAt(query.length() - 1));
+        return lastWordFinished && !collapsed.isEmpty() ? collapsed + " " : collapsed;
+    }
+
+    private static String canonical(List<String> values, boolean ignoreCase) {
+        if (values == null) {
+            return "";
+        }
+        TreeSet<String> sorted = new TreeSet<>();
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                sorted.add(ignoreCase ? value.trim().toLowerCase() : value.trim());
+            }
+        }
+        return String.join(",", sorted);
+    }
 }
\ No newline at end of file
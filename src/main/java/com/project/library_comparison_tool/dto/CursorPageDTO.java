@@ -0,0 +1,21 @@
+package com.project.library_comparison_tool.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of keyset (cursor) pagination
+ * totalItems is only filled in when the caller asked for a count
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private String nextCursor; // null on the last page
+    private boolean hasNext;
+    private Long totalItems;
+}
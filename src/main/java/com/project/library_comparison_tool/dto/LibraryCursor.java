@@ -0,0 +1,64 @@
+package com.project.library_comparison_tool.dto;
+
+import com.project.library_comparison_tool.entity.Library;
+import com.project.library_comparison_tool.repository.LibrarySortKey;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination
+ * Holds the sort key plus the (sortValue, id) of the last row on the previous page
+ * Encoded as base64url of "sortBy|id|n" (null sort value) or "sortBy|id|v|value"
+ */
+@Getter
+public class LibraryCursor {
+
+    private final LibrarySortKey sortKey;
+    private final Comparable<?> lastValue;
+    private final Long lastId;
+
+    private LibraryCursor(LibrarySortKey sortKey, Comparable<?> lastValue, Long lastId) {
+        this.sortKey = sortKey;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    // Cursor pointing just past the given library
+    public static LibraryCursor after(LibrarySortKey sortKey, Library library) {
+        return new LibraryCursor(sortKey, sortKey.valueOf(library), library.getId());
+    }
+
+    public String encode() {
+        String raw = sortKey.getApiName() + "|" + lastId + "|" +
+                (lastValue == null ? "n" : "v|" + lastValue);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by encode()
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static LibraryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+
+            LibrarySortKey sortKey = LibrarySortKey.from(parts[0]);
+            Long lastId = Long.valueOf(parts[1]);
+
+            if ("n".equals(parts[2]) && parts.length == 3) {
+                return new LibraryCursor(sortKey, null, lastId);
+            }
+            if ("v".equals(parts[2]) && parts.length == 4) {
+                return new LibraryCursor(sortKey, sortKey.parse(parts[3]), lastId);
+            }
+        } catch (RuntimeException e) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+}
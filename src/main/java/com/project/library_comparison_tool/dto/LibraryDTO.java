@@ -88,9 +88,9 @@ public class LibraryDTO {
             return null;
         }
         
-        // Calculate comparison scores using unified ComparisonService if available
+        // Scores are persisted on the library; only compute them on the fly for rows not yet scored
         ComparisonService.ComparisonResult comparison = null;
-        if (comparisonService != null) {
+        if (comparisonService != null && library.getQualityGrade() == null) {
             comparison = comparisonService.calculateComparison(library);
         }
 
@@ -156,16 +156,16 @@ public class LibraryDTO {
                 .dependencyCount(depCount)
 
 
-                // Comparison scores from unified ComparisonService (if available)
-                .popularityScore(comparison != null ? comparison.getPopularityScore() : null)
-                .maintenanceScore(comparison != null ? comparison.getMaintenanceScore() : null)
-                .securityScore(comparison != null ? comparison.getSecurityScore() : null)
-                .communityScore(comparison != null ? comparison.getCommunityScore() : null)
-                .qualityScore(comparison != null ? comparison.getQualityScore() : null)
-                .overallScore(comparison != null ? comparison.getOverallScore() : null)
+                // Comparison scores - persisted columns, or ComparisonService for unscored rows
+                .popularityScore(comparison != null ? comparison.getPopularityScore() : library.getPopularityScore())
+                .maintenanceScore(comparison != null ? comparison.getMaintenanceScore() : library.getMaintenanceScore())
+                .securityScore(comparison != null ? comparison.getSecurityScore() : library.getSecurityScore())
+                .communityScore(comparison != null ? comparison.getCommunityScore() : library.getCommunityScore())
+                .qualityScore(comparison != null ? comparison.getQualityScore() : library.getQualityScore())
+                .overallScore(comparison != null ? comparison.getOverallScore() : library.getOverallScore())
                 .qualityGrade(comparison != null ? comparison.getQualityGrade() : library.getQualityGrade())
-                .activelyMaintained(comparison != null ? comparison.isActivelyMaintained() : library.isActivelyMaintained())
-                .vulnerabilitySeverityScore(comparison != null ? comparison.getVulnerabilitySeverityScore() : null)
+                .activelyMaintained(comparison != null ? comparison.isActivelyMaintained() : library.getActivelyMaintained())
+                .vulnerabilitySeverityScore(comparison != null ? comparison.getVulnerabilitySeverityScore() : library.getVulnerabilitySeverityScore())
                 .popularityDisplay(formatPopularity(library.getGithubStars()))
 
                 .build();
@@ -190,7 +190,7 @@ public class LibraryDTO {
 
 
     // display formatter popularity
-    private static String formatPopularity(Integer stars) {
+    static String formatPopularity(Integer stars) {
         if (stars == null) {
             return null;
         }
@@ -1,8 +1,10 @@
 package com.project.library_comparison_tool.dto;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.project.library_comparison_tool.entity.Category;
 import com.project.library_comparison_tool.entity.Library;
 import com.project.library_comparison_tool.entity.LibraryDependency;
+import com.project.library_comparison_tool.entity.Vulnerability;
 import com.project.library_comparison_tool.service.CategoryService;
 import com.project.library_comparison_tool.service.FrameworkService;
 import com.project.library_comparison_tool.service.RuntimeEnvironmentService;
@@ -10,6 +12,7 @@ import com.project.library_comparison_tool.service.OperatingSystemService;
 import com.project.library_comparison_tool.service.UseCaseService;
 import com.project.library_comparison_tool.service.LicenseService;
 import com.project.library_comparison_tool.service.DeprecationService;
+import com.project.library_comparison_tool.service.EnrichmentExecutor;
 import com.project.library_comparison_tool.service.SecurityVulnerabilityService;
 import com.project.library_comparison_tool.service.DocumentationService;
 import com.project.library_comparison_tool.service.ExampleCodeService;
@@ -20,7 +23,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class LibraryIOMapperDTO {
@@ -35,6 +38,7 @@ public class LibraryIOMapperDTO {
     private final SecurityVulnerabilityService securityVulnerabilityService;
     private final DocumentationService documentationService;
     private final ExampleCodeService exampleCodeService;
+    private final EnrichmentExecutor enrichmentExecutor;
 
     public LibraryIOMapperDTO(
             CategoryService categoryService,
@@ -46,7 +50,8 @@ public class LibraryIOMapperDTO {
             DeprecationService deprecationService,
             SecurityVulnerabilityService securityVulnerabilityService,
             DocumentationService documentationService,
-            ExampleCodeService exampleCodeService) {
+            ExampleCodeService exampleCodeService,
+            EnrichmentExecutor enrichmentExecutor) {
         this.categoryService = categoryService;
         this.frameworkService = frameworkService;
         this.runtimeEnvironmentService = runtimeEnvironmentService;
@@ -57,6 +62,7 @@ public class LibraryIOMapperDTO {
         this.securityVulnerabilityService = securityVulnerabilityService;
         this.documentationService = documentationService;
         this.exampleCodeService = exampleCodeService;
+        this.enrichmentExecutor = enrichmentExecutor;
     }
 
     //Convert libraries.io API response to Library entity
@@ -105,6 +111,7 @@ public class LibraryIOMapperDTO {
         // Status flags
         // Check deprecation status using DeprecationService
         List<String> keywords = extractKeywordsFromJson(apiResponse);
+        library.setRegistryKeywords(joinKeywords(keywords));
         boolean isDeprecated = deprecationService.checkDeprecation(
                 library.getPackageManager(),
                 library.getName(),
@@ -138,7 +145,7 @@ public class LibraryIOMapperDTO {
 
         //Infer categories using CategoryService (multi-category support)
         // Note: keywords already extracted above for deprecation check
-        Set<CategoryService.Category> inferredCategories = categoryService.inferCategories(
+        Set<Category> inferredCategories = categoryService.inferCategories(
                 library.getName(),
                 library.getDescription(),
                 keywords,
@@ -147,15 +154,13 @@ public class LibraryIOMapperDTO {
         );
 
         // Set all categories as comma-separated string (no single primary category)
-        String allCategories = inferredCategories.stream()
-                .map(CategoryService.Category::getDisplayName)
-                .sorted()
-                .collect(Collectors.joining(", "));
+        String allCategories = CategoryService.toCategoriesString(inferredCategories);
         library.setCategories(allCategories);
 
         // Generate use case description (plain English for non-technical users) - using UseCaseService
         String useCase = useCaseService.generateUseCase(library.getName(), library.getDescription(), allCategories, library.getLanguage());
         library.setUseCase(useCase);
+        library.setUseCaseFromReadme(false);
 
         System.out.println("    → Categories: " + allCategories);
         System.out.println("    → Use Case: " + useCase);
@@ -215,6 +220,24 @@ public class LibraryIOMapperDTO {
         return keywords;
     }
 
+    /**
+     * Keywords as stored in Library.registryKeywords (comma-separated, cut at the column length)
+     */
+    private String joinKeywords(List<String> keywords) {
+        StringBuilder joined = new StringBuilder();
+        for (String keyword : keywords) {
+            String clean = keyword.replace(",", " ").trim();
+            if (clean.isEmpty() || joined.length() + clean.length() + 1 > 2000) {
+                continue;
+            }
+            if (joined.length() > 0) {
+                joined.append(",");
+            }
+            joined.append(clean);
+        }
+        return joined.toString();
+    }
+
     /**
      * Enrich library with detailed information from project details API
      * This gets data not available in search results like dependent_repos_count
@@ -224,6 +247,17 @@ public class LibraryIOMapperDTO {
      * @return Enriched library object
      */
     public Library enrichWithDetailedInfo(Library library, JsonNode detailedResponse) {
+        return enrichWithDetailedInfo(library, detailedResponse, false);
+    }
+
+    /**
+     * Same as enrichWithDetailedInfo, optionally leaving the OSV lookup to the caller
+     * Bulk ingestion defers OSV so a whole batch is checked with one querybatch request (see OsvBatchScanner);
+     * the library then only carries its GitHub advisories and the caller merges OSV results in
+     *
+     * @param deferOsv Skip OSV (and the vulnerability cache) for this library
+     */
+    public Library enrichWithDetailedInfo(Library library, JsonNode detailedResponse, boolean deferOsv) {
         if (detailedResponse == null || library == null) {
             return library;
         }
@@ -276,7 +310,8 @@ public class LibraryIOMapperDTO {
 
         // Re-infer categories with detailed information (multi-category support)
         List<String> keywords = extractKeywordsFromJson(detailedResponse);
-        Set<CategoryService.Category> inferredCategories = categoryService.inferCategories(
+        library.setRegistryKeywords(joinKeywords(keywords));
+        Set<Category> inferredCategories = categoryService.inferCategories(
                 library.getName(),
                 library.getDescription(),
                 keywords,
@@ -285,57 +320,91 @@ public class LibraryIOMapperDTO {
         );
 
         // Update all categories (comma-separated)
-        String allCategories = inferredCategories.stream()
-                .map(CategoryService.Category::getDisplayName)
-                .sorted()
-                .collect(Collectors.joining(", "));
+        String allCategories = CategoryService.toCategoriesString(inferredCategories);
         library.setCategories(allCategories);
 
-        // Extract example code snippet from GitHub
-        String exampleCode = exampleCodeService.extractExampleCode(library);
+        // Re-infer OS (in case we have more info now) - using OperatingSystemService
+        library.setSupportedOs(operatingSystemService.inferSupportedOs(
+                library.getLanguage(),
+                library.getPackageManager(),
+                library.getName()
+        ));
+
+        // Outbound calls run in parallel (README, registry, OSV, GitHub) - they only read the library,
+        // results are applied below on this thread once all of them have returned or hit their deadline
+        String name = library.getName();
+        CompletableFuture<String> exampleCodeCall = enrichmentExecutor.submit(
+                "Example code for " + name, () -> exampleCodeService.extractExampleCode(library), null);
+        CompletableFuture<String> usageCall = enrichmentExecutor.submit(
+                "README usage for " + name, () -> exampleCodeService.extractUsageDescription(library), null);
+
+        // Re-check deprecation status with detailed information (may have more accurate data)
+        // Only update if we haven't already detected deprecation (to avoid unnecessary API calls)
+        CompletableFuture<Boolean> deprecationCall = CompletableFuture.completedFuture(false);
+        if (!Boolean.TRUE.equals(library.getIsDeprecated())) {
+            List<String> detailedKeywords = extractKeywordsFromJson(detailedResponse);
+            deprecationCall = enrichmentExecutor.submit("Deprecation check for " + name,
+                    () -> deprecationService.checkDeprecation(
+                            library.getPackageManager(),
+                            library.getName(),
+                            library.getDescription(),
+                            detailedKeywords
+                    ), false);
+        }
+
+        // Security vulnerabilities: OSV and GitHub Advisories are queried side by side unless cached
+        // (a failed lookup yields null, so storeVulnerabilities doesn't cache it as "no vulnerabilities")
+        List<Vulnerability> cachedVulnerabilities = deferOsv ? null : securityVulnerabilityService.getCachedVulnerabilities(library);
+        CompletableFuture<List<Vulnerability>> osvCall = CompletableFuture.completedFuture(List.of());
+        CompletableFuture<List<Vulnerability>> advisoriesCall = CompletableFuture.completedFuture(List.of());
+        if (cachedVulnerabilities == null && !deferOsv) {
+            osvCall = enrichmentExecutor.submit("OSV lookup for " + name,
+                    () -> securityVulnerabilityService.fetchOsvVulnerabilities(library), null);
+        }
+        if (cachedVulnerabilities == null) {
+            advisoriesCall = enrichmentExecutor.submit("GitHub advisories for " + name,
+                    () -> securityVulnerabilityService.fetchGitHubAdvisories(library), null);
+        }
+
+        enrichmentExecutor.joinAll(exampleCodeCall, usageCall, deprecationCall, osvCall, advisoriesCall);
+
+        // Example code snippet from GitHub
+        String exampleCode = exampleCodeCall.join();
         if (exampleCode != null && !exampleCode.isEmpty()) {
             library.setExampleCodeSnippet(exampleCode);
         }
 
-        // Extract usage description from README to enhance useCase
-        String usageFromReadme = exampleCodeService.extractUsageDescription(library);
+        // Usage description from README to enhance useCase
+        String usageFromReadme = usageCall.join();
         
         // Update use case - prefer README usage, fallback to generated useCase
         if (usageFromReadme != null && !usageFromReadme.isEmpty()) {
             library.setUseCase(usageFromReadme);
+            library.setUseCaseFromReadme(true);
             System.out.println("    → Enhanced use case from README.md");
         } else if (library.getUseCase() == null || library.getUseCase().isEmpty()) {
             String useCase = useCaseService.generateUseCase(library.getName(), library.getDescription(), allCategories, library.getLanguage());
             library.setUseCase(useCase);
+            library.setUseCaseFromReadme(false);
         }
 
-        // Re-infer OS (in case we have more info now) - using OperatingSystemService
-        library.setSupportedOs(operatingSystemService.inferSupportedOs(
-                library.getLanguage(),
-                library.getPackageManager(),
-                library.getName()
-        ));
-
-        // Re-check deprecation status with detailed information (may have more accurate data)
-        // Only update if we haven't already detected deprecation (to avoid unnecessary API calls)
-        if (!Boolean.TRUE.equals(library.getIsDeprecated())) {
-            List<String> detailedKeywords = extractKeywordsFromJson(detailedResponse);
-            boolean isDeprecated = deprecationService.checkDeprecation(
-                    library.getPackageManager(),
-                    library.getName(),
-                    library.getDescription(),
-                    detailedKeywords
-            );
-            if (isDeprecated) {
-                library.setIsDeprecated(true);
-                System.out.println("    → Deprecation detected during enrichment");
-            }
+        if (Boolean.TRUE.equals(deprecationCall.join())) {
+            library.setIsDeprecated(true);
+            System.out.println("    → Deprecation detected during enrichment");
         }
 
-        // Check security vulnerabilities using SecurityVulnerabilityService
-        // This will set hasSecurityVulnerabilities, vulnerabilityCount, and populate vulnerabilities list
-        List<com.project.library_comparison_tool.entity.Vulnerability> vulnerabilities = 
-                securityVulnerabilityService.checkAndStoreVulnerabilities(library);
+        // This sets hasSecurityVulnerabilities and vulnerabilityCount; entities are already linked to the library
+        List<Vulnerability> vulnerabilities;
+        if (cachedVulnerabilities != null) {
+            vulnerabilities = cachedVulnerabilities;
+            library.setVulnerabilitiesChecked(true);
+        } else if (deferOsv) {
+            // Not cached yet - storeVulnerabilities runs once the caller has the OSV results
+            vulnerabilities = advisoriesCall.join();
+            library.setAdvisoriesLookupFailed(vulnerabilities == null);
+        } else {
+            vulnerabilities = securityVulnerabilityService.storeVulnerabilities(library, osvCall.join(), advisoriesCall.join());
+        }
         
         // Add vulnerabilities to library (they're already linked in the service)
         if (vulnerabilities != null && !vulnerabilities.isEmpty()) {
@@ -0,0 +1,110 @@
+package com.project.library_comparison_tool.dto;
+
+import com.project.library_comparison_tool.entity.Library;
+import com.project.library_comparison_tool.service.ComparisonService;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Slim library view for list / search result pages (view=summary)
+ * Leaves out vulnerability details, dependencies, supported OS, example code and use case,
+ * so mapping a page only touches the tags collection
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LibrarySummaryDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private String categories; // Comma-separated list of categories
+
+    private String language;
+    private String packageManager;
+    private String licenseType;
+    private String latestVersion;
+
+    private Integer githubStars;
+    private Integer githubForks;
+    private Integer dependentProjectsCount;
+    private LocalDate lastRepositoryReleaseDate;
+    private Boolean isDeprecated;
+    private Boolean hasSecurityVulnerabilities;
+    private Integer vulnerabilityCount; // Count only - details are on the full LibraryDTO
+
+    private String homepageUrl;
+    private String repositoryUrl;
+    private List<String> tags;
+
+    private Double overallScore;
+    private String qualityGrade;
+    private Boolean activelyMaintained;
+    private String popularityDisplay;
+
+    // Summary columns projected straight from the libraries table (LibraryRepository.findSummariesByIdIn)
+    // Tags live in their own table and are attached afterwards
+    public LibrarySummaryDTO(Long id, String name, String description, String categories,
+                             String language, String packageManager, String licenseType, String latestVersion,
+                             Integer githubStars, Integer githubForks, Integer dependentProjectsCount,
+                             LocalDate lastRepositoryReleaseDate, Boolean isDeprecated,
+                             Boolean hasSecurityVulnerabilities, Integer vulnerabilityCount,
+                             String homepageUrl, String repositoryUrl,
+                             Double overallScore, String qualityGrade, Boolean activelyMaintained) {
+        this(id, name, description, categories, language, packageManager, licenseType, latestVersion,
+                githubStars, githubForks, dependentProjectsCount, lastRepositoryReleaseDate, isDeprecated,
+                hasSecurityVulnerabilities, vulnerabilityCount, homepageUrl, repositoryUrl, List.of(),
+                overallScore, qualityGrade, activelyMaintained, LibraryDTO.formatPopularity(githubStars));
+    }
+
+    public static LibrarySummaryDTO fromEntity(Library library, ComparisonService comparisonService) {
+        if (library == null) {
+            return null;
+        }
+
+        // Scores are persisted on the library; only compute them on the fly for rows not yet scored
+        ComparisonService.ComparisonResult comparison = null;
+        if (comparisonService != null && library.getQualityGrade() == null) {
+            comparison = comparisonService.calculateComparison(library);
+        }
+
+        return LibrarySummaryDTO.builder()
+                .id(library.getId())
+                .name(library.getName())
+                .description(library.getDescription())
+                .categories(library.getCategories())
+                .language(library.getLanguage())
+                .packageManager(library.getPackageManager())
+                .licenseType(library.getLicenseType())
+                .latestVersion(library.getLatestVersion())
+                .githubStars(library.getGithubStars())
+                .githubForks(library.getGithubForks())
+                .dependentProjectsCount(library.getDependentProjectsCount())
+                .lastRepositoryReleaseDate(library.getLastRepositoryReleaseDate())
+                .isDeprecated(library.getIsDeprecated())
+                .hasSecurityVulnerabilities(library.getHasSecurityVulnerabilities())
+                .vulnerabilityCount(library.getVulnerabilityCount())
+                .homepageUrl(library.getHomepageUrl())
+                .repositoryUrl(library.getRepositoryUrl())
+                .tags(library.getTags())
+                .overallScore(comparison != null ? comparison.getOverallScore() : library.getOverallScore())
+                .qualityGrade(comparison != null ? comparison.getQualityGrade() : library.getQualityGrade())
+                .activelyMaintained(comparison != null ? comparison.isActivelyMaintained() : library.getActivelyMaintained())
+                .popularityDisplay(LibraryDTO.formatPopularity(library.getGithubStars()))
+                .build();
+    }
+
+    public static List<LibrarySummaryDTO> fromEntities(List<Library> libraries, ComparisonService comparisonService) {
+        if (libraries == null) {
+            return null;
+        }
+
+        return libraries.stream()
+                .map(lib -> LibrarySummaryDTO.fromEntity(lib, comparisonService))
+                .collect(Collectors.toList());
+    }
+}
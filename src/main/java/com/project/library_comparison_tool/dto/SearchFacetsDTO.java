@@ -0,0 +1,32 @@
+package com.project.library_comparison_tool.dto;
+
+import lombok.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Facet counts for an advanced search, returned alongside the results
+ * Each multi-select facet (categories, platforms, grades) ignores its own filter,
+ * so the UI can show how many results picking another value would add
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchFacetsDTO {
+
+    @Builder.Default
+    private Map<String, Long> categories = new LinkedHashMap<>(); // display name -> count
+
+    @Builder.Default
+    private Map<String, Long> platforms = new LinkedHashMap<>();  // package manager -> count
+
+    @Builder.Default
+    private Map<String, Long> grades = new LinkedHashMap<>();     // "A".."F" -> count
+
+    private long deprecated;          // matching libraries flagged deprecated
+    private long withVulnerabilities; // matching libraries with known vulnerabilities
+    private long total;               // matching libraries (all filters applied)
+}
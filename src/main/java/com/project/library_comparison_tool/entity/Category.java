@@ -0,0 +1,96 @@
+package com.project.library_comparison_tool.entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Broad, user-centric library categories (CategoryService infers them, library_category stores the enum name)
+public enum Category {
+    // Frontend/UI
+    UI_FRAMEWORK("UI Framework", "Building user interfaces, components, reactive UIs"),
+
+    // Backend/Server
+    WEB_FRAMEWORK("Web Framework", "Building web servers, REST APIs, web applications"),
+
+    // Data & Storage
+    DATABASE("Database/ORM", "Database access, ORM, query builders, migrations"),
+    DATA_PROCESSING("Data Processing", "Data analysis, manipulation, ETL, pipelines"),
+
+    // Quality & Dev Tools
+    TESTING("Testing", "Unit tests, integration tests, mocking, test runners"),
+    BUILD_TOOLS("Build Tools", "Bundlers, compilers, build systems, task runners"),
+    CODE_QUALITY("Code Quality", "Linting, formatting, static analysis"),
+
+    // Networking & Communication
+    HTTP_CLIENT("HTTP Client", "Making HTTP requests, REST clients, API consumption"),
+    MESSAGING("Messaging", "Message queues, pub/sub, event streaming"),
+
+    // AI & Data Science
+    MACHINE_LEARNING("Machine Learning", "ML models, neural networks, AI frameworks"),
+    DATA_VISUALIZATION("Data Visualization", "Charts, graphs, plotting, dashboards"),
+
+    // Utilities & Infrastructure
+    UTILITIES("Utilities", "General purpose utilities, helper functions, common tools"),
+    LOGGING("Logging", "Logging frameworks, log management, monitoring"),
+    SECURITY("Security", "Authentication, authorization, encryption, security tools"),
+    SERIALIZATION("Serialization", "JSON, XML, data format conversion"),
+
+    // Specialized
+    MOBILE("Mobile", "iOS, Android, mobile app development"),
+    GAMING("Gaming", "Game engines, graphics, game development"),
+    IOT("IoT", "Internet of Things, embedded systems, hardware interaction"),
+
+    // Catch-all
+    OTHER("Other", "Miscellaneous or specialized libraries");
+
+    private final String displayName;
+    private final String description;
+
+    Category(String displayName, String description) {
+        this.displayName = displayName;
+        this.description = description;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Resolve a category from its display name ("Database/ORM") or enum name ("DATABASE")
+     *
+     * @return The category, or null if the value is not a known category
+     */
+    public static Category fromName(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        for (Category category : values()) {
+            if (category.displayName.equalsIgnoreCase(trimmed) || category.name().equalsIgnoreCase(trimmed)) {
+                return category;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parse a comma-separated categories string (Library.categories) into categories
+     * Unknown names are skipped
+     */
+    public static Set<Category> fromCommaSeparated(String categories) {
+        Set<Category> parsed = EnumSet.noneOf(Category.class);
+        if (categories == null) {
+            return parsed;
+        }
+        for (String name : categories.split(",")) {
+            Category category = fromName(name);
+            if (category != null) {
+                parsed.add(category);
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,78 @@
+package com.project.library_comparison_tool.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A libraries.io load running in the background (see IngestionJobService)
+ * Holds the stage counters and, per search, the last page whose libraries were all processed,
+ * so a cancelled or interrupted job resumes after that page instead of starting over
+ */
+@Entity
+@Table(name = "ingestion_job")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingestion_job_seq")
+    @SequenceGenerator(
+            name = "ingestion_job_seq",
+            sequenceName = "ingestion_job_seq",
+            allocationSize = 1
+    )
+    private Long id;
+
+    @Column(name = "job_type", nullable = false, length = 20)
+    private String jobType; // "SEARCH" or "POPULAR"
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private IngestionJobStatus status = IngestionJobStatus.QUEUED;
+
+    @Column(name = "search_requests", columnDefinition = "TEXT", nullable = false)
+    private String searchRequests; // JSON array of {query, platform, maxPages}
+
+    @Column(name = "limit_count")
+    private int limitCount; // -1 for unlimited
+
+    @Column(name = "checkpoint", columnDefinition = "TEXT")
+    private String checkpoint; // JSON array: last fully processed page per search (0 = none)
+
+    @Column(name = "completed_libraries")
+    private int completedLibraries; // libraries on checkpointed pages (counts toward the limit on resume)
+
+    private int totalPages;
+    private int pagesFetched;
+    private int pagesCompleted;
+    private long detailsFetched;
+    private long enriched;
+    private long saved;
+    private long failed;
+    private long unchanged;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
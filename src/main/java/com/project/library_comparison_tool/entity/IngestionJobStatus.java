@@ -0,0 +1,10 @@
+package com.project.library_comparison_tool.entity;
+
+public enum IngestionJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    INTERRUPTED, // the application stopped while the job was running - resumable
+    FAILED
+}
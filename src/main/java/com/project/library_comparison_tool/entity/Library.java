@@ -2,10 +2,13 @@ package com.project.library_comparison_tool.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Table(name = "library")
@@ -13,7 +16,7 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Library {
 
     @Id
@@ -21,7 +24,7 @@ public class Library {
     @SequenceGenerator(
             name = "library_seq",
             sequenceName = "library_seq",
-            allocationSize = 1
+            allocationSize = 50 // pooled: one sequence call per 50 inserts (see Increase_Sequence_Allocation_Migration.sql)
     )
     private Long id;
 
@@ -71,12 +74,31 @@ public class Library {
     @Column
     private Integer vulnerabilityCount; // Count of known vulnerabilities
 
+    // Comparison scores persisted on write (see ComparisonService.applyScores)
+    // so advanced search can filter and sort on them in the database
+    private Double popularityScore;
+    private Double maintenanceScore;
+    private Double securityScore;
+    private Double communityScore;
+    private Double qualityScore;
+    private Double overallScore;
+
+    @Column(length = 2)
+    private String qualityGrade; // "A", "B", "C", "D", "F"
+
+    private Boolean activelyMaintained; // Repository release within the last 6 months
+    private Integer vulnerabilitySeverityScore; // Weighted vulnerability score
+
+    private Integer scoreInputsHash; // Fingerprint of the fields the scores were computed from
+    private LocalDate scoresValidUntil; // Date the time-based maintenance score next changes (null = never)
+
     @OneToMany(
             mappedBy = "library",
             cascade = CascadeType.ALL,
             orphanRemoval = true,
             fetch = FetchType.LAZY
     )
+    @BatchSize(size = 100) // list pages initialize each lazy collection for up to 100 rows per query
     @Builder.Default
     private List<Vulnerability> vulnerabilities = new ArrayList<>();
 
@@ -92,15 +114,30 @@ public class Library {
             joinColumns = @JoinColumn(name = "library_id")
     )
     @Column(name = "tag")
+    @BatchSize(size = 100)
     @Builder.Default
     private List<String> tags = new ArrayList<>();
 
+    // Normalized copy of categories (one indexed row per category) used for filtering and facets
+    @ElementCollection
+    @CollectionTable(
+            name = "library_category",
+            joinColumns = @JoinColumn(name = "library_id"),
+            indexes = @Index(name = "idx_library_category_category", columnList = "category, library_id")
+    )
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", length = 32)
+    @BatchSize(size = 100)
+    @Builder.Default
+    private Set<Category> categoryCodes = new HashSet<>();
+
     @ElementCollection
     @CollectionTable(
             name = "library_supported_os",
             joinColumns = @JoinColumn(name = "library_id")
     )
     @Column(name = "os_name")
+    @BatchSize(size = 100)
     @Builder.Default
     private List<String> supportedOs = new ArrayList<>();
 
@@ -110,6 +147,20 @@ public class Library {
     @Column(length = 2000)
     private String useCase; // Plain English description of when/why to use this library (for non-technical users)
 
+    private Boolean useCaseFromReadme; // true = taken from the README, false = generated by UseCaseService (null on older rows)
+
+    @Column(length = 2000)
+    private String registryKeywords; // Comma-separated libraries.io keywords, kept so category rules can be re-run locally
+
+    @Transient
+    private boolean advisoriesLookupFailed; // set during enrichment when GitHub Advisories could not be queried (not stored)
+
+    @Transient
+    private boolean vulnerabilitiesChecked; // set during enrichment when both OSV and GitHub Advisories answered (not stored)
+
+    @Column(columnDefinition = "TEXT")
+    private String searchKeywords; // Lower-cased categories + tags, indexed for full-text search (kept in sync on save)
+
     // entity relationships
     @OneToMany(
             mappedBy = "library",
@@ -117,6 +168,7 @@ public class Library {
             orphanRemoval = true,
             fetch = FetchType.LAZY
     )
+    @BatchSize(size = 100)
     @Builder.Default
     private List<LibraryDependency> dependencies = new ArrayList<>();
 
@@ -154,29 +206,71 @@ public class Library {
         dependency.setLibrary(null);
     }
 
-    // All scoring logic has been moved to ComparisonService
+    /**
+     * Transient copy of a library (and its vulnerabilities / dependencies) with every generated id cleared
+     * For retrying a rolled-back insert: the failed flush already handed out sequence ids and rollback keeps
+     * them, so saving the same objects again would merge rows that never reached the database
+     */
+    public Library copyWithoutIds() {
+        Library copy = toBuilder()
+                .id(null)
+                .tags(tags != null ? new ArrayList<>(tags) : new ArrayList<>())
+                .categoryCodes(categoryCodes != null ? new HashSet<>(categoryCodes) : new HashSet<>())
+                .supportedOs(supportedOs != null ? new ArrayList<>(supportedOs) : new ArrayList<>())
+                .vulnerabilities(new ArrayList<>())
+                .dependencies(new ArrayList<>())
+                .build();
+        if (vulnerabilities != null) {
+            for (Vulnerability vulnerability : vulnerabilities) {
+                copy.vulnerabilities.add(vulnerability.toBuilder().id(null).library(copy).build());
+            }
+        }
+        if (dependencies != null) {
+            for (LibraryDependency dependency : dependencies) {
+                copy.dependencies.add(dependency.toBuilder().id(null).library(copy).build());
+            }
+        }
+        return copy;
+    }
 
-    @Deprecated
-    public double getPopularityScore() {
-        // Legacy method - kept for backward compatibility
-        // Returns default value - use ComparisonService for accurate score
-        return 0.0;
+    // Keep the library_category rows in step with the categories string
+    public void syncCategoryCodes() {
+        Set<Category> parsed = Category.fromCommaSeparated(categories);
+        categoryCodes.retainAll(parsed);
+        categoryCodes.addAll(parsed);
     }
-    
-    @Deprecated
-    public boolean isActivelyMaintained() {
-        // Legacy method - kept for backward compatibility
-        if (lastRepositoryReleaseDate == null) {
-            return false;
-        }
-        LocalDate sixMonthsAgo = LocalDate.now().minusMonths(6);
-        return lastRepositoryReleaseDate.isAfter(sixMonthsAgo);
+
+    // Explicit setters: replacing only the tags collection doesn't dirty the row, so @PreUpdate alone can miss it
+    public void setCategories(String categories) {
+        this.categories = categories;
+        refreshSearchKeywords();
     }
 
-    @Deprecated
-    public String getQualityGrade() {
-        // Legacy method - kept for backward compatibility
-        // Returns default grade - use ComparisonService for accurate grade
-        return "C";
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+        refreshSearchKeywords();
     }
+
+    /**
+     * Rebuild searchKeywords from categories and tags
+     * Runs on every persist/update and from the setters; call it after editing the tags list in place
+     */
+    @PrePersist
+    @PreUpdate
+    public void refreshSearchKeywords() {
+        StringBuilder sb = new StringBuilder();
+        if (categories != null) {
+            sb.append(categories.replace(",", " "));
+        }
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null) {
+                    sb.append(' ').append(tag);
+                }
+            }
+        }
+        this.searchKeywords = sb.toString().trim().toLowerCase();
+    }
+
+    // All scoring logic has been moved to ComparisonService
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.project.library_comparison_tool.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refresh bookkeeping for one library, used by CatalogueRefreshService
+ * Hashes of the last seen upstream inputs per source, so a refresh only redoes the work whose source changed
+ */
+@Entity
+@Table(name = "library_refresh_state", indexes = {
+        @Index(name = "idx_library_refresh_state_due", columnList = "next_refresh_at, popularity")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LibraryRefreshState {
+
+    @Id
+    @Column(name = "library_id")
+    private Long libraryId;
+
+    @Column(name = "metadata_hash", length = 64)
+    private String metadataHash; // libraries.io popularity / release fields
+
+    @Column(name = "readme_hash", length = 64)
+    private String readmeHash; // repository URL + latest release (inputs of example code / README usage)
+
+    @Column(name = "vulnerability_hash", length = 64)
+    private String vulnerabilityHash; // sorted advisory ids
+
+    @Column(name = "popularity")
+    private long popularity; // stars + dependent projects, for ordering due refreshes
+
+    @Column(name = "next_refresh_at", nullable = false)
+    private LocalDateTime nextRefreshAt;
+
+    @Column(name = "last_checked_at")
+    private LocalDateTime lastCheckedAt;
+
+    @Column(name = "last_changed_at")
+    private LocalDateTime lastChangedAt;
+
+    @Column(name = "vulnerabilities_checked_at")
+    private LocalDateTime vulnerabilitiesCheckedAt;
+
+    @Column(name = "unchanged_streak")
+    private int unchangedStreak; // consecutive refreshes without any change (stretches the interval)
+}
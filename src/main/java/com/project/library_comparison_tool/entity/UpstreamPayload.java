@@ -0,0 +1,36 @@
+package com.project.library_comparison_tool.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Raw upstream response body (libraries.io, OSV, package registries), deflate-compressed
+ * Keyed by the SHA-256 of the uncompressed body, so a payload fetched again unchanged is stored once
+ */
+@Entity
+@Table(name = "upstream_payload")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpstreamPayload {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private byte[] body; // deflate-compressed UTF-8 (bytea)
+
+    @Column(name = "raw_size", nullable = false)
+    private Integer rawSize;
+
+    @Column(name = "stored_size", nullable = false)
+    private Integer storedSize;
+
+    @Column(name = "stored_at", nullable = false)
+    private LocalDateTime storedAt;
+}
@@ -0,0 +1,41 @@
+package com.project.library_comparison_tool.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest payload seen for one upstream request (method + URL without credentials + request body)
+ */
+@Entity
+@Table(name = "upstream_payload_ref", indexes = {
+        @Index(name = "idx_upstream_payload_ref_host", columnList = "host, request_key"),
+        @Index(name = "idx_upstream_payload_ref_hash", columnList = "content_hash")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpstreamPayloadRef {
+
+    @Id
+    @Column(name = "request_key", length = 64)
+    private String requestKey; // SHA-256 of method, URL and request body
+
+    @Column(length = 8, nullable = false)
+    private String method;
+
+    @Column(length = 2000, nullable = false)
+    private String url;
+
+    @Column(length = 255, nullable = false)
+    private String host;
+
+    @Column(name = "content_hash", length = 64, nullable = false)
+    private String contentHash;
+
+    @Column(name = "fetched_at", nullable = false)
+    private LocalDateTime fetchedAt;
+}
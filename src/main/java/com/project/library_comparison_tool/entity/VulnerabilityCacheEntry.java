@@ -0,0 +1,32 @@
+package com.project.library_comparison_tool.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable copy of SecurityVulnerabilityService's lookup cache
+ * One row per packageManager:name:version key, so warm OSV / GitHub results survive restarts and deploys
+ */
+@Entity
+@Table(name = "vulnerability_cache", indexes = {
+        @Index(name = "idx_vulnerability_cache_cached_at", columnList = "cached_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VulnerabilityCacheEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 512)
+    private String cacheKey;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload; // JSON array of vulnerability fields (no ids / library link)
+
+    @Column(name = "cached_at", nullable = false)
+    private LocalDateTime cachedAt;
+}
@@ -3,6 +3,7 @@ package com.project.library_comparison_tool.ingestion;
 import com.project.library_comparison_tool.entity.Library;
 import com.project.library_comparison_tool.entity.LibraryDependency;
 import com.project.library_comparison_tool.repository.LibraryRepository;
+import com.project.library_comparison_tool.service.LibraryRescoringService;
 import com.project.library_comparison_tool.service.LibraryService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -14,11 +15,14 @@ public class InitialData implements CommandLineRunner {
 
     private final LibraryRepository libraryRepository;
     private final LibraryService libraryService;
+    private final LibraryRescoringService rescoringService;
 
     public InitialData(LibraryRepository libraryRepository,
-                                      LibraryService libraryService) {
+                                      LibraryService libraryService,
+                                      LibraryRescoringService rescoringService) {
         this.libraryRepository = libraryRepository;
         this.libraryService = libraryService;
+        this.rescoringService = rescoringService;
     }
 
     @Override
@@ -27,6 +31,12 @@ public class InitialData implements CommandLineRunner {
         // Only ingest once: if DB already has data, skip
         if (libraryRepository.count() > 0) {
             System.out.println("[ingestion] Libraries already present, skipping bootstrap.");
+
+            // Rows saved before score columns existed need their grade computed once
+            int rescored = rescoringService.backfillMissingScores();
+            if (rescored > 0) {
+                System.out.println("[ingestion] Backfilled scores for " + rescored + " libraries.");
+            }
             return;
         }
 
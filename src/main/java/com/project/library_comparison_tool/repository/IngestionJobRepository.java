@@ -0,0 +1,17 @@
+package com.project.library_comparison_tool.repository;
+
+import com.project.library_comparison_tool.entity.IngestionJob;
+import com.project.library_comparison_tool.entity.IngestionJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IngestionJobRepository extends JpaRepository<IngestionJob, Long> {
+
+    List<IngestionJob> findTop20ByOrderByIdDesc();
+
+    List<IngestionJob> findByStatusIn(Collection<IngestionJobStatus> statuses);
+}
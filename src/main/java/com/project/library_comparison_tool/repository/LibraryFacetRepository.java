@@ -0,0 +1,31 @@
+package com.project.library_comparison_tool.repository;
+
+import com.project.library_comparison_tool.entity.Category;
+import com.project.library_comparison_tool.entity.Library;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grouped counts over a filtered set of libraries (facets for the search UI)
+ * Implemented in LibraryFacetRepositoryImpl and mixed into LibraryRepository
+ */
+public interface LibraryFacetRepository {
+
+    /**
+     * Number of libraries per category among those matching the specification
+     * One GROUP BY query over the library_category table
+     *
+     * @return Counts keyed by category, highest count first
+     */
+    Map<Category, Long> countByCategory(Specification<Library> spec);
+
+    /**
+     * Number of libraries per combination of single-valued attributes (packageManager, qualityGrade, ...)
+     * One GROUP BY query; NULL is a value of its own, so the counts add up to the whole filtered set
+     *
+     * @return Counts keyed by the attribute values, in the order the attributes were given
+     */
+    Map<List<Object>, Long> countByAttributes(Specification<Library> spec, List<String> attributes);
+}
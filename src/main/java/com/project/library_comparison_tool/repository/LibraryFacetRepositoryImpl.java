@@ -0,0 +1,78 @@
+package com.project.library_comparison_tool.repository;
+
+import com.project.library_comparison_tool.entity.Category;
+import com.project.library_comparison_tool.entity.Library;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class LibraryFacetRepositoryImpl implements LibraryFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Map<Category, Long> countByCategory(Specification<Library> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Library> root = query.from(Library.class);
+        Join<Library, Category> category = root.join("categoryCodes");
+
+        Expression<Long> count = cb.countDistinct(root.get("id"));
+        query.multiselect(category, count).groupBy(category).orderBy(cb.desc(count));
+
+        Predicate filter = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (filter != null) {
+            query.where(filter);
+        }
+
+        Map<Category, Long> counts = new LinkedHashMap<>();
+        List<Object[]> rows = entityManager.createQuery(query).getResultList();
+        for (Object[] row : rows) {
+            counts.put((Category) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<List<Object>, Long> countByAttributes(Specification<Library> spec, List<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Library> root = query.from(Library.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        List<Expression<?>> groups = new ArrayList<>();
+        for (String attribute : attributes) {
+            Path<Object> value = root.get(attribute);
+            selections.add(value);
+            groups.add(value);
+        }
+        selections.add(cb.count(root));
+        query.multiselect(selections).groupBy(groups);
+
+        Predicate filter = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (filter != null) {
+            query.where(filter);
+        }
+
+        Map<List<Object>, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : entityManager.createQuery(query).getResultList()) {
+            counts.put(Arrays.asList(Arrays.copyOf(row, attributes.size())), (Long) row[attributes.size()]);
+        }
+        return counts;
+    }
+}
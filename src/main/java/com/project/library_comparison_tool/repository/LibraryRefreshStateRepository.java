@@ -0,0 +1,26 @@
+package com.project.library_comparison_tool.repository;
+
+import com.project.library_comparison_tool.entity.LibraryRefreshState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LibraryRefreshStateRepository extends JpaRepository<LibraryRefreshState, Long> {
+
+    // Due refreshes, most overdue first, popular libraries first among equally overdue ones
+    @Query("SELECT s FROM LibraryRefreshState s WHERE s.nextRefreshAt <= :now ORDER BY s.nextRefreshAt ASC, s.popularity DESC")
+    List<LibraryRefreshState> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByNextRefreshAtLessThanEqual(LocalDateTime now);
+
+    // Libraries not tracked yet (newly ingested), most popular first
+    @Query("SELECT l.id FROM Library l WHERE NOT EXISTS (SELECT 1 FROM LibraryRefreshState s WHERE s.libraryId = l.id) " +
+            "ORDER BY COALESCE(l.dependentProjectsCount, 0) + COALESCE(l.githubStars, 0) DESC")
+    List<Long> findUntrackedLibraryIds(Pageable pageable);
+}
@@ -1,27 +1,101 @@
 package com.project.library_comparison_tool.repository;
 
+import com.project.library_comparison_tool.dto.LibrarySummaryDTO;
+import com.project.library_comparison_tool.entity.Category;
 import com.project.library_comparison_tool.entity.Library;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface LibraryRepository extends JpaRepository<Library, Long> {
+public interface LibraryRepository extends JpaRepository<Library, Long>, JpaSpecificationExecutor<Library>,
+        LibraryFacetRepository {
 
-    // simple partial / case-insensitive match
+    // simple partial / case-insensitive match (upper(name) trigram index)
     List<Library> findByNameContainingIgnoreCase(String name);
 
+    // whole catalogue with tags in one query (in-memory search index load)
+    @EntityGraph(attributePaths = {"tags", "categoryCodes"})
+    @Query("SELECT l FROM Library l")
+    List<Library> findAllWithTags();
+
+    // ranked full-text search - vector expression matches idx_library_search_vector
+    @Query(value = "SELECT l.* FROM library l " +
+            "WHERE (setweight(to_tsvector('english', coalesce(l.name, '')), 'A') " +
+            "    || setweight(to_tsvector('english', coalesce(l.search_keywords, '')), 'B') " +
+            "    || setweight(to_tsvector('english', coalesce(l.description, '')), 'C')) " +
+            "    @@ websearch_to_tsquery('english', :query) " +
+            "ORDER BY ts_rank(setweight(to_tsvector('english', coalesce(l.name, '')), 'A') " +
+            "    || setweight(to_tsvector('english', coalesce(l.search_keywords, '')), 'B') " +
+            "    || setweight(to_tsvector('english', coalesce(l.description, '')), 'C'), " +
+            "    websearch_to_tsquery('english', :query)) DESC, l.id " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<Library> searchFullText(@Param("query") String query, @Param("limit") int limit);
+
+    // whole catalogue as a server-side cursor (caller must hold a transaction and close the stream)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM Library l ORDER BY l.id")
+    Stream<Library> streamAllByOrderById();
+
     // search by category filter (searches in comma-separated categories string)
     List<Library> findByCategoriesContainingIgnoreCase(String category);
 
+    // exact category lookup on the indexed library_category table
+    List<Library> findDistinctByCategoryCodes(Category category);
+
     //duplicate prevention
     Optional<Library> findByNameIgnoreCase(String name);
 
+    boolean existsByNameIgnoreCase(String name);
+
+    // Keyset walk over the catalogue for bulk jobs: ids after the last one processed
+    @Query("SELECT l.id FROM Library l WHERE l.id > :afterId ORDER BY l.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // Batch duplicate check: one select for a whole ingestion batch (names must be lower-cased)
+    @Query("SELECT l FROM Library l WHERE LOWER(l.name) IN :names")
+    List<Library> findByLowerNameIn(@Param("names") Collection<String> names);
+
+    // Summary view (view=summary): just the columns LibrarySummaryDTO shows, no entities or collections
+    @Query("SELECT new com.project.library_comparison_tool.dto.LibrarySummaryDTO(" +
+            "l.id, l.name, l.description, l.categories, l.language, l.packageManager, l.licenseType, " +
+            "l.latestVersion, l.githubStars, l.githubForks, l.dependentProjectsCount, l.lastRepositoryReleaseDate, " +
+            "l.isDeprecated, l.hasSecurityVulnerabilities, l.vulnerabilityCount, l.homepageUrl, l.repositoryUrl, " +
+            "l.overallScore, l.qualityGrade, l.activelyMaintained) " +
+            "FROM Library l WHERE l.id IN :ids")
+    List<LibrarySummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Tags for a batch of summary rows as (library id, tag) pairs
+    @Query("SELECT l.id, t FROM Library l JOIN l.tags t WHERE l.id IN :ids")
+    List<Object[]> findTagsByIdIn(@Param("ids") Collection<Long> ids);
+
     //sort by popularity metrics
     List<Library> findAllByOrderByGithubStarsDesc();
 
     // Enable JPA Specifications for dynamic queries
     List<Library> findAll(Specification<Library> spec);
 
+    // Rows saved before score columns existed (backfilled on startup)
+    Page<Library> findByQualityGradeIsNull(Pageable pageable);
+
+    // Rows whose time-based maintenance score has reached its next bucket boundary
+    Page<Library> findByScoresValidUntilLessThanEqual(LocalDate date, Pageable pageable);
+
 }
@@ -0,0 +1,96 @@
+package com.project.library_comparison_tool.repository;
+
+import com.project.library_comparison_tool.entity.Library;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+
+/**
+ * Sort orders supported by the library list and advanced-search endpoints
+ * Every order ends with id ascending so both offset and keyset pagination are stable
+ */
+public enum LibrarySortKey {
+    STARS("stars", "githubStars", true),
+    DEPENDENTS("dependents", "dependentProjectsCount", true),
+    NAME("name", "name", false),
+    UPDATED("updated", "lastRepositoryReleaseDate", true),
+    SCORE("score", "overallScore", true),
+    ID("id", "id", false);
+
+    private final String apiName;     // value of the sortBy request field
+    private final String attribute;   // Library entity attribute
+    private final boolean descending; // descending keys put NULLs last
+
+    LibrarySortKey(String apiName, String attribute, boolean descending) {
+        this.apiName = apiName;
+        this.attribute = attribute;
+        this.descending = descending;
+    }
+
+    public String getApiName() {
+        return apiName;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Resolve a sortBy value ("stars", "dependents", "name", "updated", "score")
+     * Unknown or missing values fall back to id order
+     */
+    public static LibrarySortKey from(String sortBy) {
+        if (sortBy != null) {
+            for (LibrarySortKey key : values()) {
+                if (key.apiName.equalsIgnoreCase(sortBy)) {
+                    return key;
+                }
+            }
+        }
+        return ID;
+    }
+
+    public Sort toSort() {
+        Sort tieBreaker = Sort.by(Sort.Direction.ASC, "id");
+        if (this == ID) {
+            return tieBreaker;
+        }
+
+        Sort.Order order = descending
+                ? Sort.Order.desc(attribute).nullsLast()
+                : Sort.Order.asc(attribute);
+        return Sort.by(order).and(tieBreaker);
+    }
+
+    /**
+     * Read this key's sort value from a library (used to build the next cursor)
+     */
+    public Comparable<?> valueOf(Library library) {
+        switch (this) {
+            case STARS: return library.getGithubStars();
+            case DEPENDENTS: return library.getDependentProjectsCount();
+            case NAME: return library.getName();
+            case UPDATED: return library.getLastRepositoryReleaseDate();
+            case SCORE: return library.getOverallScore();
+            default: return library.getId();
+        }
+    }
+
+    /**
+     * Parse a sort value back from its cursor string form
+     */
+    public Comparable<?> parse(String raw) {
+        switch (this) {
+            case STARS:
+            case DEPENDENTS: return Integer.valueOf(raw);
+            case NAME: return raw;
+            case UPDATED: return LocalDate.parse(raw);
+            case SCORE: return Double.valueOf(raw);
+            default: return Long.valueOf(raw);
+        }
+    }
+}
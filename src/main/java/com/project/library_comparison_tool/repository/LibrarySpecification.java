@@ -1,11 +1,21 @@
 package com.project.library_comparison_tool.repository;
 
 import com.project.library_comparison_tool.dto.AdvancedSearchDTO;
+import com.project.library_comparison_tool.dto.LibraryCursor;
+import com.project.library_comparison_tool.entity.Category;
 import com.project.library_comparison_tool.entity.Library;
 import org.springframework.data.jpa.domain.Specification;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 public class LibrarySpecification {
 
@@ -13,30 +23,40 @@ public class LibrarySpecification {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            // 1. KEYWORD SEARCH (name or description)
-            if (criteria.getSearchQuery() != null && !criteria.getSearchQuery().isEmpty()) {
-                String searchPattern = "%" + criteria.getSearchQuery().toLowerCase() + "%";
+            // 1. KEYWORD SEARCH - full-text over name, tags, categories and description (GIN index),
+            //    plus partial name match (trigram index) so typing "reac" still finds "react"
+            if (criteria.getSearchQuery() != null && !criteria.getSearchQuery().isBlank()) {
+                String searchText = criteria.getSearchQuery().trim();
+                String searchPattern = "%" + searchText.toLowerCase() + "%";
+                Predicate fullTextPredicate = criteriaBuilder.isTrue(
+                        criteriaBuilder.function("library_fts_match", Boolean.class,
+                                root.get("name"), root.get("searchKeywords"), root.get("description"),
+                                criteriaBuilder.literal(searchText))
+                );
                 Predicate namePredicate = criteriaBuilder.like(
                         criteriaBuilder.lower(root.get("name")), searchPattern
                 );
-                Predicate descPredicate = criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("description")), searchPattern
-                );
-                predicates.add(criteriaBuilder.or(namePredicate, descPredicate));
+                predicates.add(criteriaBuilder.or(fullTextPredicate, namePredicate));
+
+                // Rank by relevance unless the caller picked a sort (count queries drop this ordering,
+                // grouped facet queries keep their own)
+                if (Library.class.equals(query.getResultType())
+                        && (criteria.getSortBy() == null || "relevance".equalsIgnoreCase(criteria.getSortBy()))) {
+                    query.orderBy(
+                            criteriaBuilder.desc(criteriaBuilder.function("library_fts_rank", Double.class,
+                                    root.get("name"), root.get("searchKeywords"), root.get("description"),
+                                    criteriaBuilder.literal(searchText))),
+                            criteriaBuilder.asc(root.get("id"))
+                    );
+                }
             }
 
-            // 2. MULTIPLE CATEGORIES (OR logic) - searches in comma-separated categories string
+            // 2. MULTIPLE CATEGORIES (OR logic) - indexed IN lookup on library_category
+            //    Unknown category names match nothing
             if (criteria.getCategories() != null && !criteria.getCategories().isEmpty()) {
-                List<Predicate> categoryPredicates = new ArrayList<>();
-                for (String category : criteria.getCategories()) {
-                    // Check categories field (comma-separated string)
-                    Predicate categoryMatch = criteriaBuilder.like(
-                            criteriaBuilder.lower(root.get("categories")), 
-                            "%" + category.toLowerCase() + "%"
-                    );
-                    categoryPredicates.add(categoryMatch);
-                }
-                predicates.add(criteriaBuilder.or(categoryPredicates.toArray(new Predicate[0])));
+                predicates.add(criteriaBuilder.exists(
+                        categorySubquery(root, query, criteriaBuilder, toCategories(criteria.getCategories()))
+                ));
             }
 
             // 3. MULTIPLE PLATFORMS (OR logic)
@@ -75,9 +95,10 @@ public class LibrarySpecification {
                 ));
             }
 
-            // 7. QUALITY GRADES (include only A, B, C)
-            // This requires calculating grade in query or filtering after
-            // For now, we'll handle this in service layer
+            // 7. QUALITY GRADES (include only A, B, C) - uses the persisted quality_grade column
+            if (criteria.getIncludeGrades() != null && !criteria.getIncludeGrades().isEmpty()) {
+                predicates.add(root.get("qualityGrade").in(criteria.getIncludeGrades()));
+            }
 
             // 8. EXCLUDE DEPRECATED
             if (criteria.getExcludeDeprecated() != null && criteria.getExcludeDeprecated()) {
@@ -111,17 +132,85 @@ public class LibrarySpecification {
                 ));
             }
 
-            // 12. EXCLUDE CATEGORIES
+            // 12. EXCLUDE CATEGORIES - one NOT EXISTS over library_category for all of them
             if (criteria.getExcludeCategories() != null && !criteria.getExcludeCategories().isEmpty()) {
-                for (String excludeCategory : criteria.getExcludeCategories()) {
-                    predicates.add(criteriaBuilder.notLike(
-                            criteriaBuilder.lower(root.get("categories")), 
-                            "%" + excludeCategory.toLowerCase() + "%"
-                    ));
+                Set<Category> excluded = toCategories(criteria.getExcludeCategories());
+                if (!excluded.isEmpty()) {
+                    predicates.add(criteriaBuilder.not(criteriaBuilder.exists(
+                            categorySubquery(root, query, criteriaBuilder, excluded)
+                    )));
                 }
             }
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Correlated subquery: the library has at least one of the given categories
+     * Joins library_category on the outer row's id, without a second scan of the library table
+     */
+    private static Subquery<Integer> categorySubquery(Root<Library> root, CriteriaQuery<?> query,
+                                                      CriteriaBuilder criteriaBuilder,
+                                                      Set<Category> categories) {
+        Subquery<Integer> subquery = query.subquery(Integer.class);
+        Join<Library, Category> category = subquery.correlate(root).join("categoryCodes");
+
+        Predicate anyCategory = categories.isEmpty()
+                ? criteriaBuilder.disjunction()
+                : category.in(categories);
+        return subquery.select(criteriaBuilder.literal(1)).where(anyCategory);
+    }
+
+    /**
+     * Resolve request category names (display or enum names), dropping unknown ones
+     */
+    private static Set<Category> toCategories(List<String> names) {
+        Set<Category> categories = EnumSet.noneOf(Category.class);
+        for (String name : names) {
+            Category category = Category.fromName(name);
+            if (category != null) {
+                categories.add(category);
+            }
+        }
+        return categories;
+    }
+
+    /**
+     * Keyset (seek) predicate: rows that come after the cursor position in LibrarySortKey order
+     * Descending keys sort NULLs last, so a non-null cursor also lets the NULL block through
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Library> after(LibraryCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            LibrarySortKey sortKey = cursor.getSortKey();
+            Predicate afterId = criteriaBuilder.greaterThan(root.get("id"), cursor.getLastId());
+
+            if (sortKey == LibrarySortKey.ID) {
+                return afterId;
+            }
+
+            Path<Comparable> sortPath = root.get(sortKey.getAttribute());
+            Comparable lastValue = cursor.getLastValue();
+
+            // Ascending keys (name) are never null
+            if (!sortKey.isDescending()) {
+                return criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(sortPath, lastValue),
+                        criteriaBuilder.and(criteriaBuilder.equal(sortPath, lastValue), afterId)
+                );
+            }
+
+            // Previous page already ended inside the trailing NULL block
+            if (lastValue == null) {
+                return criteriaBuilder.and(criteriaBuilder.isNull(sortPath), afterId);
+            }
+
+            return criteriaBuilder.or(
+                    criteriaBuilder.lessThan(sortPath, lastValue),
+                    criteriaBuilder.and(criteriaBuilder.equal(sortPath, lastValue), afterId),
+                    criteriaBuilder.isNull(sortPath)
+            );
+        };
+    }
+}
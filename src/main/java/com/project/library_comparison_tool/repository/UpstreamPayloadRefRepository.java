@@ -0,0 +1,20 @@
+package com.project.library_comparison_tool.repository;
+
+import com.project.library_comparison_tool.entity.UpstreamPayloadRef;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UpstreamPayloadRefRepository extends JpaRepository<UpstreamPayloadRef, String> {
+
+    // Keyset walk over one host's stored requests (replay jobs)
+    @Query("SELECT r FROM UpstreamPayloadRef r WHERE r.host = :host AND r.requestKey > :afterKey ORDER BY r.requestKey")
+    List<UpstreamPayloadRef> findByHostAfter(@Param("host") String host,
+                                             @Param("afterKey") String afterKey,
+                                             Pageable pageable);
+}
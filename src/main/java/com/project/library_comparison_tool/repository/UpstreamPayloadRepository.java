@@ -0,0 +1,33 @@
+package com.project.library_comparison_tool.repository;
+
+import com.project.library_comparison_tool.entity.UpstreamPayload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface UpstreamPayloadRepository extends JpaRepository<UpstreamPayload, String> {
+
+    // Replay lookup: request key -> payload in one round trip
+    @Query("SELECT p FROM UpstreamPayload p WHERE p.contentHash = " +
+            "(SELECT r.contentHash FROM UpstreamPayloadRef r WHERE r.requestKey = :requestKey)")
+    Optional<UpstreamPayload> findByRequestKey(@Param("requestKey") String requestKey);
+
+    @Query("SELECT COALESCE(SUM(p.rawSize), 0) FROM UpstreamPayload p")
+    long sumRawSize();
+
+    @Query("SELECT COALESCE(SUM(p.storedSize), 0) FROM UpstreamPayload p")
+    long sumStoredSize();
+
+    // Payloads no request points at any more (replaced by a newer answer)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UpstreamPayload p WHERE NOT EXISTS " +
+            "(SELECT r FROM UpstreamPayloadRef r WHERE r.contentHash = p.contentHash)")
+    int deleteUnreferenced();
+}
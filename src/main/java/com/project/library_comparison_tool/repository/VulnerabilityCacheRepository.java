@@ -0,0 +1,21 @@
+package com.project.library_comparison_tool.repository;
+
+import com.project.library_comparison_tool.entity.VulnerabilityCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface VulnerabilityCacheRepository extends JpaRepository<VulnerabilityCacheEntry, String> {
+
+    // Bulk delete - expired rows are never loaded
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM VulnerabilityCacheEntry e WHERE e.cachedAt < :cutoff")
+    int deleteCachedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
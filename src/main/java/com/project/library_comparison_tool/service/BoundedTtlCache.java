@@ -0,0 +1,162 @@
+package com.project.library_comparison_tool.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Small thread-safe cache with a size bound (least recently used goes first) and a per-entry TTL
+ * Optionally also bounded by total weight (e.g. bytes), for values whose sizes vary a lot
+ * Keeps hit / miss / eviction counters so the size and TTL can be tuned from real traffic
+ *
+ * @param <K> Key type
+ * @param <V> Value type (null values are not cached)
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long maxWeight;               // Long.MAX_VALUE = unweighted
+    private final ToLongFunction<V> weigher;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long totalWeight;                   // guarded by entries
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public BoundedTtlCache(String name, int maxEntries, Duration ttl) {
+        this(name, maxEntries, Long.MAX_VALUE, value -> 0, ttl);
+    }
+
+    /**
+     * @param maxWeight Upper bound for the summed weight of all entries (least recently used go first)
+     * @param weigher Weight of one value, computed once when it is put
+     */
+    public BoundedTtlCache(String name, int maxEntries, long maxWeight, ToLongFunction<V> weigher, Duration ttl) {
+        this.name = name;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttl.toMillis();
+        this.maxWeight = Math.max(1, maxWeight);
+        this.weigher = weigher;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxEntries) {
+                    totalWeight -= eldest.getValue().weight;
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Cached value for the key, or null if absent / expired
+     */
+    public V get(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                totalWeight -= entry.weight;
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        long weight = weigher.applyAsLong(value);
+        if (weight > maxWeight) {
+            return; // would evict everything else and still not fit
+        }
+        synchronized (entries) {
+            Entry<V> previous = entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis, weight));
+            totalWeight += weight - (previous != null ? previous.weight : 0);
+            Iterator<Entry<V>> eldestFirst = entries.values().iterator();
+            while (totalWeight > maxWeight && eldestFirst.hasNext()) {
+                totalWeight -= eldestFirst.next().weight;
+                eldestFirst.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Return the cached value or compute and cache it
+     * The loader runs outside the lock, so two concurrent misses may both compute
+     */
+    public V getOrLoad(K key, Supplier<V> loader) {
+        V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        V value = loader.get();
+        put(key, value);
+        return value;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            totalWeight = 0;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        synchronized (entries) {
+            stats.put("size", entries.size());
+            if (maxWeight != Long.MAX_VALUE) {
+                stats.put("weight", totalWeight);
+            }
+        }
+        stats.put("maxEntries", maxEntries);
+        if (maxWeight != Long.MAX_VALUE) {
+            stats.put("maxWeight", maxWeight);
+        }
+        stats.put("ttlSeconds", ttlMillis / 1000);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", lookups == 0 ? 0.0 : Math.round(hitCount * 1000.0 / lookups) / 1000.0);
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        return stats;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+        private final long weight;
+
+        private Entry(V value, long expiresAt, long weight) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.weight = weight;
+        }
+    }
+}
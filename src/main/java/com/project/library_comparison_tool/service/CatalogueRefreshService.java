@@ -0,0 +1,518 @@
+package com.project.library_comparison_tool.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.project.library_comparison_tool.entity.Library;
+import com.project.library_comparison_tool.entity.LibraryRefreshState;
+import com.project.library_comparison_tool.entity.Vulnerability;
+import com.project.library_comparison_tool.repository.LibraryRefreshStateRepository;
+import com.project.library_comparison_tool.repository.LibraryRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Incremental background refresh of the catalogue
+ *
+ * - Every library has a LibraryRefreshState with a next refresh time; popular libraries get shorter
+ *   intervals, libraries that keep coming back unchanged get longer ones
+ * - Each tick refreshes the most overdue libraries, as many as fit in a share of the libraries.io
+ *   rate limit for one tick, so the work is spread evenly instead of arriving as one big reload
+ * - A refresh is one conditional libraries.io details call; the follow-up work depends on what changed:
+ *     popularity / release fields  -> copied onto the library (no extra calls)
+ *     repository URL or release    -> example code and README usage re-extracted
+ *     version or vulnerability age -> OSV and GitHub advisories re-checked
+ */
+@Service
+public class CatalogueRefreshService {
+
+    private static final String LIBRARIES_IO_URL = "https://libraries.io";
+    private static final int MAX_NEW_STATES_PER_TICK = 500;
+
+    private final LibraryRepository libraryRepository;
+    private final LibraryRefreshStateRepository stateRepository;
+    private final LibrariesIoApiService apiService;
+    private final SecurityVulnerabilityService securityVulnerabilityService;
+    private final ExampleCodeService exampleCodeService;
+    private final EnrichmentExecutor enrichmentExecutor;
+    private final LibraryRescoringService rescoringService;
+    private final LibrarySearchIndex searchIndex;
+    private final UpstreamRateLimiter rateLimiter;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final long tickMillis;
+    private final double budgetShare;
+    private final int maxPerTick;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Duration vulnerabilityInterval;
+
+    // Ticks hand the work to this thread so the shared scheduler thread is never blocked by rate-limit waits
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalogue-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong metadataChanges = new AtomicLong();
+    private final AtomicLong readmeChanges = new AtomicLong();
+    private final AtomicLong vulnerabilityChanges = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile LocalDateTime lastTickAt;
+
+    public CatalogueRefreshService(LibraryRepository libraryRepository,
+                                   LibraryRefreshStateRepository stateRepository,
+                                   LibrariesIoApiService apiService,
+                                   SecurityVulnerabilityService securityVulnerabilityService,
+                                   ExampleCodeService exampleCodeService,
+                                   EnrichmentExecutor enrichmentExecutor,
+                                   LibraryRescoringService rescoringService,
+                                   LibrarySearchIndex searchIndex,
+                                   UpstreamRateLimiter rateLimiter,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.refresh.enabled:true}") boolean enabled,
+                                   @Value("${app.refresh.tick-ms:60000}") long tickMillis,
+                                   @Value("${app.refresh.budget-share:0.5}") double budgetShare,
+                                   @Value("${app.refresh.max-per-tick:50}") int maxPerTick,
+                                   @Value("${app.refresh.min-interval-hours:6}") long minIntervalHours,
+                                   @Value("${app.refresh.max-interval-hours:168}") long maxIntervalHours,
+                                   @Value("${app.refresh.vulnerability-interval-hours:24}") long vulnerabilityIntervalHours) {
+        this.libraryRepository = libraryRepository;
+        this.stateRepository = stateRepository;
+        this.apiService = apiService;
+        this.securityVulnerabilityService = securityVulnerabilityService;
+        this.exampleCodeService = exampleCodeService;
+        this.enrichmentExecutor = enrichmentExecutor;
+        this.rescoringService = rescoringService;
+        this.searchIndex = searchIndex;
+        this.rateLimiter = rateLimiter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.tickMillis = Math.max(1000, tickMillis);
+        this.budgetShare = Math.min(1.0, Math.max(0.0, budgetShare));
+        this.maxPerTick = Math.max(1, maxPerTick);
+        this.minInterval = Duration.ofHours(Math.max(1, minIntervalHours));
+        this.maxInterval = Duration.ofHours(Math.max(minIntervalHours, maxIntervalHours));
+        this.vulnerabilityInterval = Duration.ofHours(Math.max(1, vulnerabilityIntervalHours));
+    }
+
+    @Scheduled(fixedDelayString = "${app.refresh.tick-ms:60000}", initialDelayString = "${app.refresh.initial-delay-ms:120000}")
+    public void scheduledTick() {
+        if (!enabled || !apiService.isConfigured()) {
+            return;
+        }
+        triggerTick();
+    }
+
+    /**
+     * Start one refresh tick in the background
+     *
+     * @return false if a tick is still running
+     */
+    public boolean triggerTick() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        worker.execute(() -> {
+            try {
+                runTick();
+            } catch (Exception e) {
+                System.err.println("[refresh] Tick failed: " + e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Track new libraries, then refresh the most overdue ones within this tick's budget
+     *
+     * @return Number of libraries refreshed
+     */
+    public int runTick() {
+        ticks.incrementAndGet();
+        lastTickAt = LocalDateTime.now();
+
+        int tracked = trackNewLibraries();
+        if (tracked > 0) {
+            System.out.println("[refresh] Tracking " + tracked + " new libraries");
+        }
+
+        List<LibraryRefreshState> due = stateRepository.findDue(LocalDateTime.now(), PageRequest.of(0, tickBudget()));
+        for (LibraryRefreshState state : due) {
+            try {
+                refresh(state);
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                System.err.println("[refresh] Error refreshing library " + state.getLibraryId() + ": " + e.getMessage());
+                retryLater(state);
+            }
+        }
+
+        if (!due.isEmpty()) {
+            System.out.println("[refresh] Refreshed " + due.size() + " libraries ("
+                    + stateRepository.countByNextRefreshAtLessThanEqual(LocalDateTime.now()) + " still due)");
+        }
+        return due.size();
+    }
+
+    // Libraries.io calls per tick: our share of the host's sustained rate over one tick
+    private int tickBudget() {
+        double perTick = rateLimiter.getPermitsPerSecond(LIBRARIES_IO_URL) * (tickMillis / 1000.0) * budgetShare;
+        return (int) Math.max(1, Math.min(maxPerTick, Math.floor(perTick)));
+    }
+
+    /**
+     * Create states for libraries that have none yet
+     * They were just ingested, so their first refresh is spread over one full interval instead of all at once
+     */
+    private int trackNewLibraries() {
+        List<Long> ids = stateRepository.findUntrackedLibraryIds(PageRequest.of(0, MAX_NEW_STATES_PER_TICK));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<LibraryRefreshState> states = new ArrayList<>(ids.size());
+        for (Library library : libraryRepository.findAllById(ids)) {
+            long popularity = popularityOf(library);
+            long spreadMillis = (long) (intervalFor(popularity, 0).toMillis() * ThreadLocalRandom.current().nextDouble());
+            states.add(LibraryRefreshState.builder()
+                    .libraryId(library.getId())
+                    .popularity(popularity)
+                    .nextRefreshAt(now.plus(Duration.ofMillis(spreadMillis)))
+                    .vulnerabilitiesCheckedAt(now)
+                    .build());
+        }
+        stateRepository.saveAll(states);
+        return states.size();
+    }
+
+    private void refresh(LibraryRefreshState state) {
+        checked.incrementAndGet();
+
+        // Read what the upstream calls need, outside of any long-running transaction
+        Snapshot snapshot = transactionTemplate.execute(status -> libraryRepository.findById(state.getLibraryId())
+                .map(Snapshot::new)
+                .orElse(null));
+        if (snapshot == null) {
+            stateRepository.delete(state);
+            return;
+        }
+
+        LibrariesIoApiService.LibraryDetails fetched = apiService.fetchLibraryDetails(snapshot.packageManager, snapshot.name);
+        JsonNode details = fetched.getDetails();
+        if (details == null) {
+            failures.incrementAndGet();
+            retryLater(state);
+            return;
+        }
+
+        String metadataHash = fetched.isNotModified() && state.getMetadataHash() != null
+                ? state.getMetadataHash()
+                : hash(text(details, "stars"), text(details, "forks"), text(details, "dependent_repos_count"),
+                        text(details, "latest_stable_release_number"), text(details, "latest_stable_release_published_at"),
+                        text(details, "latest_release_published_at"), text(details, "repository_url"));
+        boolean metadataChanged = !metadataHash.equals(state.getMetadataHash());
+
+        String repositoryUrl = Objects.requireNonNullElse(text(details, "repository_url"), snapshot.repositoryUrl);
+        String latestVersion = Objects.requireNonNullElse(text(details, "latest_stable_release_number"), snapshot.latestVersion);
+        String readmeHash = hash(repositoryUrl, text(details, "latest_release_number"), latestVersion);
+        // No previous hash means ingestion just extracted it - record the baseline only
+        boolean readmeDue = state.getReadmeHash() != null && !readmeHash.equals(state.getReadmeHash());
+
+        LocalDateTime now = LocalDateTime.now();
+        boolean vulnerabilitiesDue = !Objects.equals(latestVersion, snapshot.latestVersion)
+                || state.getVulnerabilitiesCheckedAt() == null
+                || state.getVulnerabilitiesCheckedAt().isBefore(now.minus(vulnerabilityInterval));
+
+        // Follow-up calls only for the sources that changed, side by side on the enrichment pool
+        Library probe = snapshot.probe(repositoryUrl, latestVersion);
+        CompletableFuture<String> exampleCodeCall = CompletableFuture.completedFuture(null);
+        CompletableFuture<String> usageCall = CompletableFuture.completedFuture(null);
+        CompletableFuture<List<Vulnerability>> osvCall = CompletableFuture.completedFuture(null);
+        CompletableFuture<List<Vulnerability>> advisoriesCall = CompletableFuture.completedFuture(null);
+        if (readmeDue) {
+            exampleCodeCall = enrichmentExecutor.submit("Example code for " + snapshot.name,
+                    () -> exampleCodeService.extractExampleCode(probe), null);
+            usageCall = enrichmentExecutor.submit("README usage for " + snapshot.name,
+                    () -> exampleCodeService.extractUsageDescription(probe), null);
+        }
+        if (vulnerabilitiesDue) {
+            osvCall = enrichmentExecutor.submit("OSV lookup for " + snapshot.name,
+                    () -> securityVulnerabilityService.fetchOsvVulnerabilities(probe), null);
+            advisoriesCall = enrichmentExecutor.submit("GitHub advisories for " + snapshot.name,
+                    () -> securityVulnerabilityService.fetchGitHubAdvisories(probe), null);
+        }
+        enrichmentExecutor.joinAll(exampleCodeCall, usageCall, osvCall, advisoriesCall);
+
+        // A failed lookup (null) leaves the stored vulnerabilities alone; they are checked again next time
+        List<Vulnerability> vulnerabilities = null;
+        if (osvCall.join() != null && advisoriesCall.join() != null) {
+            // Also refreshes the vulnerability cache entry for this version
+            vulnerabilities = securityVulnerabilityService.storeVulnerabilities(probe, osvCall.join(), advisoriesCall.join());
+        }
+
+        String exampleCode = exampleCodeCall.join();
+        String usage = usageCall.join();
+        List<Vulnerability> freshVulnerabilities = vulnerabilities;
+        boolean changed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Library library = libraryRepository.findById(state.getLibraryId()).orElse(null);
+            if (library == null) {
+                return false;
+            }
+
+            boolean libraryChanged = false;
+            if (metadataChanged) {
+                libraryChanged |= applyMetadata(library, details);
+                metadataChanges.incrementAndGet();
+            }
+            if (readmeDue) {
+                libraryChanged |= applyReadme(library, exampleCode, usage);
+                readmeChanges.incrementAndGet();
+            }
+            if (freshVulnerabilities != null) {
+                String vulnerabilityHash = vulnerabilityHash(freshVulnerabilities);
+                if (!vulnerabilityHash.equals(vulnerabilityHash(library.getVulnerabilities()))) {
+                    replaceVulnerabilities(library, freshVulnerabilities);
+                    libraryChanged = true;
+                    vulnerabilityChanges.incrementAndGet();
+                }
+                state.setVulnerabilityHash(vulnerabilityHash(library.getVulnerabilities()));
+                state.setVulnerabilitiesCheckedAt(now);
+            }
+
+            if (libraryChanged) {
+                rescoringService.rescoreIfChanged(library);
+                libraryRepository.save(library);
+                searchIndex.indexAfterCommit(library);
+            }
+
+            state.setMetadataHash(metadataHash);
+            state.setReadmeHash(readmeHash);
+            state.setPopularity(popularityOf(library));
+            state.setLastCheckedAt(now);
+            if (libraryChanged) {
+                state.setLastChangedAt(now);
+                state.setUnchangedStreak(0);
+            } else {
+                state.setUnchangedStreak(state.getUnchangedStreak() + 1);
+            }
+            state.setNextRefreshAt(now.plus(jitter(intervalFor(state.getPopularity(), state.getUnchangedStreak()))));
+            stateRepository.save(state);
+            return libraryChanged;
+        }));
+
+        if (!changed) {
+            unchanged.incrementAndGet();
+        }
+    }
+
+    private boolean applyMetadata(Library library, JsonNode details) {
+        String before = metadataOf(library);
+
+        Integer stars = integer(details, "stars");
+        if (stars != null) {
+            library.setGithubStars(stars);
+        }
+        Integer forks = integer(details, "forks");
+        if (forks != null) {
+            library.setGithubForks(forks);
+        }
+        Integer dependents = integer(details, "dependent_repos_count");
+        if (dependents != null && dependents > 0) {
+            library.setDependentProjectsCount(dependents);
+        }
+        String latestVersion = text(details, "latest_stable_release_number");
+        if (latestVersion != null) {
+            library.setLatestVersion(latestVersion);
+        }
+        String registryRelease = text(details, "latest_stable_release_published_at");
+        if (registryRelease != null && registryRelease.length() >= 10) {
+            library.setLastRegistryReleaseDate(registryRelease.substring(0, 10));
+        }
+        String repositoryRelease = text(details, "latest_release_published_at");
+        if (repositoryRelease != null && repositoryRelease.length() >= 10) {
+            try {
+                library.setLastRepositoryReleaseDate(LocalDate.parse(repositoryRelease.substring(0, 10)));
+            } catch (Exception e) {
+                System.err.println("[refresh] Error parsing repository release date: " + e.getMessage());
+            }
+        }
+        String repositoryUrl = text(details, "repository_url");
+        if (repositoryUrl != null && !repositoryUrl.isEmpty()) {
+            library.setRepositoryUrl(repositoryUrl);
+        }
+
+        return !before.equals(metadataOf(library));
+    }
+
+    private boolean applyReadme(Library library, String exampleCode, String usage) {
+        boolean changed = false;
+        if (exampleCode != null && !exampleCode.isEmpty() && !exampleCode.equals(library.getExampleCodeSnippet())) {
+            library.setExampleCodeSnippet(exampleCode);
+            changed = true;
+        }
+        if (usage != null && !usage.isEmpty() && !usage.equals(library.getUseCase())) {
+            library.setUseCase(usage);
+            library.setUseCaseFromReadme(true);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Swap the library's vulnerabilities for the fresh set
+     * Only called when both lookups answered, so an empty set means the advisories were fixed and clears the list
+     */
+    private void replaceVulnerabilities(Library library, List<Vulnerability> fresh) {
+        library.clearVulnerabilities();
+        for (Vulnerability vulnerability : fresh) {
+            library.addVulnerability(vulnerability);
+        }
+    }
+
+    private void retryLater(LibraryRefreshState state) {
+        state.setNextRefreshAt(LocalDateTime.now().plus(jitter(minInterval)));
+        stateRepository.save(state);
+    }
+
+    /**
+     * Refresh interval: max-interval for unknown libraries, shrinking with the log of popularity down to
+     * min-interval, then stretched by up to 3x while refreshes keep finding nothing new
+     */
+    private Duration intervalFor(long popularity, int unchangedStreak) {
+        double popularityFactor = 1 + Math.log10(1 + Math.max(0, popularity));
+        double stalenessFactor = Math.min(3.0, 1 + 0.5 * unchangedStreak);
+        long millis = (long) (maxInterval.toMillis() / popularityFactor * stalenessFactor);
+        return Duration.ofMillis(Math.max(minInterval.toMillis(), Math.min(maxInterval.toMillis(), millis)));
+    }
+
+    // +/-10% so libraries refreshed together drift apart instead of staying in lockstep
+    private static Duration jitter(Duration interval) {
+        double factor = 0.9 + 0.2 * ThreadLocalRandom.current().nextDouble();
+        return Duration.ofMillis((long) (interval.toMillis() * factor));
+    }
+
+    private static long popularityOf(Library library) {
+        return (long) Objects.requireNonNullElse(library.getGithubStars(), 0)
+                + Objects.requireNonNullElse(library.getDependentProjectsCount(), 0);
+    }
+
+    private static String metadataOf(Library library) {
+        return library.getGithubStars() + "|" + library.getGithubForks() + "|" + library.getDependentProjectsCount() + "|"
+                + library.getLatestVersion() + "|" + library.getLastRegistryReleaseDate() + "|"
+                + library.getLastRepositoryReleaseDate() + "|" + library.getRepositoryUrl();
+    }
+
+    private static String vulnerabilityHash(List<Vulnerability> vulnerabilities) {
+        TreeSet<String> ids = new TreeSet<>();
+        for (Vulnerability vulnerability : vulnerabilities) {
+            ids.add(Objects.toString(vulnerability.getVulnerabilityId(), ""));
+        }
+        return hash(ids.toArray(new String[0]));
+    }
+
+    private static String hash(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(Objects.toString(part, "").getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && !value.isNull() ? value.asText() : null;
+    }
+
+    private static Integer integer(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && value.isNumber() ? value.asInt() : null;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled && apiService.isConfigured());
+        stats.put("running", running.get());
+        stats.put("lastTickAt", lastTickAt != null ? lastTickAt.toString() : null);
+        stats.put("perTickBudget", tickBudget());
+        stats.put("tracked", stateRepository.count());
+        stats.put("due", stateRepository.countByNextRefreshAtLessThanEqual(LocalDateTime.now()));
+        stats.put("ticks", ticks.get());
+        stats.put("checked", checked.get());
+        stats.put("unchanged", unchanged.get());
+        stats.put("metadataChanges", metadataChanges.get());
+        stats.put("readmeChanges", readmeChanges.get());
+        stats.put("vulnerabilityChanges", vulnerabilityChanges.get());
+        stats.put("failures", failures.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    // The library fields the upstream calls read, copied while the session is open
+    private static final class Snapshot {
+        private final String name;
+        private final String packageManager;
+        private final String language;
+        private final String repositoryUrl;
+        private final String latestVersion;
+
+        private Snapshot(Library library) {
+            this.name = library.getName();
+            this.packageManager = library.getPackageManager();
+            this.language = library.getLanguage();
+            this.repositoryUrl = library.getRepositoryUrl();
+            this.latestVersion = library.getLatestVersion();
+        }
+
+        // Detached library for the read-only lookups (never saved)
+        private Library probe(String repositoryUrl, String latestVersion) {
+            Library probe = new Library();
+            probe.setName(name);
+            probe.setPackageManager(packageManager);
+            probe.setLanguage(language);
+            probe.setRepositoryUrl(repositoryUrl);
+            probe.setLatestVersion(latestVersion);
+            return probe;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.project.library_comparison_tool.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho–Corasick automaton compiled from all category keyword tables
+ *
+ * Each table ("group") is a list of patterns checked against one part of a library: its full name, its
+ * artifact name, its description, each keyword on its own, or the whole search text. The search text is
+ * scanned once and every hit is credited to the groups whose part fully contains it, which gives the same
+ * answers as a String.contains check per pattern and part, without rescanning the text per table.
+ *
+ * Built once, then immutable and safe to share between ingestion threads.
+ */
+public class CategoryKeywordMatcher {
+
+    /**
+     * Part of the search text a group is matched against
+     */
+    public enum Field {
+        NAME,        // full library name (e.g. "com.fasterxml.jackson.core:jackson-databind")
+        ARTIFACT,    // artifact / package part of the name (e.g. "jackson-databind")
+        DESCRIPTION,
+        KEYWORD,     // each keyword separately (counts how many keywords hit)
+        SEARCH_TEXT  // name + description + keywords as one string
+    }
+
+    private final Field[] groupFields;
+    private final int[] patternLengths;
+    private final int[][] patternGroups;  // pattern id -> groups listing it
+    private final char[] alphabet;        // sorted characters that occur in any pattern
+    private final int[] transitions;      // state * alphabet.length + symbol -> next state (failure links folded in)
+    private final int[][] outputs;        // state -> pattern ids ending here (including via failure links)
+
+    private CategoryKeywordMatcher(List<Field> groupFields, Map<String, List<Integer>> groupsByPattern) {
+        this.groupFields = groupFields.toArray(new Field[0]);
+
+        List<String> patterns = new ArrayList<>(groupsByPattern.keySet());
+        this.patternLengths = new int[patterns.size()];
+        this.patternGroups = new int[patterns.size()][];
+        StringBuilder chars = new StringBuilder();
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            patternLengths[p] = pattern.length();
+            patternGroups[p] = groupsByPattern.get(pattern).stream().mapToInt(Integer::intValue).toArray();
+            chars.append(pattern);
+        }
+        this.alphabet = chars.chars().distinct().sorted()
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString().toCharArray();
+
+        // Trie
+        int width = alphabet.length;
+        List<int[]> gotoRows = new ArrayList<>();
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        gotoRows.add(newRow(width));
+        stateOutputs.add(new ArrayList<>());
+        for (int p = 0; p < patterns.size(); p++) {
+            int state = 0;
+            for (char c : patterns.get(p).toCharArray()) {
+                int symbol = symbol(c);
+                int next = gotoRows.get(state)[symbol];
+                if (next < 0) {
+                    next = gotoRows.size();
+                    gotoRows.add(newRow(width));
+                    stateOutputs.add(new ArrayList<>());
+                    gotoRows.get(state)[symbol] = next;
+                }
+                state = next;
+            }
+            stateOutputs.get(state).add(p);
+        }
+
+        // Failure links (breadth first), folded into a complete transition table
+        int stateCount = gotoRows.size();
+        int[] fail = new int[stateCount];
+        this.transitions = new int[stateCount * width];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int s = 0; s < width; s++) {
+            int next = gotoRows.get(0)[s];
+            transitions[s] = next < 0 ? 0 : next;
+            if (next > 0) {
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            stateOutputs.get(state).addAll(stateOutputs.get(fail[state]));
+            for (int s = 0; s < width; s++) {
+                int next = gotoRows.get(state)[s];
+                int viaFail = transitions[fail[state] * width + s];
+                if (next < 0) {
+                    transitions[state * width + s] = viaFail;
+                } else {
+                    fail[next] = viaFail;
+                    transitions[state * width + s] = next;
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.outputs = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            outputs[state] = stateOutputs.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private static int[] newRow(int width) {
+        int[] row = new int[width];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private int symbol(char c) {
+        return Arrays.binarySearch(alphabet, c);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects keyword tables; build() compiles them into one automaton
+     */
+    public static class Builder {
+        private final List<Field> groupFields = new ArrayList<>();
+        private final Map<String, List<Integer>> groupsByPattern = new LinkedHashMap<>();
+
+        /**
+         * Register a keyword table (patterns are matched case-insensitively)
+         *
+         * @return Group id, used to read the result from {@link Matches}
+         */
+        public int group(Field field, String... patterns) {
+            int group = groupFields.size();
+            groupFields.add(field);
+            for (String pattern : patterns) {
+                if (pattern == null || pattern.isEmpty()) {
+                    continue;
+                }
+                List<Integer> groups = groupsByPattern.computeIfAbsent(pattern.toLowerCase(), p -> new ArrayList<>());
+                if (!groups.contains(group)) {
+                    groups.add(group);
+                }
+            }
+            return group;
+        }
+
+        public CategoryKeywordMatcher build() {
+            return new CategoryKeywordMatcher(groupFields, groupsByPattern);
+        }
+    }
+
+    /**
+     * Lower-cased search text (name + " " + description + " " + keywords) plus where each part starts and ends
+     */
+    public static final class SearchText {
+        private final String text;
+        private final int nameEnd;
+        private final int artifactStart;
+        private final int artifactEnd;
+        private final int descriptionStart;
+        private final int descriptionEnd;
+        private final int[] keywordStarts;
+        private final int[] keywordEnds;
+
+        private SearchText(String text, int nameEnd, int artifactStart, int artifactEnd,
+                           int descriptionStart, int descriptionEnd, int[] keywordStarts, int[] keywordEnds) {
+            this.text = text;
+            this.nameEnd = nameEnd;
+            this.artifactStart = artifactStart;
+            this.artifactEnd = artifactEnd;
+            this.descriptionStart = descriptionStart;
+            this.descriptionEnd = descriptionEnd;
+            this.keywordStarts = keywordStarts;
+            this.keywordEnds = keywordEnds;
+        }
+
+        /**
+         * @param artifactStart Start of the artifact name within the name (see CategoryService.artifactStart)
+         * @param artifactEnd End of the artifact name within the name
+         */
+        public static SearchText of(String name, int artifactStart, int artifactEnd,
+                                    String description, List<String> keywords) {
+            StringBuilder sb = new StringBuilder();
+
+            int nameEnd = 0;
+            int artifactOffset = 0;
+            int artifactLimit = 0;
+            if (name != null) {
+                String nameLower = name.toLowerCase();
+                sb.append(nameLower);
+                nameEnd = sb.length();
+                // Offsets only carry over if lower-casing kept the length (true for any already lower-cased name)
+                boolean sameLength = nameLower.length() == name.length();
+                artifactOffset = sameLength ? artifactStart : 0;
+                artifactLimit = sameLength ? artifactEnd : nameEnd;
+                sb.append(" ");
+            }
+
+            int descriptionStart = sb.length();
+            if (description != null) {
+                sb.append(description.toLowerCase());
+            }
+            int descriptionEnd = sb.length();
+            if (description != null) {
+                sb.append(" ");
+            }
+
+            List<String> present = keywords == null ? List.of()
+                    : keywords.stream().filter(k -> k != null).toList();
+            int[] keywordStarts = new int[present.size()];
+            int[] keywordEnds = new int[present.size()];
+            for (int k = 0; k < present.size(); k++) {
+                if (k > 0) {
+                    sb.append(" ");
+                }
+                keywordStarts[k] = sb.length();
+                sb.append(present.get(k).toLowerCase());
+                keywordEnds[k] = sb.length();
+            }
+
+            return new SearchText(sb.toString(), nameEnd, artifactOffset, artifactLimit, descriptionStart, descriptionEnd,
+                    keywordStarts, keywordEnds);
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Index of the keyword that fully contains [start, end), or -1
+         */
+        private int keywordAt(int start, int end) {
+            int k = Arrays.binarySearch(keywordStarts, start);
+            if (k < 0) {
+                k = -k - 2; // last keyword starting before 'start'
+            }
+            return k >= 0 && end <= keywordEnds[k] ? k : -1;
+        }
+    }
+
+    /**
+     * Which groups hit for one library
+     */
+    public static final class Matches {
+        private final BitSet hits;
+        private final int[] keywordCounts;
+
+        private Matches(BitSet hits, int[] keywordCounts) {
+            this.hits = hits;
+            this.keywordCounts = keywordCounts;
+        }
+
+        public boolean has(int group) {
+            return hits.get(group);
+        }
+
+        /**
+         * Number of distinct keywords containing a pattern of a KEYWORD group
+         */
+        public int keywordCount(int group) {
+            return keywordCounts[group];
+        }
+    }
+
+    /**
+     * Score every group in a single pass over the search text
+     */
+    public Matches match(SearchText searchText) {
+        BitSet hits = new BitSet(groupFields.length);
+        int[] keywordCounts = new int[groupFields.length];
+        int[] lastKeyword = new int[groupFields.length];
+        Arrays.fill(lastKeyword, -1);
+
+        String text = searchText.text;
+        int width = alphabet.length;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int symbol = symbol(text.charAt(i));
+            state = symbol < 0 ? 0 : transitions[state * width + symbol];
+
+            for (int pattern : outputs[state]) {
+                int end = i + 1;
+                int start = end - patternLengths[pattern];
+                for (int group : patternGroups[pattern]) {
+                    switch (groupFields[group]) {
+                        case NAME -> {
+                            if (end <= searchText.nameEnd) {
+                                hits.set(group);
+                            }
+                        }
+                        case ARTIFACT -> {
+                            if (start >= searchText.artifactStart && end <= searchText.artifactEnd) {
+                                hits.set(group);
+                            }
+                        }
+                        case DESCRIPTION -> {
+                            if (start >= searchText.descriptionStart && end <= searchText.descriptionEnd) {
+                                hits.set(group);
+                            }
+                        }
+                        case KEYWORD -> {
+                            // Hits arrive in text order, so a keyword's hits are contiguous
+                            int keyword = searchText.keywordAt(start, end);
+                            if (keyword >= 0 && lastKeyword[group] != keyword) {
+                                lastKeyword[group] = keyword;
+                                keywordCounts[group]++;
+                                hits.set(group);
+                            }
+                        }
+                        case SEARCH_TEXT -> hits.set(group);
+                    }
+                }
+            }
+        }
+        return new Matches(hits, keywordCounts);
+    }
+}
@@ -0,0 +1,495 @@
+package com.project.library_comparison_tool.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.library_comparison_tool.entity.Category;
+import com.project.library_comparison_tool.service.CategoryKeywordMatcher.Field;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Category, framework, runtime, OS and license rules loaded from a versioned JSON file
+ * (app.rules.location, default classpath:rules/classification-rules.json)
+ *
+ * All keyword patterns are compiled into CategoryKeywordMatcher automatons, so classifying a library is
+ * one pass over its text whatever the number of rules. A changed file is picked up without a restart
+ * (app.rules.reload-check-ms, or POST /api/admin/data/rules/reload); a file that fails to parse or
+ * validate is rejected and the rules in use stay active.
+ *
+ * Category signals are evaluated in file order, each adding its weight when it applies:
+ * - field + patterns: a pattern occurs in that part of the library (KEYWORD: per matching keyword, up to max)
+ * - languages / platforms: only for those languages / package managers (case-insensitive)
+ * - ifScorePositive: only if the score so far is above 0
+ * - onlyIf: only if the signal with that id applied
+ * Categories with nameOnlyBonus get an extra bonus when the name matched but there is no description or keywords.
+ */
+@Service
+public class ClassificationRuleEngine {
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String location;
+
+    private volatile Rules rules;
+    private volatile long loadedLastModified;
+    private volatile LocalDateTime loadedAt;
+    private volatile String lastReloadError;
+
+    public ClassificationRuleEngine(ResourceLoader resourceLoader,
+                                    @Value("${app.rules.location:classpath:rules/classification-rules.json}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+        // The bundled rules must be valid - fail startup rather than classify with nothing
+        reload();
+    }
+
+    // ============================================
+    // CLASSIFICATION
+    // ============================================
+
+    /**
+     * Score every category that has rules
+     *
+     * @param text Lower-cased name / description / keywords (see CategoryService.buildSearchText)
+     * @return Category -> score (never negative)
+     */
+    public Map<Category, Integer> scoreCategories(CategoryKeywordMatcher.SearchText text,
+                                                                  String description,
+                                                                  List<String> keywords,
+                                                                  String language,
+                                                                  String platform) {
+        Rules current = rules;
+        CategoryKeywordMatcher.Matches matches = current.categoryMatcher.match(text);
+        boolean missingMetadata = (description == null || description.trim().isEmpty()) &&
+                                  (keywords == null || keywords.isEmpty());
+
+        Map<Category, Integer> scores = new EnumMap<>(Category.class);
+        for (CategoryRule rule : current.categoryRules) {
+            int score = 0;
+            boolean[] applied = new boolean[rule.signals.size()];
+            for (int i = 0; i < rule.signals.size(); i++) {
+                Signal signal = rule.signals.get(i);
+                if (!signal.appliesTo(language, platform)
+                        || (signal.ifScorePositive && score <= 0)
+                        || (signal.onlyIf >= 0 && !applied[signal.onlyIf])) {
+                    continue;
+                }
+                if (signal.group < 0) {
+                    score += signal.weight;
+                    applied[i] = true;
+                } else if (signal.field == Field.KEYWORD) {
+                    int count = Math.min(signal.max, matches.keywordCount(signal.group));
+                    score += count * signal.weight;
+                    applied[i] = count > 0;
+                } else if (matches.has(signal.group)) {
+                    score += signal.weight;
+                    applied[i] = true;
+                }
+            }
+            if (rule.nameOnlyBonus && missingMetadata && score >= current.nameOnlyMinScore) {
+                score += current.nameOnlyBonus;
+            }
+            scores.put(rule.category, Math.max(0, score));
+        }
+        return scores;
+    }
+
+    /**
+     * Categories scoring at least this are assigned
+     */
+    public int getCategoryThreshold() {
+        return rules.categoryThreshold;
+    }
+
+    /**
+     * First framework rule (file order, most specific first) whose pattern occurs in the name
+     *
+     * @return Framework name, or the configured default ("none")
+     */
+    public String inferFramework(String name) {
+        Rules current = rules;
+        if (name == null) {
+            return current.defaultFramework;
+        }
+        CategoryKeywordMatcher.Matches matches = current.frameworkMatcher.match(
+                CategoryKeywordMatcher.SearchText.of(name, 0, name.length(), null, null));
+        for (int i = 0; i < current.frameworks.size(); i++) {
+            if (matches.has(i)) {
+                return current.frameworks.get(i);
+            }
+        }
+        return current.defaultFramework;
+    }
+
+    /**
+     * First runtime rule whose language (and framework, if given) substrings match
+     */
+    public String inferRuntime(String language, String framework) {
+        Rules current = rules;
+        if (language == null) {
+            return current.defaultRuntime;
+        }
+        String lowerLanguage = language.toLowerCase();
+        String lowerFramework = framework != null ? framework.toLowerCase() : "";
+        for (RuntimeRule rule : current.runtimeRules) {
+            if (containsAny(lowerLanguage, rule.languageContains)
+                    && (rule.frameworkContains.isEmpty() || containsAny(lowerFramework, rule.frameworkContains))) {
+                return rule.runtime;
+            }
+        }
+        return current.defaultRuntime;
+    }
+
+    /**
+     * First OS rule matching the language / package manager (and name substrings, if given)
+     */
+    public List<String> inferSupportedOs(String language, String platform, String name) {
+        Rules current = rules;
+        if (language == null && platform == null) {
+            return current.unknownOs;
+        }
+        String lowerName = name != null ? name.toLowerCase() : "";
+        for (OsRule rule : current.osRules) {
+            if ((rule.languages.isEmpty() || equalsAny(language, rule.languages))
+                    && (rule.platforms.isEmpty() || equalsAny(platform, rule.platforms))
+                    && (rule.nameContains.isEmpty() || containsAny(lowerName, rule.nameContains))) {
+                return rule.os;
+            }
+        }
+        return current.defaultOs;
+    }
+
+    public boolean isOpenSourceLicense(String license) {
+        if (license == null) {
+            return false;
+        }
+        return rules.licenseMatcher.match(CategoryKeywordMatcher.SearchText.of(license, 0, license.length(), null, null))
+                .has(0);
+    }
+
+    // ============================================
+    // LOADING / HOT RELOAD
+    // ============================================
+
+    /**
+     * Load, validate and compile the rule file, then swap it in
+     *
+     * @return Status after the reload
+     * @throws IllegalStateException if the file is missing or invalid (the previous rules stay active)
+     */
+    public synchronized Map<String, Object> reload() {
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            long lastModified = lastModified(resource);
+            Rules compiled = compile(objectMapper.readTree(in));
+            rules = compiled;
+            loadedLastModified = lastModified;
+            loadedAt = LocalDateTime.now();
+            lastReloadError = null;
+            System.out.println("[rules] Loaded classification rules v" + compiled.version + " from " + location +
+                    " (" + compiled.categoryRules.size() + " categories, " + compiled.frameworks.size() + " frameworks)");
+            return getStatus();
+        } catch (IOException | RuntimeException e) {
+            lastReloadError = e.getMessage();
+            System.err.println("[rules] ❌ Could not load " + location + ": " + e.getMessage() +
+                    (rules != null ? " (keeping v" + rules.version + ")" : ""));
+            throw new IllegalStateException("Invalid classification rules in " + location + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Hot reload: re-read the rule file when its modification time changed
+     */
+    @Scheduled(fixedDelayString = "${app.rules.reload-check-ms:30000}", initialDelayString = "${app.rules.reload-check-ms:30000}")
+    public void reloadIfChanged() {
+        long lastModified = lastModified(resourceLoader.getResource(location));
+        if (lastModified <= 0 || lastModified == loadedLastModified) {
+            return;
+        }
+        try {
+            reload();
+        } catch (IllegalStateException e) {
+            // Already logged; don't retry until the file changes again
+            loadedLastModified = lastModified;
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Rules current = rules;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("version", current.version);
+        status.put("location", location);
+        status.put("loadedAt", loadedAt != null ? loadedAt.toString() : null);
+        status.put("categories", current.categoryRules.size());
+        status.put("categoryPatterns", current.categoryPatterns);
+        status.put("frameworks", current.frameworks.size());
+        status.put("runtimeRules", current.runtimeRules.size());
+        status.put("osRules", current.osRules.size());
+        status.put("lastReloadError", lastReloadError);
+        return status;
+    }
+
+    public String getVersion() {
+        return rules.version;
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    // ============================================
+    // COMPILATION
+    // ============================================
+
+    private static Rules compile(JsonNode root) {
+        String version = requiredText(root, "version");
+
+        // Categories
+        JsonNode categories = required(root, "categories");
+        JsonNode nameOnly = required(categories, "nameOnlyBonus");
+        CategoryKeywordMatcher.Builder categoryTables = CategoryKeywordMatcher.builder();
+        List<CategoryRule> categoryRules = new ArrayList<>();
+        int categoryPatterns = 0;
+        for (JsonNode ruleNode : required(categories, "rules")) {
+            String categoryName = requiredText(ruleNode, "category");
+            Category category = Category.fromName(categoryName);
+            if (category == null || category == Category.OTHER) {
+                throw new IllegalArgumentException("unknown category '" + categoryName + "'");
+            }
+
+            List<Signal> signals = new ArrayList<>();
+            Map<String, Integer> signalIds = new HashMap<>();
+            for (JsonNode signalNode : required(ruleNode, "signals")) {
+                Signal signal = new Signal();
+                signal.weight = required(signalNode, "weight").asInt();
+                signal.max = signalNode.path("max").asInt(Integer.MAX_VALUE);
+                signal.languages = texts(signalNode.get("languages"));
+                signal.platforms = texts(signalNode.get("platforms"));
+                signal.ifScorePositive = signalNode.path("ifScorePositive").asBoolean(false);
+                if (signalNode.hasNonNull("onlyIf")) {
+                    Integer target = signalIds.get(signalNode.get("onlyIf").asText());
+                    if (target == null) {
+                        throw new IllegalArgumentException(category + ": onlyIf '" + signalNode.get("onlyIf").asText() +
+                                "' must name an earlier signal id");
+                    }
+                    signal.onlyIf = target;
+                }
+                if (signalNode.hasNonNull("patterns")) {
+                    signal.field = Field.valueOf(requiredText(signalNode, "field").toUpperCase());
+                    List<String> patterns = texts(signalNode.get("patterns"));
+                    signal.group = categoryTables.group(signal.field, patterns.toArray(new String[0]));
+                    categoryPatterns += patterns.size();
+                }
+                if (signalNode.hasNonNull("id")) {
+                    signalIds.put(signalNode.get("id").asText(), signals.size());
+                }
+                signals.add(signal);
+            }
+            categoryRules.add(new CategoryRule(category, ruleNode.path("nameOnlyBonus").asBoolean(false), signals));
+        }
+
+        // Frameworks: one matcher group per rule, so the group id is the rule's position
+        JsonNode frameworkNode = required(root, "frameworks");
+        CategoryKeywordMatcher.Builder frameworkTables = CategoryKeywordMatcher.builder();
+        List<String> frameworks = new ArrayList<>();
+        for (JsonNode ruleNode : required(frameworkNode, "rules")) {
+            frameworkTables.group(Field.NAME, requiredText(ruleNode, "pattern"));
+            frameworks.add(requiredText(ruleNode, "framework"));
+        }
+
+        // Runtimes
+        JsonNode runtimeNode = required(root, "runtimes");
+        List<RuntimeRule> runtimeRules = new ArrayList<>();
+        for (JsonNode ruleNode : required(runtimeNode, "rules")) {
+            runtimeRules.add(new RuntimeRule(lowerCase(texts(ruleNode.get("languageContains"))),
+                    lowerCase(texts(ruleNode.get("frameworkContains"))), requiredText(ruleNode, "runtime")));
+        }
+
+        // Operating systems
+        JsonNode osNode = required(root, "operatingSystems");
+        List<OsRule> osRules = new ArrayList<>();
+        for (JsonNode ruleNode : required(osNode, "rules")) {
+            osRules.add(new OsRule(texts(ruleNode.get("languages")), texts(ruleNode.get("platforms")),
+                    lowerCase(texts(ruleNode.get("nameContains"))), texts(required(ruleNode, "os"))));
+        }
+
+        // Licenses
+        CategoryKeywordMatcher.Builder licenseTables = CategoryKeywordMatcher.builder();
+        licenseTables.group(Field.NAME, texts(required(required(root, "licenses"), "openSource")).toArray(new String[0]));
+
+        return new Rules(version,
+                required(categories, "threshold").asInt(), required(nameOnly, "minScore").asInt(),
+                required(nameOnly, "bonus").asInt(), categoryRules, categoryTables.build(), categoryPatterns,
+                frameworks, frameworkTables.build(), frameworkNode.path("default").asText("none"),
+                runtimeRules, runtimeNode.path("default").asText("unknown"),
+                osRules, texts(osNode.get("unknown")), texts(osNode.get("default")),
+                licenseTables.build());
+    }
+
+    private static JsonNode required(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            throw new IllegalArgumentException("missing '" + field + "'");
+        }
+        return value;
+    }
+
+    private static String requiredText(JsonNode node, String field) {
+        String value = required(node, field).asText();
+        if (value.isBlank()) {
+            throw new IllegalArgumentException("blank '" + field + "'");
+        }
+        return value;
+    }
+
+    private static List<String> texts(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        if (array != null && array.isArray()) {
+            array.forEach(node -> values.add(node.asText()));
+        }
+        return List.copyOf(values);
+    }
+
+    private static List<String> lowerCase(List<String> values) {
+        return values.stream().map(String::toLowerCase).toList();
+    }
+
+    private static boolean containsAny(String text, List<String> patterns) {
+        for (String pattern : patterns) {
+            if (text.contains(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean equalsAny(String value, List<String> candidates) {
+        if (value == null) {
+            return false;
+        }
+        for (String candidate : candidates) {
+            if (candidate.equalsIgnoreCase(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ============================================
+    // COMPILED RULES (immutable, swapped as a whole on reload)
+    // ============================================
+
+    private static final class Rules {
+        final String version;
+        final int categoryThreshold;
+        final int nameOnlyMinScore;
+        final int nameOnlyBonus;
+        final List<CategoryRule> categoryRules;
+        final CategoryKeywordMatcher categoryMatcher;
+        final int categoryPatterns;
+        final List<String> frameworks;
+        final CategoryKeywordMatcher frameworkMatcher;
+        final String defaultFramework;
+        final List<RuntimeRule> runtimeRules;
+        final String defaultRuntime;
+        final List<OsRule> osRules;
+        final List<String> unknownOs;
+        final List<String> defaultOs;
+        final CategoryKeywordMatcher licenseMatcher;
+
+        Rules(String version, int categoryThreshold, int nameOnlyMinScore, int nameOnlyBonus,
+              List<CategoryRule> categoryRules, CategoryKeywordMatcher categoryMatcher, int categoryPatterns,
+              List<String> frameworks, CategoryKeywordMatcher frameworkMatcher, String defaultFramework,
+              List<RuntimeRule> runtimeRules, String defaultRuntime,
+              List<OsRule> osRules, List<String> unknownOs, List<String> defaultOs,
+              CategoryKeywordMatcher licenseMatcher) {
+            this.version = version;
+            this.categoryThreshold = categoryThreshold;
+            this.nameOnlyMinScore = nameOnlyMinScore;
+            this.nameOnlyBonus = nameOnlyBonus;
+            this.categoryRules = List.copyOf(categoryRules);
+            this.categoryMatcher = categoryMatcher;
+            this.categoryPatterns = categoryPatterns;
+            this.frameworks = List.copyOf(frameworks);
+            this.frameworkMatcher = frameworkMatcher;
+            this.defaultFramework = defaultFramework;
+            this.runtimeRules = List.copyOf(runtimeRules);
+            this.defaultRuntime = defaultRuntime;
+            this.osRules = List.copyOf(osRules);
+            this.unknownOs = unknownOs;
+            this.defaultOs = defaultOs;
+            this.licenseMatcher = licenseMatcher;
+        }
+    }
+
+    private static final class CategoryRule {
+        final Category category;
+        final boolean nameOnlyBonus;
+        final List<Signal> signals;
+
+        CategoryRule(Category category, boolean nameOnlyBonus, List<Signal> signals) {
+            this.category = category;
+            this.nameOnlyBonus = nameOnlyBonus;
+            this.signals = List.copyOf(signals);
+        }
+    }
+
+    private static final class Signal {
+        Field field;
+        int group = -1;   // matcher group, -1 for signals without patterns
+        int weight;
+        int max;          // KEYWORD: most keywords counted
+        List<String> languages;
+        List<String> platforms;
+        boolean ifScorePositive;
+        int onlyIf = -1;  // index of the signal that must have applied
+
+        boolean appliesTo(String language, String platform) {
+            return (languages.isEmpty() || equalsAny(language, languages))
+                    && (platforms.isEmpty() || equalsAny(platform, platforms));
+        }
+    }
+
+    private static final class RuntimeRule {
+        final List<String> languageContains;
+        final List<String> frameworkContains; // empty = any framework
+        final String runtime;
+
+        RuntimeRule(List<String> languageContains, List<String> frameworkContains, String runtime) {
+            this.languageContains = languageContains;
+            this.frameworkContains = frameworkContains;
+            this.runtime = runtime;
+        }
+    }
+
+    private static final class OsRule {
+        final List<String> languages;    // empty = any language
+        final List<String> platforms;    // empty = any package manager
+        final List<String> nameContains; // empty = any name
+        final List<String> os;
+
+        OsRule(List<String> languages, List<String> platforms, List<String> nameContains, List<String> os) {
+            this.languages = languages;
+            this.platforms = platforms;
+            this.nameContains = nameContains;
+            this.os = os;
+        }
+    }
+}
@@ -6,7 +6,11 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Unified Comparison Service
@@ -83,6 +87,110 @@ public class ComparisonService {
         return result;
     }
 
+    /**
+     * Copy the current comparison scores onto the library's persisted score columns
+     * Called before every save so the database can filter/sort by grade and score
+     */
+    public Library applyScores(Library library) {
+        if (library == null) {
+            return null;
+        }
+
+        ComparisonResult result = calculateComparison(library);
+        library.setPopularityScore(result.getPopularityScore());
+        library.setMaintenanceScore(result.getMaintenanceScore());
+        library.setSecurityScore(result.getSecurityScore());
+        library.setCommunityScore(result.getCommunityScore());
+        library.setQualityScore(result.getQualityScore());
+        library.setOverallScore(result.getOverallScore());
+        library.setQualityGrade(result.getQualityGrade());
+        library.setActivelyMaintained(result.isActivelyMaintained());
+        library.setVulnerabilitySeverityScore(result.getVulnerabilitySeverityScore());
+
+        // Remember what the scores were computed from and until when they hold
+        library.setScoreInputsHash(calculateScoreInputsHash(library));
+        library.setScoresValidUntil(calculateScoresValidUntil(library, LocalDate.now()));
+
+        return library;
+    }
+
+    /**
+     * Check whether a library's persisted scores are out of date
+     * True if never scored, a scoring input changed, or a maintenance time bucket has elapsed
+     */
+    public boolean needsRescore(Library library) {
+        if (library.getQualityGrade() == null || library.getScoreInputsHash() == null) {
+            return true;
+        }
+
+        if (library.getScoresValidUntil() != null && !LocalDate.now().isBefore(library.getScoresValidUntil())) {
+            return true;
+        }
+
+        return library.getScoreInputsHash() != calculateScoreInputsHash(library);
+    }
+
+    /**
+     * Fingerprint of every library field the scores depend on
+     * Vulnerability severities are included because the security score weights them
+     */
+    public int calculateScoreInputsHash(Library library) {
+        List<String> severities = new ArrayList<>();
+        if (Boolean.TRUE.equals(library.getHasSecurityVulnerabilities()) && library.getVulnerabilities() != null) {
+            for (Vulnerability vuln : library.getVulnerabilities()) {
+                severities.add(vuln.getSeverity() != null ? vuln.getSeverity().toUpperCase() : null);
+            }
+            Collections.sort(severities, Comparator.nullsFirst(Comparator.naturalOrder()));
+        }
+
+        return Objects.hash(
+                library.getGithubStars(),
+                library.getGithubForks(),
+                library.getDependentProjectsCount(),
+                library.getLastRepositoryReleaseDate(),
+                library.getLastRegistryReleaseDate(),
+                library.getLatestVersion(),
+                library.getIsDeprecated(),
+                library.getHasSecurityVulnerabilities(),
+                severities
+        );
+    }
+
+    /**
+     * First date after today on which the date-based parts of the score change
+     * (maintenance recency buckets, registry recency buckets, 6-month active window)
+     *
+     * @return Next boundary date, or null if the scores no longer decay
+     */
+    public LocalDate calculateScoresValidUntil(Library library, LocalDate today) {
+        List<LocalDate> boundaries = new ArrayList<>();
+
+        LocalDate repoRelease = library.getLastRepositoryReleaseDate();
+        if (repoRelease != null) {
+            // Bucket edges used by calculateMaintenanceScore (<= 7, 30, 90, 180, 365 days)
+            for (int days : new int[]{7, 30, 90, 180, 365}) {
+                boundaries.add(repoRelease.plusDays(days + 1L));
+            }
+            // isActivelyMaintained flips once the release is 6 months old
+            boundaries.add(repoRelease.plusMonths(6));
+        }
+
+        if (library.getLastRegistryReleaseDate() != null) {
+            try {
+                LocalDate registryDate = LocalDate.parse(library.getLastRegistryReleaseDate());
+                boundaries.add(registryDate.plusDays(91));
+                boundaries.add(registryDate.plusDays(181));
+            } catch (Exception e) {
+                // Unparseable date never contributes to the score
+            }
+        }
+
+        return boundaries.stream()
+                .filter(date -> date.isAfter(today))
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
     /**
      * Popularity Score (0-10)
      * Based on GitHub stars and dependent projects
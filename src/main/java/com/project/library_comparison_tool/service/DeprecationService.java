@@ -4,11 +4,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
 
 /**
  * Service for detecting deprecation status of libraries
@@ -26,6 +23,11 @@ public class DeprecationService {
     };
 
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UpstreamHttpClient httpClient;
+
+    public DeprecationService(UpstreamHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
 
     /**
      * Main method to check deprecation status
@@ -421,30 +423,18 @@ public class DeprecationService {
      * @return JSON string or null if failed
      */
     private String fetchJsonFromUrl(String urlString) {
-        try {
-            URL url = new URL(urlString);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setRequestProperty("Accept", "application/json");
-            connection.setConnectTimeout(5000); // 5 second timeout
-            connection.setReadTimeout(5000);
-
-            int responseCode = connection.getResponseCode();
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                Scanner scanner = new Scanner(connection.getInputStream());
-                scanner.useDelimiter("\\A");
-                String response = scanner.hasNext() ? scanner.next() : "";
-                scanner.close();
-                return response;
-            } else if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
-                // Package doesn't exist - not deprecated, just doesn't exist
-                return null;
-            } else {
-                System.err.println("    ✗ HTTP " + responseCode + " when fetching " + urlString);
-                return null;
-            }
-        } catch (IOException e) {
-            System.err.println("    ✗ Error fetching " + urlString + ": " + e.getMessage());
+        UpstreamHttpClient.UpstreamResponse response = httpClient.getConditional(urlString, Map.of("Accept", "application/json"));
+        int responseCode = response.getStatus();
+        if (response.isOk()) {
+            return response.getBody();
+        } else if (responseCode == 404) {
+            // Package doesn't exist - not deprecated, just doesn't exist
+            return null;
+        } else if (responseCode == 0) {
+            System.err.println("    ✗ Error fetching " + urlString + ": " + response.getError());
+            return null;
+        } else {
+            System.err.println("    ✗ HTTP " + responseCode + " when fetching " + urlString);
             return null;
         }
     }
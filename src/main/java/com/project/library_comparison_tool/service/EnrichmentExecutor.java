@@ -0,0 +1,107 @@
+package com.project.library_comparison_tool.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking outbound calls of one library's enrichment (OSV, GitHub advisories, registry
+ * deprecation check, README) side by side, so enrichment takes max(calls) instead of sum(calls)
+ *
+ * - Every call has its own deadline; a call that misses it (or throws) yields its fallback value
+ * - When the pool and its queue are full the submitting thread runs the call itself,
+ *   which throttles callers instead of failing and can never deadlock on a nested submit
+ */
+@Service
+public class EnrichmentExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long callTimeoutMillis;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public EnrichmentExecutor(@Value("${app.enrichment.io-concurrency:32}") int ioConcurrency,
+                              @Value("${app.enrichment.call-timeout-ms:15000}") long callTimeoutMillis) {
+        int threads = Math.max(1, ioConcurrency);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 8),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "enrich-io-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.callTimeoutMillis = Math.max(1, callTimeoutMillis);
+    }
+
+    /**
+     * Start a blocking call in the background
+     *
+     * @param name Short label for logs (e.g. "OSV lookup for react")
+     * @param call The blocking call
+     * @param fallback Value used if the call throws or misses its deadline
+     * @return Future that always completes normally, at the latest after the call timeout
+     */
+    public <T> CompletableFuture<T> submit(String name, Supplier<T> call, T fallback) {
+        // A replay job's calls stay in its replay scope on the pool threads
+        return CompletableFuture.supplyAsync(UpstreamPayloadStore.withCurrentScope(call), executor)
+                .orTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((result, error) -> {
+                    if (error == null) {
+                        completed.incrementAndGet();
+                        return result;
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        // The worker keeps running until its own HTTP timeout; we just stop waiting for it
+                        timedOut.incrementAndGet();
+                        System.err.println("    ⚠ " + name + " timed out after " + callTimeoutMillis + "ms");
+                    } else {
+                        failed.incrementAndGet();
+                        System.err.println("    ✗ " + name + " failed: " + cause.getMessage());
+                    }
+                    return fallback;
+                });
+    }
+
+    /**
+     * Wait for all of a library's calls; none of the futures from submit() can fail, so this only blocks
+     */
+    public void joinAll(CompletableFuture<?>... calls) {
+        CompletableFuture.allOf(calls).join();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", executor.getPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("completed", completed.get());
+        stats.put("failed", failed.get());
+        stats.put("timedOut", timedOut.get());
+        stats.put("callTimeoutMs", callTimeoutMillis);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -6,12 +6,10 @@ import com.project.library_comparison_tool.entity.Library;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -26,17 +24,19 @@ public class ExampleCodeService {
     private static final int MAX_CODE_LENGTH = 2000; // Match database TEXT field limit
     private static final int MIN_CODE_LENGTH = 20; // Minimum meaningful code length
     
-    // Rate limiting: GitHub allows 60 requests/hour for unauthenticated, 5,000/hour with token
-    private static volatile boolean githubRateLimited = false;
-    private static volatile long rateLimitResetTime = 0;
-    private static final long RATE_LIMIT_WINDOW = 3600000; // 1 hour in milliseconds
-    
     private final ObjectMapper objectMapper;
     private final String githubToken;
+    // GitHub allows 60 requests/hour unauthenticated, 5,000/hour with token - paced by the shared limiter
+    private final UpstreamRateLimiter rateLimiter;
+    private final UpstreamHttpClient httpClient;
 
     public ExampleCodeService(
-            @Value("${github.api.token:}") String githubToken) {
+            @Value("${github.api.token:}") String githubToken,
+            UpstreamRateLimiter rateLimiter,
+            UpstreamHttpClient httpClient) {
         this.objectMapper = new ObjectMapper();
+        this.rateLimiter = rateLimiter;
+        this.httpClient = httpClient;
         this.githubToken = (githubToken != null && !githubToken.trim().isEmpty()) ? githubToken.trim() : null;
 
         //i added a debugging point
@@ -72,7 +72,7 @@ public class ExampleCodeService {
         }
 
         // Check if rate limited
-        if (isRateLimited()) {
+        if (rateLimiter.isPaused(GITHUB_API_BASE)) {
             System.out.println("    ⚠ GitHub API rate limited. Generating example code automatically.");
             String generatedCode = generateExampleCode(library);
             if (generatedCode != null && isValidCode(generatedCode)) {
@@ -101,7 +101,7 @@ public class ExampleCodeService {
         }
 
         // Strategy 2: Try examples directory (only if not rate limited)
-        if (!isRateLimited()) {
+        if (!rateLimiter.isPaused(GITHUB_API_BASE)) {
             code = extractFromExamplesDirectory(repoInfo.owner, repoInfo.repo, library.getLanguage());
             if (code != null && isValidCode(code)) {
                 System.out.println("    → Extracted example code from examples directory");
@@ -133,7 +133,7 @@ public class ExampleCodeService {
         }
 
         // Check if rate limited
-        if (isRateLimited()) {
+        if (rateLimiter.isPaused(GITHUB_API_BASE)) {
             return null;
         }
 
@@ -406,26 +406,14 @@ public class ExampleCodeService {
      * Fetch file content from download URL
      */
     private String fetchFileContent(String downloadUrl) {
-        try {
-            URL url = new URL(downloadUrl);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-
-            int responseCode = connection.getResponseCode();
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                Scanner scanner = new Scanner(connection.getInputStream());
-                scanner.useDelimiter("\\A");
-                String content = scanner.hasNext() ? scanner.next() : "";
-                scanner.close();
-                return content;
-            }
-            return null;
-        } catch (Exception e) {
-            System.err.println("    ✗ Error fetching file content: " + e.getMessage());
-            return null;
+        UpstreamHttpClient.UpstreamResponse response = httpClient.get(downloadUrl, Map.of());
+        if (response.isOk()) {
+            return response.getBody();
+        }
+        if (response.getError() != null) {
+            System.err.println("    ✗ Error fetching file content: " + response.getError());
         }
+        return null;
     }
 
     /**
@@ -525,93 +513,53 @@ public class ExampleCodeService {
         return null;
     }
 
-    /**
-     * Check if GitHub API is rate limited
-     */
-    private boolean isRateLimited() {
-        if (githubRateLimited) {
-            // Check if rate limit window has passed
-            if (System.currentTimeMillis() > rateLimitResetTime) {
-                githubRateLimited = false;
-                System.out.println("    → GitHub API rate limit window reset. Resuming API calls.");
-                return false;
-            }
-            return true;
-        }
-        return false;
-    }
-
     /**
      * Fetch JSON from GitHub API with rate limit handling and token authentication
      */
     private String fetchJsonFromUrl(String urlString) {
-        try {
-            // Check rate limit before making request
-            if (isRateLimited()) {
-                return null;
-            }
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept", "application/json");
 
-            URL url = new URL(urlString);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setRequestProperty("Accept", "application/json");
-            connection.setRequestProperty("User-Agent", "LibraryComparisonTool/1.0");
-            
-            // Add GitHub token authentication if available
-            if (githubToken != null && !githubToken.isEmpty()) {
-                connection.setRequestProperty("Authorization", "token " + githubToken);
+        // Add GitHub token authentication if available
+        if (githubToken != null && !githubToken.isEmpty()) {
+            headers.put("Authorization", "token " + githubToken);
+        }
+
+        // Waits for a GitHub permit (skipped if the quota won't free up soon)
+        UpstreamHttpClient.UpstreamResponse response = httpClient.getConditional(urlString, headers);
+        int responseCode = response.getStatus();
+
+        if (response.isOk()) {
+            return response.getBody();
+        } else if (responseCode == 0) {
+            System.err.println("    ✗ Error fetching from GitHub API: " + response.getError());
+            return null;
+        } else if (responseCode == 404) {
+            return null;
+        } else if (responseCode == 403) {
+            // Rate limited or unauthorized
+            String errorMessage = "Rate limited or unauthorized";
+            String errorResponse = response.getBody() != null ? response.getBody() : "";
+            if (errorResponse.contains("rate limit")) {
+                errorMessage = "Rate limit exceeded";
+            } else if (errorResponse.contains("Bad credentials") || errorResponse.contains("401")) {
+                errorMessage = "Invalid GitHub token";
             }
-            
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
 
-            int responseCode = connection.getResponseCode();
-            
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                Scanner scanner = new Scanner(connection.getInputStream());
-                scanner.useDelimiter("\\A");
-                String response = scanner.hasNext() ? scanner.next() : "";
-                scanner.close();
-                return response;
-            } else if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
-                return null;
-            } else if (responseCode == 403) {
-                // Rate limited or unauthorized
-                String errorMessage = "Rate limited or unauthorized";
-                try {
-                    Scanner errorScanner = new Scanner(connection.getErrorStream());
-                    errorScanner.useDelimiter("\\A");
-                    String errorResponse = errorScanner.hasNext() ? errorScanner.next() : "";
-                    errorScanner.close();
-                    if (errorResponse.contains("rate limit")) {
-                        errorMessage = "Rate limit exceeded";
-                    } else if (errorResponse.contains("Bad credentials") || errorResponse.contains("401")) {
-                        errorMessage = "Invalid GitHub token";
-                    }
-                } catch (Exception e) {
-                    // Ignore error stream parsing errors
-                }
-                
-                // Only set rate limit flag if we don't have a token (unauthenticated rate limit)
-                if (githubToken == null || githubToken.isEmpty()) {
-                    githubRateLimited = true;
-                    rateLimitResetTime = System.currentTimeMillis() + RATE_LIMIT_WINDOW;
-                    System.err.println("    ⚠ GitHub API rate limited (403). Will retry after 1 hour.");
-                    System.err.println("    → Tip: Add github.api.token to application.properties for 5,000 requests/hour.");
-                } else {
-                    System.err.println("    ⚠ GitHub API error (403): " + errorMessage);
-                    System.err.println("    → Check if your GitHub token is valid and has correct permissions.");
-                }
-                return null;
-            } else if (responseCode == 401) {
-                System.err.println("    ✗ GitHub API unauthorized (401). Invalid token.");
-                return null;
+            // The limiter has already paused GitHub calls until X-RateLimit-Reset
+            if (githubToken == null || githubToken.isEmpty()) {
+                System.err.println("    ⚠ GitHub API rate limited (403). Paused until the rate limit window resets.");
+                System.err.println("    → Tip: Add github.api.token to application.properties for 5,000 requests/hour.");
             } else {
-                System.err.println("    ✗ GitHub API error: " + responseCode);
-                return null;
+                System.err.println("    ⚠ GitHub API error (403): " + errorMessage);
+                System.err.println("    → Check if your GitHub token is valid and has correct permissions.");
             }
-        } catch (IOException e) {
-            System.err.println("    ✗ Error fetching from GitHub API: " + e.getMessage());
+            return null;
+        } else if (responseCode == 401) {
+            System.err.println("    ✗ GitHub API unauthorized (401). Invalid token.");
+            return null;
+        } else {
+            System.err.println("    ✗ GitHub API error: " + responseCode);
             return null;
         }
     }
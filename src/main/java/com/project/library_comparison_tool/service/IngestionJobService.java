@@ -0,0 +1,335 @@
+package com.project.library_comparison_tool.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.library_comparison_tool.entity.IngestionJob;
+import com.project.library_comparison_tool.entity.IngestionJobStatus;
+import com.project.library_comparison_tool.repository.IngestionJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * libraries.io loads as persisted background jobs
+ *
+ * - A load request creates an IngestionJob and returns its id immediately; jobs run one at a time
+ *   (they share the libraries.io rate limit) on the "ingestion-jobs" thread
+ * - Stage counters and page checkpoints are written to the job row as pages complete, so a job that
+ *   was cancelled or interrupted by a restart resumes after its last finished page
+ * - Cancelling stops submitting new libraries; the ones already in flight are finished and saved
+ */
+@Service
+public class IngestionJobService {
+
+    private static final int LIBRARIES_PER_PAGE = 30; // libraries.io default page size, for the ETA
+    private static final EnumSet<IngestionJobStatus> RESUMABLE =
+            EnumSet.of(IngestionJobStatus.CANCELLED, IngestionJobStatus.INTERRUPTED, IngestionJobStatus.FAILED);
+
+    private final IngestionJobRepository jobRepository;
+    private final LibraryIngestionPipeline ingestionPipeline;
+    private final LibrariesIoDataLoader dataLoader;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ExecutorService jobRunner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ingestion-jobs");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Long, RunningJob> running = new ConcurrentHashMap<>();
+
+    public IngestionJobService(IngestionJobRepository jobRepository,
+                               LibraryIngestionPipeline ingestionPipeline,
+                               LibrariesIoDataLoader dataLoader) {
+        this.jobRepository = jobRepository;
+        this.ingestionPipeline = ingestionPipeline;
+        this.dataLoader = dataLoader;
+    }
+
+    /**
+     * Jobs that were queued or running when the application stopped can be resumed, but not silently restarted
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void markInterruptedJobs() {
+        List<IngestionJob> stale = jobRepository.findByStatusIn(EnumSet.of(IngestionJobStatus.QUEUED, IngestionJobStatus.RUNNING));
+        for (IngestionJob job : stale) {
+            job.setStatus(IngestionJobStatus.INTERRUPTED);
+            job.setFinishedAt(LocalDateTime.now());
+        }
+        jobRepository.saveAll(stale);
+        if (!stale.isEmpty()) {
+            System.out.println("[ingest-jobs] " + stale.size() + " job(s) were interrupted by a restart and can be resumed");
+        }
+    }
+
+    /**
+     * Queue a load of one libraries.io search
+     */
+    public IngestionJob startSearchLoad(String query, String platform, int pages, int limit) {
+        return submit("SEARCH", List.of(new LibraryIngestionPipeline.SearchRequest(query, platform, pages)), limit);
+    }
+
+    /**
+     * Queue a load of the popular-libraries searches
+     */
+    public IngestionJob startPopularLoad() {
+        return submit("POPULAR", dataLoader.popularLibrarySearches(), -1);
+    }
+
+    private IngestionJob submit(String jobType, List<LibraryIngestionPipeline.SearchRequest> requests, int limit) {
+        List<Map<String, Object>> serialized = new ArrayList<>();
+        int totalPages = 0;
+        for (LibraryIngestionPipeline.SearchRequest request : requests) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("query", request.getQuery());
+            entry.put("platform", request.getPlatform());
+            entry.put("maxPages", request.getMaxPages());
+            serialized.add(entry);
+            totalPages += request.getMaxPages();
+        }
+
+        IngestionJob job = IngestionJob.builder()
+                .jobType(jobType)
+                .status(IngestionJobStatus.QUEUED)
+                .searchRequests(toJson(serialized))
+                .limitCount(limit)
+                .checkpoint(toJson(new int[requests.size()]))
+                .totalPages(totalPages)
+                .build();
+        job = jobRepository.save(job);
+
+        Long id = job.getId();
+        jobRunner.execute(() -> execute(id));
+        System.out.println("[ingest-jobs] Queued job " + id + " (" + jobType + ", " + totalPages + " pages)");
+        return job;
+    }
+
+    /**
+     * Continue a cancelled, interrupted or failed job after its last checkpointed page
+     *
+     * @throws IllegalArgumentException if the job does not exist
+     * @throws IllegalStateException if the job is not resumable
+     */
+    public IngestionJob resume(Long id) {
+        IngestionJob job = getJob(id);
+        if (!RESUMABLE.contains(job.getStatus())) {
+            throw new IllegalStateException("Job " + id + " is " + job.getStatus() + " and cannot be resumed");
+        }
+        job.setStatus(IngestionJobStatus.QUEUED);
+        job.setErrorMessage(null);
+        job.setFinishedAt(null);
+        job = jobRepository.save(job);
+
+        jobRunner.execute(() -> execute(id));
+        System.out.println("[ingest-jobs] Resuming job " + id + " from checkpoint " + job.getCheckpoint());
+        return job;
+    }
+
+    /**
+     * Cancel a queued or running job (a running job stops after the libraries already in flight)
+     *
+     * @throws IllegalArgumentException if the job does not exist
+     * @throws IllegalStateException if the job already finished
+     */
+    public IngestionJob cancel(Long id) {
+        RunningJob run = running.get(id);
+        if (run != null) {
+            run.progress.cancel();
+            return getJob(id);
+        }
+
+        IngestionJob job = getJob(id);
+        if (job.getStatus() != IngestionJobStatus.QUEUED) {
+            throw new IllegalStateException("Job " + id + " is " + job.getStatus() + " and cannot be cancelled");
+        }
+        // Still waiting in the queue - execute() skips jobs that are no longer QUEUED
+        job.setStatus(IngestionJobStatus.CANCELLED);
+        job.setFinishedAt(LocalDateTime.now());
+        return jobRepository.save(job);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the job does not exist
+     */
+    public IngestionJob getJob(Long id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Ingestion job " + id + " not found"));
+    }
+
+    public List<IngestionJob> getRecentJobs() {
+        return jobRepository.findTop20ByOrderByIdDesc();
+    }
+
+    /**
+     * Job row as a response map, with live counters, throughput and ETA while it is running
+     */
+    public Map<String, Object> describe(IngestionJob job) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", job.getId());
+        view.put("type", job.getJobType());
+        view.put("status", job.getStatus());
+        view.put("searches", fromJson(job.getSearchRequests(), new TypeReference<List<Map<String, Object>>>() { }));
+        view.put("limit", job.getLimitCount() == -1 ? "unlimited" : job.getLimitCount());
+        view.put("totalPages", job.getTotalPages());
+        view.put("createdAt", job.getCreatedAt());
+        view.put("startedAt", job.getStartedAt());
+        view.put("finishedAt", job.getFinishedAt());
+        view.put("errorMessage", job.getErrorMessage());
+
+        RunningJob run = running.get(job.getId());
+        if (run != null) {
+            Map<String, Object> progress = run.progress.snapshot(expectedLibraries(job));
+            // Totals across all runs of the job
+            progress.put("pagesFetched", run.basePagesFetched + run.progress.getPagesFetched());
+            progress.put("pagesCompleted", run.basePagesCompleted + run.progress.getPagesCompleted());
+            progress.put("detailsFetched", run.baseDetailsFetched + run.progress.getDetailsFetched());
+            progress.put("enriched", run.baseEnriched + run.progress.getEnriched());
+            progress.put("saved", run.baseSaved + run.progress.getSaved());
+            progress.put("failed", run.baseFailed + run.progress.getFailed());
+            progress.put("unchanged", run.baseUnchanged + run.progress.getUnchanged());
+            progress.put("cancelRequested", run.progress.isCancelled());
+            view.put("progress", progress);
+        } else {
+            Map<String, Object> progress = new LinkedHashMap<>();
+            progress.put("pagesFetched", job.getPagesFetched());
+            progress.put("pagesCompleted", job.getPagesCompleted());
+            progress.put("detailsFetched", job.getDetailsFetched());
+            progress.put("enriched", job.getEnriched());
+            progress.put("saved", job.getSaved());
+            progress.put("failed", job.getFailed());
+            progress.put("unchanged", job.getUnchanged());
+            progress.put("checkpoints", job.getCheckpoint());
+            view.put("progress", progress);
+        }
+        return view;
+    }
+
+    private void execute(Long id) {
+        IngestionJob job = jobRepository.findById(id).orElse(null);
+        if (job == null || job.getStatus() != IngestionJobStatus.QUEUED) {
+            return; // cancelled while queued
+        }
+
+        List<LibraryIngestionPipeline.SearchRequest> requests = new ArrayList<>();
+        for (Map<String, Object> entry : fromJson(job.getSearchRequests(), new TypeReference<List<Map<String, Object>>>() { })) {
+            requests.add(new LibraryIngestionPipeline.SearchRequest(
+                    (String) entry.get("query"), (String) entry.get("platform"), ((Number) entry.get("maxPages")).intValue()));
+        }
+        int[] checkpoints = fromJson(job.getCheckpoint(), new TypeReference<int[]>() { });
+
+        RunningJob run = new RunningJob(job);
+        run.progress = new IngestionProgress(checkpoints, job.getCompletedLibraries(), progress -> persist(id, run, null));
+        running.put(id, run);
+
+        job.setStatus(IngestionJobStatus.RUNNING);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(LocalDateTime.now());
+        }
+        jobRepository.save(job);
+        System.out.println("[ingest-jobs] Started job " + id + " (checkpoints " + Arrays.toString(checkpoints) + ")");
+
+        IngestionJobStatus finalStatus;
+        String error = null;
+        try {
+            ingestionPipeline.run(requests, job.getLimitCount(), run.progress);
+            finalStatus = run.progress.isCancelled() ? IngestionJobStatus.CANCELLED : IngestionJobStatus.COMPLETED;
+        } catch (Exception e) {
+            finalStatus = IngestionJobStatus.FAILED;
+            error = e.getMessage();
+            System.err.println("[ingest-jobs] Job " + id + " failed: " + e.getMessage());
+        }
+
+        run.error = error;
+        persist(id, run, finalStatus);
+        running.remove(id);
+        System.out.println("[ingest-jobs] Job " + id + " " + finalStatus + " - " + run.progress.getSaved() + " saved this run");
+    }
+
+    /**
+     * Write counters and checkpoints to the job row (called from pipeline threads on every checkpoint)
+     */
+    private synchronized void persist(Long id, RunningJob run, IngestionJobStatus finalStatus) {
+        IngestionJob job = jobRepository.findById(id).orElse(null);
+        if (job == null) {
+            return;
+        }
+        IngestionProgress progress = run.progress;
+        job.setCheckpoint(toJson(progress.getCheckpoints()));
+        job.setCompletedLibraries(progress.getCompletedLibraries());
+        job.setPagesFetched(run.basePagesFetched + progress.getPagesFetched());
+        job.setPagesCompleted(run.basePagesCompleted + progress.getPagesCompleted());
+        job.setDetailsFetched(run.baseDetailsFetched + progress.getDetailsFetched());
+        job.setEnriched(run.baseEnriched + progress.getEnriched());
+        job.setSaved(run.baseSaved + progress.getSaved());
+        job.setFailed(run.baseFailed + progress.getFailed());
+        job.setUnchanged(run.baseUnchanged + progress.getUnchanged());
+        if (finalStatus != null) {
+            job.setStatus(finalStatus);
+            job.setErrorMessage(run.error != null && run.error.length() > 1000 ? run.error.substring(0, 1000) : run.error);
+            job.setFinishedAt(LocalDateTime.now());
+        }
+        jobRepository.save(job);
+    }
+
+    private long expectedLibraries(IngestionJob job) {
+        long byPages = (long) job.getTotalPages() * LIBRARIES_PER_PAGE;
+        return job.getLimitCount() == -1 ? byPages : Math.min(byPages, job.getLimitCount());
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not serialize ingestion job field", e);
+        }
+    }
+
+    private <T> T fromJson(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not read ingestion job field", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Running pipelines stop submitting; a row left RUNNING is marked INTERRUPTED on the next start
+        running.values().forEach(run -> run.progress.cancel());
+        jobRunner.shutdownNow();
+    }
+
+    // Counters persisted by earlier runs of the job, plus this run's live progress
+    private static final class RunningJob {
+        private final int basePagesFetched;
+        private final int basePagesCompleted;
+        private final long baseDetailsFetched;
+        private final long baseEnriched;
+        private final long baseSaved;
+        private final long baseFailed;
+        private final long baseUnchanged;
+        private volatile IngestionProgress progress;
+        private volatile String error;
+
+        private RunningJob(IngestionJob job) {
+            this.basePagesFetched = job.getPagesFetched();
+            this.basePagesCompleted = job.getPagesCompleted();
+            this.baseDetailsFetched = job.getDetailsFetched();
+            this.baseEnriched = job.getEnriched();
+            this.baseSaved = job.getSaved();
+            this.baseFailed = job.getFailed();
+            this.baseUnchanged = job.getUnchanged();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.project.library_comparison_tool.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Live progress of one LibraryIngestionPipeline run: stage counters, cancellation and page checkpoints
+ *
+ * A page is checkpointed once every library submitted from it has been saved, skipped or has failed,
+ * and only if the whole page was submitted (not cut short by the limit or a cancel). The checkpoint
+ * per search is the highest page with all pages up to it done, which is where a resumed run continues.
+ */
+public class IngestionProgress {
+
+    private final int[] checkpoints;           // per search request: last page fully processed
+    private final TreeSet<Integer>[] donePages; // per search request: finished pages past the checkpoint
+    private final AtomicInteger completedLibraries;
+    private final Consumer<IngestionProgress> onCheckpoint;
+    private final long startNanos = System.nanoTime();
+    private final long processedAtStart;
+
+    private final AtomicInteger pagesFetched = new AtomicInteger();
+    private final AtomicInteger pagesCompleted = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong detailsFetched = new AtomicLong();
+    private final AtomicLong enriched = new AtomicLong();
+    private final AtomicLong saved = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private volatile boolean cancelled;
+
+    /**
+     * Untracked run (no checkpoints)
+     */
+    public IngestionProgress(int requestCount) {
+        this(new int[requestCount], 0, p -> { });
+    }
+
+    /**
+     * @param checkpoints Last processed page per search request from a previous run (0 = start at page 1)
+     * @param completedLibraries Libraries on those pages (they count toward the limit)
+     * @param onCheckpoint Called (from pipeline threads) whenever a checkpoint advances
+     */
+    @SuppressWarnings("unchecked")
+    public IngestionProgress(int[] checkpoints, int completedLibraries, Consumer<IngestionProgress> onCheckpoint) {
+        this.checkpoints = checkpoints.clone();
+        this.donePages = new TreeSet[checkpoints.length];
+        for (int i = 0; i < donePages.length; i++) {
+            donePages[i] = new TreeSet<>();
+        }
+        this.completedLibraries = new AtomicInteger(completedLibraries);
+        this.submitted.set(completedLibraries);
+        this.processedAtStart = completedLibraries;
+        this.onCheckpoint = onCheckpoint;
+    }
+
+    /**
+     * One search result page whose libraries are in flight
+     */
+    public final class Page {
+        private final int requestIndex;
+        private final int number;
+        private final AtomicInteger outstanding = new AtomicInteger(1); // 1 = held open while libraries are submitted
+        private volatile boolean fullySubmitted;
+        private volatile int libraries;
+
+        private Page(int requestIndex, int number) {
+            this.requestIndex = requestIndex;
+            this.number = number;
+        }
+
+        public void librarySubmitted() {
+            outstanding.incrementAndGet();
+            libraries++;
+            submitted.incrementAndGet();
+        }
+
+        /**
+         * A library from this page reached a final state (saved, skipped or failed)
+         */
+        public void libraryDone() {
+            if (outstanding.decrementAndGet() == 0 && fullySubmitted) {
+                pageDone(this);
+            }
+        }
+
+        /**
+         * All libraries of the page are submitted
+         *
+         * @param complete false if the limit or a cancel cut the page short (it is then not checkpointed)
+         */
+        public void closeSubmission(boolean complete) {
+            fullySubmitted = complete;
+            libraryDone();
+        }
+    }
+
+    public Page pageFetched(int requestIndex, int pageNumber) {
+        pagesFetched.incrementAndGet();
+        return new Page(requestIndex, pageNumber);
+    }
+
+    private void pageDone(Page page) {
+        boolean advanced = false;
+        synchronized (this) {
+            pagesCompleted.incrementAndGet();
+            completedLibraries.addAndGet(page.libraries);
+            TreeSet<Integer> done = donePages[page.requestIndex];
+            done.add(page.number);
+            while (done.remove(checkpoints[page.requestIndex] + 1)) {
+                checkpoints[page.requestIndex]++;
+                advanced = true;
+            }
+        }
+        if (advanced) {
+            onCheckpoint.accept(this);
+        }
+    }
+
+    /**
+     * First page to fetch for a search request
+     */
+    public int firstPage(int requestIndex) {
+        synchronized (this) {
+            return checkpoints[requestIndex] + 1;
+        }
+    }
+
+    public synchronized int[] getCheckpoints() {
+        return checkpoints.clone();
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void detailsFetched() {
+        detailsFetched.incrementAndGet();
+    }
+
+    public void enriched() {
+        enriched.incrementAndGet();
+    }
+
+    public void saved(int count) {
+        saved.addAndGet(count);
+    }
+
+    public void failed() {
+        failed.incrementAndGet();
+    }
+
+    public void unchanged() {
+        unchanged.incrementAndGet();
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public int getCompletedLibraries() {
+        return completedLibraries.get();
+    }
+
+    public int getPagesFetched() {
+        return pagesFetched.get();
+    }
+
+    public int getPagesCompleted() {
+        return pagesCompleted.get();
+    }
+
+    public long getDetailsFetched() {
+        return detailsFetched.get();
+    }
+
+    public long getEnriched() {
+        return enriched.get();
+    }
+
+    public long getSaved() {
+        return saved.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getUnchanged() {
+        return unchanged.get();
+    }
+
+    /**
+     * Libraries that reached a final state in this run
+     */
+    public long getProcessed() {
+        return saved.get() + failed.get() + unchanged.get();
+    }
+
+    /**
+     * Counters plus throughput (libraries/sec in this run) and an ETA
+     *
+     * @param expectedLibraries Libraries expected in total (limit, or pages x page size), -1 if unknown
+     */
+    public Map<String, Object> snapshot(long expectedLibraries) {
+        double seconds = Math.max(0.001, (System.nanoTime() - startNanos) / 1_000_000_000.0);
+        long processed = getProcessed();
+        double throughput = processed / seconds;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pagesFetched", pagesFetched.get());
+        stats.put("pagesCompleted", pagesCompleted.get());
+        stats.put("submitted", submitted.get());
+        stats.put("detailsFetched", detailsFetched.get());
+        stats.put("enriched", enriched.get());
+        stats.put("saved", saved.get());
+        stats.put("failed", failed.get());
+        stats.put("unchanged", unchanged.get());
+        stats.put("checkpoints", Arrays.toString(getCheckpoints()));
+        stats.put("librariesPerSecond", Math.round(throughput * 100) / 100.0);
+
+        long remaining = expectedLibraries < 0 ? -1 : Math.max(0, expectedLibraries - processedAtStart - processed);
+        stats.put("etaSeconds", remaining < 0 || throughput == 0 ? null : Math.round(remaining / throughput));
+        return stats;
+    }
+}
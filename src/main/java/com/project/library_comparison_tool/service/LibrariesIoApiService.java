@@ -4,29 +4,37 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-//My Business logic to get the libraries through restTemplate
+//My Business logic to get the libraries through the shared UpstreamHttpClient
 
 @Service
 public class LibrariesIoApiService {
 
     private final String apiKey;
     private final String baseUrl;
-    private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final UpstreamHttpClient httpClient;
 
     public LibrariesIoApiService(
             @Value("${libraries.io.api.key:}") String apiKey,
-            @Value("${libraries.io.api.base-url:https://libraries.io/api}") String baseUrl) {
+            @Value("${libraries.io.api.base-url:https://libraries.io/api}") String baseUrl,
+            UpstreamHttpClient httpClient) {
         this.apiKey = apiKey;
         this.baseUrl = baseUrl;
-        this.restTemplate = new RestTemplate();
         this.objectMapper = new ObjectMapper();
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * True if a libraries.io API key is configured (nothing can be fetched without one)
+     */
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.trim().isEmpty();
     }
 
     /**
@@ -34,12 +42,13 @@ public class LibrariesIoApiService {
      * @param query Search term (usage - "json", "logging", "web framework")
      * @param platform Platform (usage - "Maven", "NPM", "PyPI", "Go")
      * @param page Page number (starts at 1)
-     * @return List of JsonNode objects (raw API response)
+     * @return List of JsonNode objects (raw API response), empty only when there are no more results
+     * @throws IllegalStateException if the search could not be run (no API key, rate limit, HTTP or network error),
+     *         so callers never mistake a failed page for the end of the results
      */
     public List<JsonNode> searchLibraries(String query, String platform, int page) {
         if (apiKey == null || apiKey.trim().isEmpty()) {
-            System.err.println("Libraries.io API key is not configured. Please set LIBRARIES_IO_API_KEY environment variable.");
-            return new ArrayList<>();
+            throw new IllegalStateException("Libraries.io API key is not configured. Please set LIBRARIES_IO_API_KEY environment variable.");
         }
         
         String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/search")
@@ -47,24 +56,27 @@ public class LibrariesIoApiService {
                 .queryParam("platforms", platform)
                 .queryParam("page", page)
                 .queryParam("api_key", apiKey)
+                .encode()
                 .toUriString();
 
         try {
             System.out.println("Fetching: " + url);
-            String response = restTemplate.getForObject(url, String.class);
+            String response = fetch(url);
             JsonNode rootNode = objectMapper.readTree(response);
+            if (!rootNode.isArray()) {
+                throw new IllegalStateException("unexpected search response (not a JSON array)");
+            }
 
             List<JsonNode> results = new ArrayList<>();
-            if (rootNode.isArray()) {
-                rootNode.forEach(results::add);
-            }
+            rootNode.forEach(results::add);
 
             System.out.println("Found " + results.size() + " libraries");
             return results;
 
         } catch (Exception e) {
             System.err.println("Error fetching libraries: " + e.getMessage());
-            return new ArrayList<>();
+            throw new IllegalStateException("libraries.io search failed for '" + query + "' (" + platform
+                    + ") page " + page + ": " + e.getMessage(), e);
         }
     }
 
@@ -75,23 +87,34 @@ public class LibrariesIoApiService {
      * @return JsonNode with library details
      */
     public JsonNode getLibraryDetails(String platform, String name) {
+        return fetchLibraryDetails(platform, name).getDetails();
+    }
+
+    /**
+     * Same as getLibraryDetails, but also tells whether libraries.io answered 304 (unchanged since the last fetch)
+     * @param platform Platform (Usage - "Maven", "NPM")
+     * @param name Library name
+     * @return Details (null details if the fetch failed)
+     */
+    public LibraryDetails fetchLibraryDetails(String platform, String name) {
         if (apiKey == null || apiKey.trim().isEmpty()) {
             System.err.println("Libraries.io API key is not configured. Please set LIBRARIES_IO_API_KEY environment variable.");
-            return null;
+            return new LibraryDetails(null, false);
         }
         
         String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/" + platform + "/" + name)
                 .queryParam("api_key", apiKey)
+                .encode()
                 .toUriString();
 
         try {
             System.out.println("Fetching details: " + url);
-            String response = restTemplate.getForObject(url, String.class);
-            return objectMapper.readTree(response);
+            UpstreamHttpClient.UpstreamResponse response = fetchResponse(url);
+            return new LibraryDetails(objectMapper.readTree(response.getBody()), response.isNotModified());
 
         } catch (Exception e) {
             System.err.println("Error fetching library details: " + e.getMessage());
-            return null;
+            return new LibraryDetails(null, false);
         }
     }
 
@@ -111,11 +134,12 @@ public class LibrariesIoApiService {
         String url = UriComponentsBuilder.fromHttpUrl(
                         baseUrl + "/" + platform + "/" + name + "/" + version + "/dependencies")
                 .queryParam("api_key", apiKey)
+                .encode()
                 .toUriString();
 
         try {
             System.out.println("Fetching dependencies: " + url);
-            String response = restTemplate.getForObject(url, String.class);
+            String response = fetch(url);
             return objectMapper.readTree(response);
 
         } catch (Exception e) {
@@ -123,4 +147,43 @@ public class LibrariesIoApiService {
             return null;
         }
     }
+
+    /**
+     * GET through the shared HTTP client (pooled connections, libraries.io rate limit of 60 requests/minute)
+     */
+    private String fetch(String url) {
+        return fetchResponse(url).getBody();
+    }
+
+    // Conditional GET: a refresh of unchanged data costs a 304 instead of the full JSON
+    private UpstreamHttpClient.UpstreamResponse fetchResponse(String url) {
+        UpstreamHttpClient.UpstreamResponse response = httpClient.getConditional(url, Map.of("Accept", "application/json"));
+        if (!response.isOk()) {
+            throw new IllegalStateException(response.getStatus() == 0
+                    ? response.getError()
+                    : "libraries.io returned HTTP " + response.getStatus());
+        }
+        return response;
+    }
+
+    /**
+     * libraries.io project details plus whether they are unchanged since the previous fetch
+     */
+    public static class LibraryDetails {
+        private final JsonNode details;
+        private final boolean notModified;
+
+        public LibraryDetails(JsonNode details, boolean notModified) {
+            this.details = details;
+            this.notModified = notModified;
+        }
+
+        public JsonNode getDetails() {
+            return details;
+        }
+
+        public boolean isNotModified() {
+            return notModified;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package com.project.library_comparison_tool.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.library_comparison_tool.dto.LibrarySummaryDTO;
+import com.project.library_comparison_tool.entity.Library;
+import com.project.library_comparison_tool.repository.LibraryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole catalogue as NDJSON or CSV
+ * - Rows come from a server-side cursor (fetch size 500), never a full findAll()
+ * - Works in chunks: map a chunk (its tags batch-load in one query), write it, clear the persistence context
+ * Heap use depends on the chunk size, not the catalogue size
+ */
+@Service
+public class LibraryExportService {
+
+    private static final int CHUNK_SIZE = 100; // matches the @BatchSize on Library collections
+
+    private static final String[] CSV_COLUMNS = {
+            "id", "name", "description", "categories", "language", "packageManager", "licenseType",
+            "latestVersion", "githubStars", "githubForks", "dependentProjectsCount", "lastRepositoryReleaseDate",
+            "isDeprecated", "hasSecurityVulnerabilities", "vulnerabilityCount", "homepageUrl", "repositoryUrl",
+            "tags", "overallScore", "qualityGrade", "activelyMaintained"
+    };
+
+    private final LibraryRepository libraryRepository;
+    private final ComparisonService comparisonService;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public LibraryExportService(LibraryRepository libraryRepository,
+                                ComparisonService comparisonService,
+                                ObjectMapper objectMapper) {
+        this.libraryRepository = libraryRepository;
+        this.comparisonService = comparisonService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * One LibrarySummaryDTO JSON object per line
+     *
+     * @return Number of libraries written
+     */
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long written = streamInChunks(dto -> {
+            writer.write(objectMapper.writeValueAsString(dto));
+            writer.write('\n');
+        }, writer);
+        writer.flush();
+        return written;
+    }
+
+    /**
+     * RFC 4180 CSV with a header row (tags are joined with ';')
+     *
+     * @return Number of libraries written
+     */
+    @Transactional(readOnly = true)
+    public long exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", CSV_COLUMNS));
+        writer.write("\r\n");
+
+        long written = streamInChunks(dto -> {
+            writer.write(csvRow(dto));
+            writer.write("\r\n");
+        }, writer);
+        writer.flush();
+        return written;
+    }
+
+    private long streamInChunks(RowWriter rowWriter, Writer writer) throws IOException {
+        long written = 0;
+        try (Stream<Library> rows = libraryRepository.streamAllByOrderById()) {
+            Iterator<Library> iterator = rows.iterator();
+            List<Library> chunk = new ArrayList<>(CHUNK_SIZE);
+
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    for (LibrarySummaryDTO dto : LibrarySummaryDTO.fromEntities(chunk, comparisonService)) {
+                        rowWriter.write(dto);
+                    }
+                    written += chunk.size();
+                    chunk.clear();
+
+                    // Drop the written entities so the persistence context doesn't grow with the catalogue
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        return written;
+    }
+
+    private String csvRow(LibrarySummaryDTO dto) {
+        Object[] values = {
+                dto.getId(), dto.getName(), dto.getDescription(), dto.getCategories(), dto.getLanguage(),
+                dto.getPackageManager(), dto.getLicenseType(), dto.getLatestVersion(), dto.getGithubStars(),
+                dto.getGithubForks(), dto.getDependentProjectsCount(), dto.getLastRepositoryReleaseDate(),
+                dto.getIsDeprecated(), dto.getHasSecurityVulnerabilities(), dto.getVulnerabilityCount(),
+                dto.getHomepageUrl(), dto.getRepositoryUrl(),
+                dto.getTags() != null ? String.join(";", dto.getTags()) : null,
+                dto.getOverallScore(), dto.getQualityGrade(), dto.getActivelyMaintained()
+        };
+
+        StringBuilder row = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            row.append(csvField(values[i]));
+        }
+        return row.toString();
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(LibrarySummaryDTO dto) throws IOException;
+    }
+}
@@ -0,0 +1,115 @@
+package com.project.library_comparison_tool.service;
+
+import com.project.library_comparison_tool.dto.AdvancedSearchDTO;
+import com.project.library_comparison_tool.dto.SearchFacetsDTO;
+import com.project.library_comparison_tool.repository.LibraryRepository;
+import com.project.library_comparison_tool.repository.LibrarySpecification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Facet counts (category, platform, grade, deprecated, vulnerable) for advanced search
+ * - Computed in one pass over the in-memory search index, or with grouped SQL when the index cannot answer
+ *   the search (still loading, or a keyword query the index does not handle like the database)
+ * - Cached per normalized AdvancedSearchDTO; the catalogue version is part of the key,
+ *   so any committed library write makes older entries unreachable (they age out by LRU / TTL)
+ */
+@Service
+public class LibraryFacetService {
+
+    private final LibraryRepository libraryRepository;
+    private final LibrarySearchIndex searchIndex;
+    private final BoundedTtlCache<String, SearchFacetsDTO> cache;
+
+    public LibraryFacetService(LibraryRepository libraryRepository,
+                               LibrarySearchIndex searchIndex,
+                               @Value("${app.search.facets.cache-size:500}") int cacheSize,
+                               @Value("${app.search.cache.ttl-seconds:300}") long cacheTtlSeconds) {
+        this.libraryRepository = libraryRepository;
+        this.searchIndex = searchIndex;
+        this.cache = new BoundedTtlCache<>("search-facets", cacheSize, Duration.ofSeconds(cacheTtlSeconds));
+    }
+
+    /**
+     * Facet counts for the given criteria (sortBy is ignored)
+     */
+    public SearchFacetsDTO getFacets(AdvancedSearchDTO criteria) {
+        String key = searchIndex.getVersion() + "#" + criteria.toCacheKey(false);
+        return cache.getOrLoad(key, () -> searchIndex.canAnswer(criteria)
+                ? searchIndex.facets(criteria)
+                : queryFacets(criteria));
+    }
+
+    public Map<String, Object> getCacheStats() {
+        return cache.getStats();
+    }
+
+    // Grouped SQL fallback - two queries: categories (join on library_category, own filter dropped) and one
+    // GROUP BY over the set filtered by everything but platforms and grades; the platform and grade facets,
+    // total, deprecated and vulnerable counts are all summed from those groups
+    private SearchFacetsDTO queryFacets(AdvancedSearchDTO criteria) {
+        Map<String, Long> categories = new LinkedHashMap<>();
+        libraryRepository.countByCategory(LibrarySpecification.withAdvancedSearch(
+                criteria.toBuilder().categories(null).build()
+        )).forEach((category, count) -> categories.put(category.getDisplayName(), count));
+
+        Map<List<Object>, Long> groups = libraryRepository.countByAttributes(LibrarySpecification.withAdvancedSearch(
+                criteria.toBuilder().platforms(null).includeGrades(null).build()),
+                List.of("packageManager", "qualityGrade", "isDeprecated", "hasSecurityVulnerabilities"));
+
+        Map<String, Long> platforms = new HashMap<>();
+        Map<String, Long> grades = new TreeMap<>();
+        long total = 0;
+        long deprecated = 0;
+        long vulnerable = 0;
+        for (Map.Entry<List<Object>, Long> group : groups.entrySet()) {
+            String platform = (String) group.getKey().get(0);
+            String grade = (String) group.getKey().get(1);
+            long count = group.getValue();
+            boolean platformMatches = matches(criteria.getPlatforms(), platform);
+            boolean gradeMatches = matches(criteria.getIncludeGrades(), grade);
+
+            // Each facet keeps the other filter, like the index does
+            if (gradeMatches && platform != null) {
+                platforms.merge(platform, count, Long::sum);
+            }
+            if (platformMatches && grade != null) {
+                grades.merge(grade, count, Long::sum);
+            }
+            if (platformMatches && gradeMatches) {
+                total += count;
+                deprecated += Boolean.TRUE.equals(group.getKey().get(2)) ? count : 0;
+                vulnerable += Boolean.TRUE.equals(group.getKey().get(3)) ? count : 0;
+            }
+        }
+
+        return SearchFacetsDTO.builder()
+                .categories(categories)
+                .platforms(byCountDescending(platforms))
+                .grades(new LinkedHashMap<>(grades))
+                .deprecated(deprecated)
+                .withVulnerabilities(vulnerable)
+                .total(total)
+                .build();
+    }
+
+    // Same semantics as the SQL IN filter: no filter matches everything, NULL matches nothing
+    private static boolean matches(List<String> filter, String value) {
+        return filter == null || filter.isEmpty() || (value != null && filter.contains(value));
+    }
+
+    private static Map<String, Long> byCountDescending(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
@@ -0,0 +1,397 @@
+package com.project.library_comparison_tool.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.project.library_comparison_tool.dto.LibraryIOMapperDTO;
+import com.project.library_comparison_tool.entity.Library;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Staged, concurrent libraries.io ingestion
+ *
+ *   page fetch  ->  detail fetch  ->  enrichment  ->  batched persistence
+ *   (caller)       (libraries.io      (GitHub,          (single writer: one OSV querybatch
+ *                   pool)              registries pool)  and one transaction per batch)
+ *
+ * Stages are connected by bounded queues; a full queue blocks the stage feeding it (backpressure),
+ * so memory stays bounded however many pages are requested.
+ *
+ * Detail fetches are conditional: a library libraries.io reports as unchanged (304) that is
+ * already stored skips mapping, enrichment and persistence entirely.
+ *
+ * Progress, cancellation and page checkpoints are reported through IngestionProgress (see IngestionJobService).
+ */
+@Service
+public class LibraryIngestionPipeline {
+
+    private final LibrariesIoApiService apiService;
+    private final LibraryIOMapperDTO mapper;
+    private final LibraryService libraryService;
+    private final SecurityVulnerabilityService securityVulnerabilityService;
+    private final OsvBatchScanner osvBatchScanner;
+
+    private final int librariesIoConcurrency;
+    private final int enrichmentConcurrency;
+    private final int queueCapacity;
+    private final int persistBatchSize;
+    private final boolean batchOsv;
+
+    public LibraryIngestionPipeline(LibrariesIoApiService apiService,
+                                    LibraryIOMapperDTO mapper,
+                                    LibraryService libraryService,
+                                    SecurityVulnerabilityService securityVulnerabilityService,
+                                    OsvBatchScanner osvBatchScanner,
+                                    @Value("${app.ingestion.librariesio-concurrency:2}") int librariesIoConcurrency,
+                                    @Value("${app.ingestion.enrichment-concurrency:8}") int enrichmentConcurrency,
+                                    @Value("${app.ingestion.queue-capacity:64}") int queueCapacity,
+                                    @Value("${app.ingestion.persist-batch-size:25}") int persistBatchSize,
+                                    @Value("${app.ingestion.batch-osv:true}") boolean batchOsv) {
+        this.apiService = apiService;
+        this.mapper = mapper;
+        this.libraryService = libraryService;
+        this.securityVulnerabilityService = securityVulnerabilityService;
+        this.osvBatchScanner = osvBatchScanner;
+        this.librariesIoConcurrency = Math.max(1, librariesIoConcurrency);
+        this.enrichmentConcurrency = Math.max(1, enrichmentConcurrency);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.persistBatchSize = Math.max(1, persistBatchSize);
+        this.batchOsv = batchOsv;
+    }
+
+    // Hand-off from enrichment to the writer
+    private static final class EnrichedLibrary {
+        private final Library library;
+        private final boolean osvPending;
+        private final IngestionProgress.Page page;
+
+        private EnrichedLibrary(Library library, boolean osvPending, IngestionProgress.Page page) {
+            this.library = library;
+            this.osvPending = osvPending;
+            this.page = page;
+        }
+    }
+
+    /**
+     * One libraries.io search to ingest
+     */
+    public static class SearchRequest {
+        private final String query;
+        private final String platform;
+        private final int maxPages;
+
+        public SearchRequest(String query, String platform, int maxPages) {
+            this.query = query;
+            this.platform = platform;
+            this.maxPages = maxPages;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public String getPlatform() {
+            return platform;
+        }
+
+        public int getMaxPages() {
+            return maxPages;
+        }
+    }
+
+    /**
+     * Run the searches through the pipeline and wait until everything is persisted
+     *
+     * @param requests Searches to run (their pages overlap with enrichment of earlier results)
+     * @param limit Maximum number of search results to submit (-1 for unlimited). A cap on submissions,
+     *              not on saved rows: results that turn out unchanged, fail or lack details still count,
+     *              so fewer than limit libraries may be saved
+     * @return Number of libraries saved
+     */
+    public int run(List<SearchRequest> requests, int limit) {
+        return (int) run(requests, limit, new IngestionProgress(requests.size())).getSaved();
+    }
+
+    /**
+     * Same as run(requests, limit), reporting into the given progress
+     * Starts each search after its checkpointed page and stops submitting once the progress is cancelled
+     * (libraries already in flight are still finished and saved)
+     *
+     * @return The progress, with final counters
+     * @throws IllegalStateException if a search page could not be fetched (after the in-flight libraries are saved)
+     */
+    public IngestionProgress run(List<SearchRequest> requests, int limit, IngestionProgress progress) {
+        long start = System.currentTimeMillis();
+
+        ThreadPoolExecutor detailPool = boundedPool("ingest-librariesio", librariesIoConcurrency);
+        ThreadPoolExecutor enrichmentPool = boundedPool("ingest-enrich", enrichmentConcurrency);
+        BlockingQueue<EnrichedLibrary> persistQueue = new ArrayBlockingQueue<>(queueCapacity);
+
+        AtomicBoolean upstreamDone = new AtomicBoolean(false);
+
+        Thread writer = new Thread(() -> persistLoop(persistQueue, upstreamDone, progress), "ingest-persist");
+        writer.start();
+
+        try {
+            requestLoop:
+            for (int requestIndex = 0; requestIndex < requests.size(); requestIndex++) {
+                SearchRequest request = requests.get(requestIndex);
+                for (int page = progress.firstPage(requestIndex); page <= request.maxPages; page++) {
+                    if (progress.isCancelled()) {
+                        System.out.println("\n⏹️  [ingest] Cancelled. Finishing libraries already in flight.");
+                        break requestLoop;
+                    }
+                    System.out.println("\n📄 [ingest] Fetching page " + page + " of '" + request.query + "' (" + request.platform + ")...");
+
+                    // STEP 1: Fetch search results (libraries.io calls are paced by UpstreamRateLimiter)
+                    // A failed search throws: the in-flight libraries are still finished below, the failed page is
+                    // never checkpointed and the exception reaches the caller (a job then ends FAILED, resumable)
+                    List<JsonNode> apiResults = apiService.searchLibraries(request.query, request.platform, page);
+                    if (apiResults.isEmpty()) {
+                        System.out.println("[ingest] No more results for '" + request.query + "'.");
+                        break;
+                    }
+
+                    // STEP 2..4 happen on the stage pools
+                    IngestionProgress.Page progressPage = progress.pageFetched(requestIndex, page);
+                    boolean pageComplete = false;
+                    try {
+                        for (JsonNode apiResult : apiResults) {
+                            // Submission cap: checked before the outcome of in-flight libraries is known
+                            if (limit != -1 && progress.getSubmitted() >= limit) {
+                                System.out.println("\n⏹️  [ingest] Limit reached (" + limit + " libraries submitted). Stopping.");
+                                break requestLoop;
+                            }
+                            if (progress.isCancelled()) {
+                                break requestLoop;
+                            }
+                            progressPage.librarySubmitted();
+                            try {
+                                detailPool.execute(() -> fetchDetails(apiResult, request.query, enrichmentPool, persistQueue, progress, progressPage));
+                            } catch (RejectedExecutionException e) {
+                                progressPage.libraryDone();
+                                throw e;
+                            }
+                        }
+                        pageComplete = true;
+                    } finally {
+                        progressPage.closeSubmission(pageComplete);
+                    }
+                }
+            }
+        } catch (RejectedExecutionException e) {
+            // Shut-down pool or interrupted submitter - the handler's message says which
+            System.err.println("[ingest] Stopped submitting (" + e.getMessage() + ") - finishing libraries already in flight");
+        } finally {
+            // Drain the stages in order so every accepted library reaches the writer
+            awaitDrained(detailPool);
+            awaitDrained(enrichmentPool);
+            upstreamDone.set(true);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        System.out.println("\n✅ [ingest] Saved " + progress.getSaved() + " of " + progress.getSubmitted() + " libraries ("
+                + progress.getFailed() + " failed, " + progress.getUnchanged() + " unchanged) in "
+                + (System.currentTimeMillis() - start) / 1000 + "s");
+        return progress;
+    }
+
+    // STEP 2: libraries.io detail fetch (has dependent_repos_count)
+    private void fetchDetails(JsonNode apiResult, String query, ThreadPoolExecutor enrichmentPool,
+                              BlockingQueue<EnrichedLibrary> persistQueue, IngestionProgress progress,
+                              IngestionProgress.Page page) {
+        String name = apiResult.path("name").asText(null);
+        String platform = apiResult.path("platform").asText(null);
+        boolean handedOff = false;
+        try {
+            if (name == null || platform == null) {
+                return;
+            }
+
+            JsonNode detailedInfo = null;
+            try {
+                LibrariesIoApiService.LibraryDetails fetched = apiService.fetchLibraryDetails(platform, name);
+                // 304 for a library we already have - nothing to re-map or re-enrich
+                if (fetched.isNotModified() && libraryService.libraryExists(name)) {
+                    progress.unchanged();
+                    System.out.println("  ⏭️  [ingest] Unchanged upstream: " + name);
+                    return;
+                }
+                detailedInfo = fetched.getDetails();
+            } catch (Exception e) {
+                System.err.println("  ⚠ [ingest] Error fetching details for " + name + " (continuing anyway): " + e.getMessage());
+            }
+
+            progress.detailsFetched();
+
+            JsonNode details = detailedInfo;
+            enrichmentPool.execute(() -> enrich(apiResult, details, query, persistQueue, progress, page));
+            handedOff = true;
+        } catch (RejectedExecutionException e) {
+            System.err.println("  ⚠ [ingest] Not enriched " + name + ": " + e.getMessage());
+        } finally {
+            // Every exit except the hand-off finishes the library here, or its page would never checkpoint
+            if (!handedOff) {
+                page.libraryDone();
+            }
+        }
+    }
+
+    // STEP 3: map + enrich (categories, GitHub, OSV, deprecation, README...)
+    private void enrich(JsonNode apiResult, JsonNode detailedInfo, String query,
+                        BlockingQueue<EnrichedLibrary> persistQueue, IngestionProgress progress,
+                        IngestionProgress.Page page) {
+        boolean queued = false;
+        try {
+            Library library = mapper.mapToLibrary(apiResult, query);
+            if (library == null || library.getName() == null) {
+                return;
+            }
+
+            // OSV is left to the writer's querybatch unless this library's result is already cached
+            boolean osvPending = false;
+            if (detailedInfo != null) {
+                osvPending = batchOsv && !securityVulnerabilityService.hasCachedVulnerabilities(library);
+                library = mapper.enrichWithDetailedInfo(library, detailedInfo, osvPending);
+            } else {
+                System.out.println("  ⚠ [ingest] Loaded without details: " + library.getName());
+            }
+
+            System.out.println("  📦 [ingest] Enriched " + library.getName() + " (" + library.getPackageManager() + ")"
+                    + " - categories: " + (library.getCategories() != null ? library.getCategories() : "N/A")
+                    + ", vulnerabilities: " + (library.getVulnerabilities() != null ? library.getVulnerabilities().size() : 0));
+
+            progress.enriched();
+            persistQueue.put(new EnrichedLibrary(library, osvPending, page));
+            queued = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            progress.failed();
+            System.err.println("  ✗ [ingest] Error enriching library: " + e.getMessage());
+        } finally {
+            if (!queued) {
+                page.libraryDone();
+            }
+        }
+    }
+
+    // STEP 4: single writer - one transaction per batch instead of one per library
+    private void persistLoop(BlockingQueue<EnrichedLibrary> persistQueue, AtomicBoolean upstreamDone,
+                             IngestionProgress progress) {
+        List<EnrichedLibrary> batch = new ArrayList<>(persistBatchSize);
+        while (true) {
+            EnrichedLibrary next;
+            try {
+                next = persistQueue.poll(250, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                next = null;
+            }
+
+            if (next != null) {
+                batch.add(next);
+            }
+
+            // Flush when the batch is full or the queue went quiet
+            if (batch.size() >= persistBatchSize || (next == null && !batch.isEmpty())) {
+                flush(batch, progress);
+                batch.clear();
+            }
+
+            if (next == null && upstreamDone.get() && persistQueue.isEmpty()) {
+                break;
+            }
+        }
+    }
+
+    private void flush(List<EnrichedLibrary> enriched, IngestionProgress progress) {
+        List<Library> batch = new ArrayList<>(enriched.size());
+        List<Library> osvPending = new ArrayList<>();
+        for (EnrichedLibrary entry : enriched) {
+            batch.add(entry.library);
+            if (entry.osvPending) {
+                osvPending.add(entry.library);
+            }
+        }
+        // One OSV querybatch for the whole batch instead of one /v1/query per library
+        osvBatchScanner.scanAndStore(osvPending, "ingest");
+
+        try {
+            libraryService.addOrUpdateLibraries(batch);
+            progress.saved(batch.size());
+            System.out.println("  💾 [ingest] Saved batch of " + batch.size() + " libraries");
+        } catch (Exception batchError) {
+            // One bad row rolls back the batch - retry individually so the rest still land
+            // (with id-free copies: the rolled-back flush already assigned sequence ids to the new rows)
+            System.err.println("  ⚠ [ingest] Batch save failed, retrying one by one: " + batchError.getMessage());
+            for (Library library : batch) {
+                try {
+                    libraryService.addOrUpdateLibrary(library.copyWithoutIds());
+                    progress.saved(1);
+                } catch (Exception e) {
+                    progress.failed();
+                    System.err.println("  ✗ [ingest] Error saving " + library.getName() + ": " + e.getMessage());
+                }
+            }
+        }
+
+        // Only now are these libraries durable - their pages may be checkpointed
+        enriched.forEach(entry -> entry.page.libraryDone());
+    }
+
+    /**
+     * Fixed-size pool whose submit blocks while its bounded queue is full
+     */
+    private ThreadPoolExecutor boundedPool(String name, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        RejectedExecutionHandler blockWhenFull = (runnable, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException(name + " pool is shut down");
+            }
+            try {
+                executor.getQueue().put(runnable);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while queueing work for " + name, e);
+            }
+        };
+
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, blockWhenFull);
+    }
+
+    private void awaitDrained(ThreadPoolExecutor pool) {
+        pool.shutdown();
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                System.out.println("[ingest] Waiting for " + pool.getActiveCount() + " active / "
+                        + pool.getQueue().size() + " queued tasks...");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pool.shutdownNow();
+        }
+    }
+}
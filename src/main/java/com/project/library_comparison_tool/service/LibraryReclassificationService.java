@@ -0,0 +1,322 @@
+package com.project.library_comparison_tool.service;
+
+import com.project.library_comparison_tool.entity.Library;
+import com.project.library_comparison_tool.repository.LibraryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-derives the computed fields of every stored library from its stored raw data (no upstream calls)
+ *
+ * Covers categories, framework, runtime, supported OS, cost and the generated use case, so a change to the
+ * classification rules or to the derivation services reaches the whole catalogue without a re-ingest.
+ * Categories need the registry keywords stored at ingestion; rows without them (curated seeds, rows ingested
+ * before keywords were kept) keep their categories and get every other field re-derived ("partial" in the status).
+ * Ids are walked in keyset pages, each page is split into chunks on a fork-join pool, and each chunk saves only
+ * the rows whose derived fields actually changed.
+ */
+@Service
+public class LibraryReclassificationService {
+
+    private final LibraryRepository libraryRepository;
+    private final CategoryService categoryService;
+    private final FrameworkService frameworkService;
+    private final RuntimeEnvironmentService runtimeEnvironmentService;
+    private final OperatingSystemService operatingSystemService;
+    private final LicenseService licenseService;
+    private final ClassificationRuleEngine ruleEngine;
+    private final LibraryRescoringService rescoringService;
+    private final LibrarySearchIndex searchIndex;
+    private final UseCaseService useCaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int threads;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    // Runs are started from the API and coordinated on this thread; chunks go to the fork-join pool
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reclassify");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile Counters current;
+    private volatile LocalDateTime startedAt;
+    private volatile Map<String, Object> lastRun;
+
+    public LibraryReclassificationService(LibraryRepository libraryRepository,
+                                          CategoryService categoryService,
+                                          FrameworkService frameworkService,
+                                          RuntimeEnvironmentService runtimeEnvironmentService,
+                                          OperatingSystemService operatingSystemService,
+                                          LicenseService licenseService,
+                                          ClassificationRuleEngine ruleEngine,
+                                          LibraryRescoringService rescoringService,
+                                          LibrarySearchIndex searchIndex,
+                                          UseCaseService useCaseService,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${app.rules.reclassify-threads:4}") int threads,
+                                          @Value("${app.rules.reclassify-chunk-size:500}") int chunkSize) {
+        this.libraryRepository = libraryRepository;
+        this.categoryService = categoryService;
+        this.frameworkService = frameworkService;
+        this.runtimeEnvironmentService = runtimeEnvironmentService;
+        this.operatingSystemService = operatingSystemService;
+        this.licenseService = licenseService;
+        this.ruleEngine = ruleEngine;
+        this.rescoringService = rescoringService;
+        this.searchIndex = searchIndex;
+        this.useCaseService = useCaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.threads = Math.max(1, threads);
+        this.chunkSize = Math.max(1, chunkSize);
+
+        this.pool = new ForkJoinPool(this.threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("reclassify-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Start re-deriving the whole catalogue in the background with the rules currently loaded
+     *
+     * @return false if a run is already in progress
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        current = new Counters();
+        startedAt = LocalDateTime.now();
+        coordinator.submit(() -> {
+            try {
+                lastRun = run(current);
+            } catch (RuntimeException e) {
+                System.err.println("[reclassify] ❌ Run failed: " + e.getMessage());
+                Map<String, Object> failed = current.toMap();
+                failed.put("error", e.getMessage());
+                lastRun = failed;
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Live counters of the current run (if any) and the result of the last finished one
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("threads", threads);
+        status.put("chunkSize", chunkSize);
+        if (running.get() && current != null) {
+            Map<String, Object> progress = current.toMap();
+            progress.put("startedAt", startedAt.toString());
+            status.put("current", progress);
+        }
+        status.put("lastRun", lastRun);
+        return status;
+    }
+
+    private Map<String, Object> run(Counters counters) {
+        long started = System.currentTimeMillis();
+        String rulesVersion = ruleEngine.getVersion();
+        System.out.println("[reclassify] 🔄 Re-deriving catalogue with rules " + rulesVersion
+                + " (" + threads + " threads, chunks of " + chunkSize + ")");
+
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = libraryRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize * threads));
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            // Failures in a chunk surface here and end the run; chunks already committed stay committed
+            pool.invoke(new ChunkTask(ids, counters));
+        }
+
+        Map<String, Object> result = counters.toMap();
+        result.put("rulesVersion", rulesVersion);
+        result.put("startedAt", startedAt.toString());
+        result.put("durationMs", System.currentTimeMillis() - started);
+        System.out.println("[reclassify] ✅ Done: " + result);
+        return result;
+    }
+
+    /**
+     * Halves the id page until it is one chunk; leaves never fork or join, so a worker thread never picks up
+     * another chunk while it holds a transaction
+     */
+    private final class ChunkTask extends RecursiveAction {
+        private final List<Long> ids;
+        private final Counters counters;
+
+        ChunkTask(List<Long> ids, Counters counters) {
+            this.ids = ids;
+            this.counters = counters;
+        }
+
+        @Override
+        protected void compute() {
+            if (ids.size() <= chunkSize) {
+                reclassifyChunk(ids, counters);
+                return;
+            }
+            int middle = ids.size() / 2;
+            invokeAll(new ChunkTask(ids.subList(0, middle), counters),
+                    new ChunkTask(ids.subList(middle, ids.size()), counters));
+        }
+    }
+
+    private void reclassifyChunk(List<Long> ids, Counters counters) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Library> changed = new ArrayList<>();
+            for (Library library : libraryRepository.findAllById(ids)) {
+                counters.scanned.incrementAndGet();
+                if (library.getRegistryKeywords() == null) {
+                    counters.partial.incrementAndGet();
+                }
+                if (reclassify(library, counters)) {
+                    rescoringService.rescoreIfChanged(library);
+                    changed.add(library);
+                }
+            }
+            if (!changed.isEmpty()) {
+                libraryRepository.saveAll(changed);
+                searchIndex.indexAfterCommit(changed);
+                counters.changed.addAndGet(changed.size());
+            }
+        });
+    }
+
+    /**
+     * Recompute the rule-derived fields, setting only the ones that differ (so unchanged rows stay clean)
+     * Without registry keywords the categories are kept as stored (the use case is generated from those)
+     *
+     * @return true if any field changed
+     */
+    private boolean reclassify(Library library, Counters counters) {
+        boolean changed = false;
+
+        String categories = library.getCategories();
+        if (library.getRegistryKeywords() != null) {
+            List<String> keywords = library.getRegistryKeywords().isEmpty()
+                    ? List.of()
+                    : Arrays.asList(library.getRegistryKeywords().split(","));
+            categories = CategoryService.toCategoriesString(categoryService.classify(
+                    library.getName(),
+                    library.getDescription(),
+                    keywords,
+                    library.getLanguage(),
+                    library.getPackageManager()));
+            if (!categories.equals(library.getCategories())) {
+                library.setCategories(categories);
+                library.syncCategoryCodes();
+                counters.categories.incrementAndGet();
+                changed = true;
+            }
+        }
+
+        String framework = frameworkService.inferFramework(library.getName(), library.getLanguage());
+        if (!Objects.equals(framework, library.getFramework())) {
+            library.setFramework(framework);
+            counters.framework.incrementAndGet();
+            changed = true;
+        }
+
+        String runtime = runtimeEnvironmentService.inferRuntimeEnvironment(library.getLanguage(), framework);
+        if (!Objects.equals(runtime, library.getRuntimeEnvironment())) {
+            library.setRuntimeEnvironment(runtime);
+            counters.runtime.incrementAndGet();
+            changed = true;
+        }
+
+        // Compare as plain lists: a loaded element collection only equals itself
+        List<String> supportedOs = operatingSystemService.inferSupportedOs(
+                library.getLanguage(), library.getPackageManager(), library.getName());
+        if (library.getSupportedOs() == null || !new ArrayList<>(library.getSupportedOs()).equals(supportedOs)) {
+            library.setSupportedOs(supportedOs);
+            counters.supportedOs.incrementAndGet();
+            changed = true;
+        }
+
+        String cost = licenseService.determineCost(library.getLicenseType());
+        if (!Objects.equals(cost, library.getCost())) {
+            library.setCost(cost);
+            counters.cost.incrementAndGet();
+            changed = true;
+        }
+
+        // README-derived use cases are left alone; older rows without the flag only get one if theirs is empty
+        boolean generatedUseCase = Boolean.FALSE.equals(library.getUseCaseFromReadme())
+                || (library.getUseCaseFromReadme() == null
+                    && (library.getUseCase() == null || library.getUseCase().isEmpty()));
+        if (generatedUseCase) {
+            String useCase = useCaseService.generateUseCase(
+                    library.getName(), library.getDescription(), categories, library.getLanguage());
+            if (!Objects.equals(useCase, library.getUseCase())) {
+                library.setUseCase(useCase);
+                library.setUseCaseFromReadme(false);
+                counters.useCase.incrementAndGet();
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    private static final class Counters {
+        final AtomicLong scanned = new AtomicLong();
+        final AtomicLong partial = new AtomicLong();   // no registry keywords: everything but categories
+        final AtomicLong changed = new AtomicLong();
+        final AtomicLong categories = new AtomicLong();
+        final AtomicLong framework = new AtomicLong();
+        final AtomicLong runtime = new AtomicLong();
+        final AtomicLong supportedOs = new AtomicLong();
+        final AtomicLong cost = new AtomicLong();
+        final AtomicLong useCase = new AtomicLong();
+
+        Map<String, Object> toMap() {
+            Map<String, Object> changes = new LinkedHashMap<>();
+            changes.put("categories", categories.get());
+            changes.put("framework", framework.get());
+            changes.put("runtimeEnvironment", runtime.get());
+            changes.put("supportedOs", supportedOs.get());
+            changes.put("cost", cost.get());
+            changes.put("useCase", useCase.get());
+
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("scanned", scanned.get());
+            map.put("partial", partial.get());
+            map.put("changed", changed.get());
+            map.put("fieldChanges", changes);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.project.library_comparison_tool.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.library_comparison_tool.dto.LibraryIOMapperDTO;
+import com.project.library_comparison_tool.entity.Library;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-runs mapping and enrichment for every libraries.io project stored in UpstreamPayloadStore
+ *
+ * Only runs while the store is in replay or offline mode. The job works inside UpstreamPayloadStore.inReplayScope, so
+ * its enrichment calls (OSV, registries, GitHub) are answered from the store as well and a full re-map costs disk reads
+ * instead of rate-limited upstream calls; schedulers and ingestion running meanwhile keep using the network.
+ * Use it after changing LibraryIOMapperDTO or the services it calls, or to benchmark them offline.
+ *
+ * OSV goes through the same per-batch querybatch as ingestion (app.ingestion.batch-osv), so replay asks for
+ * exactly the OSV answers recording stored.
+ */
+@Service
+public class LibraryReplayService {
+
+    private static final String LIBRARIES_IO_HOST = "libraries.io";
+
+    private final UpstreamPayloadStore payloadStore;
+    private final LibraryIOMapperDTO mapper;
+    private final LibraryService libraryService;
+    private final SecurityVulnerabilityService securityVulnerabilityService;
+    private final OsvBatchScanner osvBatchScanner;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int threads;
+    private final int pageSize;
+    private final boolean batchOsv;
+    private final ExecutorService workers;
+
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payload-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile Counters current;
+    private volatile Map<String, Object> lastRun;
+
+    public LibraryReplayService(UpstreamPayloadStore payloadStore,
+                                LibraryIOMapperDTO mapper,
+                                LibraryService libraryService,
+                                SecurityVulnerabilityService securityVulnerabilityService,
+                                OsvBatchScanner osvBatchScanner,
+                                @Value("${app.payloads.replay-threads:4}") int threads,
+                                @Value("${app.payloads.replay-page-size:200}") int pageSize,
+                                @Value("${app.ingestion.batch-osv:true}") boolean batchOsv) {
+        this.payloadStore = payloadStore;
+        this.mapper = mapper;
+        this.libraryService = libraryService;
+        this.securityVulnerabilityService = securityVulnerabilityService;
+        this.osvBatchScanner = osvBatchScanner;
+        this.threads = Math.max(1, threads);
+        this.pageSize = Math.max(1, pageSize);
+        this.batchOsv = batchOsv;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "payload-replay-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start re-mapping the stored libraries.io projects in the background
+     *
+     * @return false if a replay is already running
+     * @throws IllegalStateException if the payload store is not in replay or offline mode
+     */
+    public boolean start() {
+        UpstreamPayloadStore.Mode mode = payloadStore.getMode();
+        if (mode != UpstreamPayloadStore.Mode.REPLAY && mode != UpstreamPayloadStore.Mode.OFFLINE) {
+            throw new IllegalStateException("Payload store is in " + mode.name().toLowerCase()
+                    + " mode - switch it to replay or offline first, or enrichment would call upstream");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        current = new Counters();
+        coordinator.submit(() -> {
+            try {
+                lastRun = UpstreamPayloadStore.inReplayScope(() -> run(current));
+            } catch (RuntimeException e) {
+                System.err.println("[replay] ❌ Replay failed: " + e.getMessage());
+                Map<String, Object> failed = current.toMap();
+                failed.put("error", e.getMessage());
+                lastRun = failed;
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("mode", payloadStore.getMode().name().toLowerCase());
+        if (running.get() && current != null) {
+            status.put("current", current.toMap());
+        }
+        status.put("lastRun", lastRun);
+        return status;
+    }
+
+    private Map<String, Object> run(Counters counters) {
+        long started = System.currentTimeMillis();
+        System.out.println("[replay] 🔁 Re-mapping stored libraries.io projects (" + threads + " threads)");
+
+        String afterKey = "";
+        while (true) {
+            List<UpstreamPayloadStore.StoredResponse> page = payloadStore.page(LIBRARIES_IO_HOST, afterKey, pageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            afterKey = page.get(page.size() - 1).getRequestKey();
+
+            List<Callable<Remapped>> tasks = new ArrayList<>(page.size());
+            for (UpstreamPayloadStore.StoredResponse response : page) {
+                tasks.add(() -> UpstreamPayloadStore.inReplayScope(() -> remap(response, counters)));
+            }
+
+            List<Library> batch = new ArrayList<>();
+            List<Library> osvPending = new ArrayList<>();
+            try {
+                for (Future<Remapped> future : workers.invokeAll(tasks)) {
+                    Remapped remapped = future.get();
+                    if (remapped != null) {
+                        batch.add(remapped.library);
+                        if (remapped.osvPending) {
+                            osvPending.add(remapped.library);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Replay was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Replay failed: " + e.getCause().getMessage(), e.getCause());
+            }
+            osvBatchScanner.scanAndStore(osvPending, "replay");
+            save(batch, counters);
+        }
+
+        Map<String, Object> result = counters.toMap();
+        result.put("finishedAt", LocalDateTime.now().toString());
+        result.put("durationMs", System.currentTimeMillis() - started);
+        System.out.println("[replay] ✅ Done: " + result);
+        return result;
+    }
+
+    // Search pages and dependency lists are stored for the same host; only project details are re-mapped
+    private Remapped remap(UpstreamPayloadStore.StoredResponse response, Counters counters) {
+        counters.payloads.incrementAndGet();
+        try {
+            JsonNode details = objectMapper.readTree(response.getBody());
+            if (!details.isObject() || !details.hasNonNull("name") || !details.hasNonNull("platform")
+                    || details.has("dependencies")) {
+                counters.skipped.incrementAndGet();
+                return null;
+            }
+
+            Library library = mapper.mapToLibrary(details, null);
+            if (library == null || library.getName() == null) {
+                counters.skipped.incrementAndGet();
+                return null;
+            }
+            // Like ingestion: OSV is left to the page's querybatch unless the result is already cached
+            boolean osvPending = batchOsv && !securityVulnerabilityService.hasCachedVulnerabilities(library);
+            library = mapper.enrichWithDetailedInfo(library, details, osvPending);
+            counters.mapped.incrementAndGet();
+            return new Remapped(library, osvPending);
+
+        } catch (Exception e) {
+            counters.failed.incrementAndGet();
+            System.err.println("[replay] ✗ Could not re-map " + response.getUrl() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void save(List<Library> batch, Counters counters) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            libraryService.addOrUpdateLibraries(batch);
+            counters.saved.addAndGet(batch.size());
+        } catch (Exception batchError) {
+            // One bad row rolls back the batch - retry individually (id-free copies, see Library.copyWithoutIds)
+            System.err.println("[replay] ⚠ Batch save failed, retrying one by one: " + batchError.getMessage());
+            for (Library library : batch) {
+                try {
+                    libraryService.addOrUpdateLibrary(library.copyWithoutIds());
+                    counters.saved.incrementAndGet();
+                } catch (Exception e) {
+                    counters.failed.incrementAndGet();
+                    System.err.println("[replay] ✗ Error saving " + library.getName() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static final class Remapped {
+        private final Library library;
+        private final boolean osvPending;
+
+        private Remapped(Library library, boolean osvPending) {
+            this.library = library;
+            this.osvPending = osvPending;
+        }
+    }
+
+    private static final class Counters {
+        final AtomicLong payloads = new AtomicLong();
+        final AtomicLong mapped = new AtomicLong();
+        final AtomicLong saved = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final long startedAt = System.currentTimeMillis();
+
+        Map<String, Object> toMap() {
+            long elapsed = Math.max(1, System.currentTimeMillis() - startedAt);
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("payloads", payloads.get());
+            map.put("mapped", mapped.get());
+            map.put("saved", saved.get());
+            map.put("skipped", skipped.get());
+            map.put("failed", failed.get());
+            map.put("librariesPerSecond", Math.round(mapped.get() * 1000.0 / elapsed));
+            return map;
+        }
+    }
+}
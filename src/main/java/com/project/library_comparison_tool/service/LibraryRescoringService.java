@@ -0,0 +1,135 @@
+package com.project.library_comparison_tool.service;
+
+import com.project.library_comparison_tool.entity.Library;
+import com.project.library_comparison_tool.repository.LibraryRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the persisted comparison scores on Library current
+ * - Writes rescore only when a scoring input changed (see ComparisonService.needsRescore)
+ * - A nightly pass rescores only libraries whose maintenance time bucket has elapsed
+ */
+@Service
+public class LibraryRescoringService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final LibraryRepository libraryRepository;
+    private final ComparisonService comparisonService;
+    private final LibrarySearchIndex searchIndex;
+
+    public LibraryRescoringService(LibraryRepository libraryRepository,
+                                   ComparisonService comparisonService,
+                                   LibrarySearchIndex searchIndex) {
+        this.libraryRepository = libraryRepository;
+        this.comparisonService = comparisonService;
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * Rescore a library if its inputs changed since it was last scored
+     *
+     * @param library Library about to be saved
+     * @return true if the scores were recalculated
+     */
+    public boolean rescoreIfChanged(Library library) {
+        if (library == null || !comparisonService.needsRescore(library)) {
+            return false;
+        }
+
+        comparisonService.applyScores(library);
+        return true;
+    }
+
+    /**
+     * Score libraries saved before the score columns existed
+     * Runs at startup so grade filters don't silently drop old rows
+     *
+     * @return Number of libraries scored
+     */
+    @Transactional
+    public int backfillMissingScores() {
+        int total = 0;
+        Page<Library> batch = libraryRepository.findByQualityGradeIsNull(PageRequest.of(0, BATCH_SIZE));
+
+        while (batch.hasContent()) {
+            List<Library> scored = new ArrayList<>(batch.getContent());
+            scored.forEach(comparisonService::applyScores);
+            libraryRepository.saveAll(scored);
+            searchIndex.indexAfterCommit(scored);
+            total += scored.size();
+
+            // Scored rows no longer match, so always read the first page again
+            batch = libraryRepository.findByQualityGradeIsNull(PageRequest.of(0, BATCH_SIZE));
+        }
+
+        return total;
+    }
+
+    /**
+     * Nightly pass for the time-decaying maintenance score
+     * Only touches libraries whose scoresValidUntil date has been reached
+     *
+     * @return Number of libraries rescored
+     */
+    @Scheduled(cron = "${app.scoring.rescore-cron:0 30 3 * * *}")
+    @Transactional
+    public int rescoreExpiredScores() {
+        LocalDate today = LocalDate.now();
+        int total = 0;
+
+        System.out.println("[scoring] Rescoring libraries with expired maintenance scores...");
+
+        Page<Library> batch = libraryRepository.findByScoresValidUntilLessThanEqual(today, PageRequest.of(0, BATCH_SIZE));
+        while (batch.hasContent()) {
+            List<Library> rescored = new ArrayList<>(batch.getContent());
+            rescored.forEach(comparisonService::applyScores);
+            libraryRepository.saveAll(rescored);
+            searchIndex.indexAfterCommit(rescored);
+            total += rescored.size();
+
+            // applyScores always moves scoresValidUntil past today, so re-read the first page
+            batch = libraryRepository.findByScoresValidUntilLessThanEqual(today, PageRequest.of(0, BATCH_SIZE));
+        }
+
+        System.out.println("[scoring] Rescored " + total + " libraries.");
+        return total;
+    }
+
+    /**
+     * Full pass over the catalogue, rescoring only rows whose inputs changed
+     * Useful after a scoring rule change or a bulk import that bypassed LibraryService
+     *
+     * @return Number of libraries rescored
+     */
+    @Transactional
+    public int rescoreChangedLibraries() {
+        int total = 0;
+        int page = 0;
+
+        Page<Library> batch;
+        do {
+            batch = libraryRepository.findAll(PageRequest.of(page++, BATCH_SIZE, Sort.by("id")));
+            List<Library> rescored = new ArrayList<>();
+            for (Library library : batch.getContent()) {
+                if (rescoreIfChanged(library)) {
+                    rescored.add(library);
+                }
+            }
+            libraryRepository.saveAll(rescored);
+            searchIndex.indexAfterCommit(rescored);
+            total += rescored.size();
+        } while (batch.hasNext());
+
+        return total;
+    }
+}
@@ -0,0 +1,743 @@
+package com.project.library_comparison_tool.service;
+
+import com.project.library_comparison_tool.dto.AdvancedSearchDTO;
+import com.project.library_comparison_tool.dto.SearchFacetsDTO;
+import com.project.library_comparison_tool.entity.Category;
+import com.project.library_comparison_tool.entity.Library;
+import com.project.library_comparison_tool.repository.LibraryRepository;
+import com.project.library_comparison_tool.repository.LibrarySortKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the library catalogue
+ * - Answers AdvancedSearchDTO queries (keyword + filters + sort) without touching the database
+ * - Keyword matches are ranked with BM25 over name, tags, categories, package manager and description
+ * - Kept current incrementally: LibraryService / LibraryRescoringService push every saved library
+ *   after commit, and a periodic full rebuild catches anything written elsewhere
+ *
+ * Documents get dense int ids; posting lists are sorted int arrays (doc id + weighted term frequency).
+ * An update tombstones the old doc id and appends a new one; the index compacts once a quarter of
+ * the doc ids are dead.
+ *
+ * Filters and sort orders give the same results as the database path (names are compared with a Collator
+ * for app.search.index.collation, which should match the column collation).
+ * Keyword queries only use the index with app.search.index.keyword-search=true, because the ranking differs
+ * from Postgres full-text search (library_fts_match / library_fts_rank):
+ * - Every query word must match (AND), like websearch_to_tsquery without operators
+ * - No stemming: "parsers " does not find "parser", but an unfinished last word matches as a prefix
+ * - Partial name matches are kept: "act" finds "react", as LIKE '%act%' does in the database
+ * Queries using websearch syntax (OR, "quoted phrases", -word) or LIKE wildcards always go to the database.
+ */
+@Service
+public class LibrarySearchIndex {
+
+    // BM25 parameters (standard defaults)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Field weights - a term in the name counts four times a term in the description
+    private static final int NAME_WEIGHT = 4;
+    private static final int TAG_WEIGHT = 2;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int PLATFORM_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Search-as-you-type: how many dictionary terms the last (partial) query word may expand to
+    private static final int MAX_PREFIX_EXPANSION = 50;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "the", "or", "of", "for", "to", "in", "on", "with", "is", "it", "by", "as", "at"
+    );
+
+    private final LibraryRepository libraryRepository;
+    private final boolean enabled;
+    private final boolean keywordSearch;
+    private final Collator nameCollator;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // --- guarded by lock ---
+    private final TreeMap<String, PostingList> dictionary = new TreeMap<>();
+    private final List<IndexedLibrary> docs = new ArrayList<>();
+    private final List<Integer> docLengths = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<Long, Integer> docIdByLibraryId = new HashMap<>();
+    private long totalLiveLength = 0;
+    // Applies that arrive while a rebuild reads the database; replayed after the swap (null when no rebuild runs)
+    private List<IndexedLibrary> appliedDuringRebuild = null;
+    private volatile boolean ready = false;
+
+    // One rebuild at a time (scheduled and manual ones may overlap)
+    private final Object rebuildMonitor = new Object();
+
+    // Bumped after every committed library write and every rebuild (cache keys include it)
+    private final AtomicLong version = new AtomicLong();
+
+    public LibrarySearchIndex(LibraryRepository libraryRepository,
+                              @Value("${app.search.index.enabled:true}") boolean enabled,
+                              @Value("${app.search.index.keyword-search:false}") boolean keywordSearch,
+                              @Value("${app.search.index.collation:en-US}") String collation) {
+        this.libraryRepository = libraryRepository;
+        this.enabled = enabled;
+        this.keywordSearch = keywordSearch;
+        this.nameCollator = Collator.getInstance(Locale.forLanguageTag(collation));
+    }
+
+    /**
+     * Catalogue version as seen by the index - changes whenever a library write commits
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * True once the first full load finished (callers fall back to the database until then)
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * True if the index is loaded and answers this search the way the database would
+     * Keyword queries need app.search.index.keyword-search, and never use websearch operators or LIKE wildcards
+     */
+    public boolean canAnswer(AdvancedSearchDTO criteria) {
+        if (!isReady()) {
+            return false;
+        }
+        String searchQuery = criteria.getSearchQuery();
+        if (searchQuery == null || searchQuery.isBlank()) {
+            return true;
+        }
+        return keywordSearch && !hasSearchOperators(searchQuery);
+    }
+
+    // websearch_to_tsquery syntax ("phrase", -word, OR) and LIKE wildcards (% and _) change the database result
+    static boolean hasSearchOperators(String searchQuery) {
+        if (searchQuery.indexOf('"') >= 0 || searchQuery.indexOf('%') >= 0 || searchQuery.indexOf('_') >= 0) {
+            return true;
+        }
+        for (String word : searchQuery.trim().split("\\s+")) {
+            if (word.startsWith("-") || word.equalsIgnoreCase("or")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ==================== LOADING ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Safety net for writes that bypass LibraryService (SQL scripts, other services)
+     */
+    @Scheduled(fixedDelayString = "${app.search.index.rebuild-ms:900000}",
+            initialDelayString = "${app.search.index.rebuild-ms:900000}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reload the whole catalogue from the database and swap it in
+     * Writes committed while the database is being read may be missing from that read, so the applies that
+     * arrive in the meantime are buffered and replayed on top of the fresh snapshot
+     */
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            long start = System.currentTimeMillis();
+
+            lock.writeLock().lock();
+            try {
+                appliedDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            List<IndexedLibrary> snapshots = null;
+            try {
+                List<Library> libraries = libraryRepository.findAllWithTags();
+                snapshots = new ArrayList<>(libraries.size());
+                for (Library library : libraries) {
+                    snapshots.add(IndexedLibrary.of(library, nameCollator));
+                }
+            } catch (Exception e) {
+                System.err.println("[search-index] Rebuild failed, keeping current index: " + e.getMessage());
+            }
+
+            int replayed;
+            lock.writeLock().lock();
+            try {
+                List<IndexedLibrary> buffered = appliedDuringRebuild;
+                appliedDuringRebuild = null;
+                if (snapshots == null) {
+                    return; // the buffered applies already reached the current index
+                }
+                reindex(snapshots);
+                applyDocuments(buffered);
+                replayed = buffered.size();
+                ready = true;
+                version.incrementAndGet();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            System.out.println("[search-index] Indexed " + snapshots.size() + " libraries (" + replayed
+                    + " concurrent updates replayed), " + dictionary.size() + " terms in "
+                    + (System.currentTimeMillis() - start) + "ms");
+        }
+    }
+
+    /**
+     * Index (or re-index) libraries once the current transaction commits
+     * The snapshot is taken now, while lazy collections can still be read
+     */
+    public void indexAfterCommit(Collection<Library> libraries) {
+        if (libraries == null || libraries.isEmpty()) {
+            return;
+        }
+
+        // With the index disabled only the catalogue version moves
+        List<IndexedLibrary> snapshots = new ArrayList<>(enabled ? libraries.size() : 0);
+        for (Library library : libraries) {
+            if (enabled && library != null && library.getId() != null) {
+                snapshots.add(IndexedLibrary.of(library, nameCollator));
+            }
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(snapshots);
+                }
+            });
+        } else {
+            apply(snapshots);
+        }
+    }
+
+    public void indexAfterCommit(Library library) {
+        indexAfterCommit(Collections.singletonList(library));
+    }
+
+    private void apply(List<IndexedLibrary> snapshots) {
+        lock.writeLock().lock();
+        try {
+            applyDocuments(snapshots);
+            if (appliedDuringRebuild != null) {
+                appliedDuringRebuild.addAll(snapshots);
+            }
+
+            // Only once the documents are in: a search that sees the new version must also see the new data,
+            // or it would cache old results under the new key
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void applyDocuments(List<IndexedLibrary> snapshots) {
+        for (IndexedLibrary snapshot : snapshots) {
+            Integer previous = docIdByLibraryId.get(snapshot.id);
+            if (previous != null) {
+                live.clear(previous);
+                totalLiveLength -= docLengths.get(previous);
+            }
+            addDocument(snapshot);
+        }
+
+        // Compact once tombstones make up a quarter of the doc ids
+        int dead = docs.size() - live.cardinality();
+        if (dead > 0 && dead * 4 >= docs.size()) {
+            List<IndexedLibrary> liveDocs = new ArrayList<>(live.cardinality());
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                liveDocs.add(docs.get(doc));
+            }
+            reindex(liveDocs);
+        }
+    }
+
+    // Caller holds the write lock
+    private void reindex(List<IndexedLibrary> snapshots) {
+        dictionary.clear();
+        docs.clear();
+        docLengths.clear();
+        live.clear();
+        docIdByLibraryId.clear();
+        totalLiveLength = 0;
+
+        for (IndexedLibrary snapshot : snapshots) {
+            addDocument(snapshot);
+        }
+    }
+
+    // Caller holds the write lock
+    private void addDocument(IndexedLibrary snapshot) {
+        int docId = docs.size();
+
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        addTokens(termFrequencies, snapshot.name, NAME_WEIGHT);
+        addTokens(termFrequencies, snapshot.tags, TAG_WEIGHT);
+        addTokens(termFrequencies, snapshot.categories, CATEGORY_WEIGHT);
+        addTokens(termFrequencies, snapshot.packageManager, PLATFORM_WEIGHT);
+        addTokens(termFrequencies, snapshot.description, DESCRIPTION_WEIGHT);
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+            dictionary.computeIfAbsent(entry.getKey(), k -> new PostingList()).add(docId, entry.getValue());
+            length += entry.getValue();
+        }
+
+        docs.add(snapshot);
+        docLengths.add(length);
+        live.set(docId);
+        docIdByLibraryId.put(snapshot.id, docId);
+        totalLiveLength += length;
+    }
+
+    private static void addTokens(Map<String, Integer> termFrequencies, String text, int weight) {
+        for (String token : tokenize(text)) {
+            termFrequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    // ==================== SEARCH ====================
+
+    /**
+     * Run an advanced search against the index
+     * Filters mirror LibrarySpecification.withAdvancedSearch; ordering mirrors LibraryService.buildSort
+     *
+     * @return Library ids in result order (callers page and hydrate)
+     */
+    public List<Long> search(AdvancedSearchDTO criteria) {
+        lock.readLock().lock();
+        try {
+            int docCount = docs.size();
+            double[] scores = null;
+            BitSet candidates;
+
+            String searchQuery = criteria.getSearchQuery();
+            if (searchQuery != null && !searchQuery.isBlank()) {
+                scores = new double[docCount];
+                candidates = matchKeywords(searchQuery, scores);
+            } else {
+                candidates = (BitSet) live.clone();
+            }
+
+            LocalDate sixMonthsAgo = LocalDate.now().minusMonths(6);
+            List<Integer> hits = new ArrayList<>();
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                if (matchesFilters(docs.get(doc), criteria, sixMonthsAgo)) {
+                    hits.add(doc);
+                }
+            }
+
+            boolean byRelevance = scores != null
+                    && (criteria.getSortBy() == null || "relevance".equalsIgnoreCase(criteria.getSortBy()));
+            hits.sort(byRelevance ? relevanceOrder(scores) : sortKeyOrder(LibrarySortKey.from(criteria.getSortBy())));
+
+            List<Long> ids = new ArrayList<>(hits.size());
+            for (int doc : hits) {
+                ids.add(docs.get(doc).id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search-as-you-type suggestions straight from the index (no database access)
+     */
+    public List<Map<String, Object>> suggest(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+
+        AdvancedSearchDTO criteria = new AdvancedSearchDTO();
+        criteria.setSearchQuery(query);
+        List<Long> ids = search(criteria);
+
+        lock.readLock().lock();
+        try {
+            List<Map<String, Object>> suggestions = new ArrayList<>();
+            for (Long id : ids.subList(0, Math.min(limit, ids.size()))) {
+                Integer doc = docIdByLibraryId.get(id);
+                if (doc == null) {
+                    continue; // re-indexed between the two lock sections
+                }
+                IndexedLibrary library = docs.get(doc);
+                Map<String, Object> suggestion = new LinkedHashMap<>();
+                suggestion.put("id", library.id);
+                suggestion.put("name", library.name);
+                suggestion.put("packageManager", library.packageManager);
+                suggestion.put("githubStars", library.githubStars);
+                suggestion.put("qualityGrade", library.qualityGrade);
+                suggestions.add(suggestion);
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts for an advanced search in a single pass over the keyword matches
+     * A multi-select facet counts a library when it passes every filter except that facet's own
+     */
+    public SearchFacetsDTO facets(AdvancedSearchDTO criteria) {
+        lock.readLock().lock();
+        try {
+            String searchQuery = criteria.getSearchQuery();
+            BitSet candidates = searchQuery != null && !searchQuery.isBlank()
+                    ? matchKeywords(searchQuery, new double[docs.size()])
+                    : live;
+
+            Map<Category, Long> categoryCounts = new EnumMap<>(Category.class);
+            Map<String, Long> platformCounts = new HashMap<>();
+            Map<String, Long> gradeCounts = new TreeMap<>();
+            long deprecated = 0;
+            long vulnerable = 0;
+            long total = 0;
+
+            LocalDate sixMonthsAgo = LocalDate.now().minusMonths(6);
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                IndexedLibrary library = docs.get(doc);
+                if (!matchesOtherFilters(library, criteria, sixMonthsAgo)) {
+                    continue;
+                }
+
+                boolean category = matchesCategories(library, criteria);
+                boolean platform = matchesPlatforms(library, criteria);
+                boolean grade = matchesGrades(library, criteria);
+
+                if (platform && grade) {
+                    for (Category code : library.categoryCodes) {
+                        categoryCounts.merge(code, 1L, Long::sum);
+                    }
+                }
+                if (category && grade && library.packageManager != null) {
+                    platformCounts.merge(library.packageManager, 1L, Long::sum);
+                }
+                if (category && platform && library.qualityGrade != null) {
+                    gradeCounts.merge(library.qualityGrade, 1L, Long::sum);
+                }
+                if (category && platform && grade) {
+                    total++;
+                    if (Boolean.TRUE.equals(library.deprecated)) deprecated++;
+                    if (Boolean.TRUE.equals(library.vulnerable)) vulnerable++;
+                }
+            }
+
+            Map<String, Long> categories = new LinkedHashMap<>();
+            sortByCount(categoryCounts).forEach(e -> categories.put(e.getKey().getDisplayName(), e.getValue()));
+            Map<String, Long> platforms = new LinkedHashMap<>();
+            sortByCount(platformCounts).forEach(e -> platforms.put(e.getKey(), e.getValue()));
+
+            return SearchFacetsDTO.builder()
+                    .categories(categories)
+                    .platforms(platforms)
+                    .grades(new LinkedHashMap<>(gradeCounts))
+                    .deprecated(deprecated)
+                    .withVulnerabilities(vulnerable)
+                    .total(total)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <K> List<Map.Entry<K, Long>> sortByCount(Map<K, Long> counts) {
+        List<Map.Entry<K, Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<K, Long>comparingByValue().reversed());
+        return entries;
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("enabled", enabled);
+            stats.put("ready", ready);
+            stats.put("libraries", live.cardinality());
+            stats.put("docIds", docs.size());
+            stats.put("terms", dictionary.size());
+            stats.put("version", version.get());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock. Every query word must match (AND), the last one also as a prefix;
+    // names containing the whole query match as well (unscored), like the database's LIKE '%query%'
+    private BitSet matchKeywords(String searchQuery, double[] scores) {
+        BitSet result = matchTerms(tokenize(searchQuery), searchQuery, scores);
+
+        String namePart = searchQuery.trim().toLowerCase();
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            String name = docs.get(doc).nameLower;
+            if (name != null && name.contains(namePart)) {
+                result.set(doc);
+            }
+        }
+        return result;
+    }
+
+    private BitSet matchTerms(List<String> terms, String searchQuery, double[] scores) {
+        BitSet result = (BitSet) live.clone();
+        if (terms.isEmpty()) {
+            result.clear();
+            return result;
+        }
+
+        int liveDocs = live.cardinality();
+        double avgLength = liveDocs == 0 ? 1.0 : Math.max(1.0, (double) totalLiveLength / liveDocs);
+        boolean lastIsPartial = !Character.isWhitespace(searchQuery.charAt(searchQuery.length() - 1));
+
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            BitSet termMatches = new BitSet();
+
+            PostingList exact = dictionary.get(term);
+            if (exact != null) {
+                scorePostings(exact, liveDocs, avgLength, scores, termMatches);
+            }
+
+            if (i == terms.size() - 1 && lastIsPartial) {
+                int expanded = 0;
+                for (Map.Entry<String, PostingList> entry : dictionary.tailMap(term, false).entrySet()) {
+                    if (!entry.getKey().startsWith(term) || expanded++ >= MAX_PREFIX_EXPANSION) {
+                        break;
+                    }
+                    scorePostings(entry.getValue(), liveDocs, avgLength, scores, termMatches);
+                }
+            }
+
+            result.and(termMatches);
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void scorePostings(PostingList postings, int liveDocs, double avgLength,
+                               double[] scores, BitSet matches) {
+        // Tombstoned docs still sit in the posting list until compaction, so df is approximate
+        int df = postings.size;
+        double idf = Math.log(1.0 + (liveDocs - df + 0.5) / (df + 0.5));
+
+        for (int i = 0; i < postings.size; i++) {
+            int doc = postings.docs[i];
+            if (!live.get(doc)) {
+                continue;
+            }
+            int tf = postings.frequencies[i];
+            double norm = K1 * (1 - B + B * docLengths.get(doc) / avgLength);
+            scores[doc] += idf * (tf * (K1 + 1)) / (tf + norm);
+            matches.set(doc);
+        }
+    }
+
+    private static boolean matchesFilters(IndexedLibrary doc, AdvancedSearchDTO criteria, LocalDate sixMonthsAgo) {
+        return matchesCategories(doc, criteria)
+                && matchesPlatforms(doc, criteria)
+                && matchesGrades(doc, criteria)
+                && matchesOtherFilters(doc, criteria, sixMonthsAgo);
+    }
+
+    // Categories (OR) - exact match on the normalized categories, unknown names match nothing
+    private static boolean matchesCategories(IndexedLibrary doc, AdvancedSearchDTO criteria) {
+        if (criteria.getCategories() == null || criteria.getCategories().isEmpty()) {
+            return true;
+        }
+        for (String name : criteria.getCategories()) {
+            Category category = Category.fromName(name);
+            if (category != null && doc.categoryCodes.contains(category)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesPlatforms(IndexedLibrary doc, AdvancedSearchDTO criteria) {
+        return criteria.getPlatforms() == null || criteria.getPlatforms().isEmpty()
+                || criteria.getPlatforms().contains(doc.packageManager);
+    }
+
+    private static boolean matchesGrades(IndexedLibrary doc, AdvancedSearchDTO criteria) {
+        return criteria.getIncludeGrades() == null || criteria.getIncludeGrades().isEmpty()
+                || (doc.qualityGrade != null && criteria.getIncludeGrades().contains(doc.qualityGrade));
+    }
+
+    // Everything that is not a facet dimension
+    private static boolean matchesOtherFilters(IndexedLibrary doc, AdvancedSearchDTO criteria, LocalDate sixMonthsAgo) {
+        // Range filters - NULL never satisfies a comparison (same as SQL)
+        if (criteria.getMinStars() != null && (doc.githubStars == null || doc.githubStars < criteria.getMinStars())) return false;
+        if (criteria.getMaxStars() != null && (doc.githubStars == null || doc.githubStars > criteria.getMaxStars())) return false;
+        if (criteria.getMinDependents() != null && (doc.dependents == null || doc.dependents < criteria.getMinDependents())) return false;
+        if (criteria.getMaxDependents() != null && (doc.dependents == null || doc.dependents > criteria.getMaxDependents())) return false;
+
+        if (criteria.getLastCommitAfter() != null
+                && (doc.lastRepositoryReleaseDate == null || doc.lastRepositoryReleaseDate.isBefore(criteria.getLastCommitAfter()))) {
+            return false;
+        }
+
+        if (Boolean.TRUE.equals(criteria.getExcludeDeprecated()) && Boolean.TRUE.equals(doc.deprecated)) return false;
+        if (Boolean.TRUE.equals(criteria.getExcludeSecurityVulnerabilities()) && Boolean.TRUE.equals(doc.vulnerable)) return false;
+
+        if (Boolean.TRUE.equals(criteria.getExcludeUnmaintained())
+                && (doc.lastRepositoryReleaseDate == null || !doc.lastRepositoryReleaseDate.isAfter(sixMonthsAgo))) {
+            return false;
+        }
+
+        if (criteria.getExcludePlatforms() != null && !criteria.getExcludePlatforms().isEmpty()
+                && (doc.packageManager == null || criteria.getExcludePlatforms().contains(doc.packageManager))) {
+            return false;
+        }
+
+        if (criteria.getExcludeCategories() != null && !criteria.getExcludeCategories().isEmpty()) {
+            for (String name : criteria.getExcludeCategories()) {
+                Category excluded = Category.fromName(name);
+                if (excluded != null && doc.categoryCodes.contains(excluded)) return false;
+            }
+        }
+
+        return true;
+    }
+
+    private Comparator<Integer> relevanceOrder(double[] scores) {
+        Comparator<Integer> byScore = (a, b) -> Double.compare(scores[b], scores[a]);
+        return byScore.thenComparingLong(doc -> docs.get(doc).id);
+    }
+
+    // Same order as LibrarySortKey.toSort(): descending keys NULLs last, then id ascending
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<Integer> sortKeyOrder(LibrarySortKey sortKey) {
+        Comparator<Integer> byId = Comparator.comparingLong(doc -> docs.get(doc).id);
+        if (sortKey == LibrarySortKey.ID) {
+            return byId;
+        }
+
+        Comparator<Comparable> valueOrder = sortKey.isDescending()
+                ? Comparator.nullsLast(Comparator.<Comparable>reverseOrder())
+                : Comparator.nullsLast(Comparator.<Comparable>naturalOrder());
+        Comparator<Integer> byValue = (a, b) -> valueOrder.compare(docs.get(a).sortValue(sortKey), docs.get(b).sortValue(sortKey));
+        return byValue.thenComparing(byId);
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase().split("[^a-z0-9]+")) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // ==================== INTERNALS ====================
+
+    /**
+     * Growable int arrays of (doc id, weighted term frequency), doc ids ascending
+     */
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size = 0;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+
+    /**
+     * Immutable copy of the Library fields the index searches, filters and sorts on
+     */
+    private static final class IndexedLibrary {
+        private final long id;
+        private final String name;
+        private final String nameLower;
+        private final CollationKey nameKey; // name in column collation order
+        private final String description;
+        private final String tags;
+        private final String categories; // display names, comma-separated (tokenized for search)
+        private final Set<Category> categoryCodes;
+        private final String packageManager;
+        private final Integer githubStars;
+        private final Integer dependents;
+        private final LocalDate lastRepositoryReleaseDate;
+        private final String qualityGrade;
+        private final Double overallScore;
+        private final Boolean deprecated;
+        private final Boolean vulnerable;
+
+        private IndexedLibrary(Library library, Collator nameCollator) {
+            this.id = library.getId();
+            this.name = library.getName();
+            this.nameLower = name != null ? name.toLowerCase() : null;
+            this.nameKey = name != null ? nameCollator.getCollationKey(name) : null;
+            this.description = library.getDescription();
+            this.tags = library.getTags() != null ? String.join(" ", library.getTags()) : null;
+            this.categories = library.getCategories();
+            this.categoryCodes = library.getCategoryCodes() != null && !library.getCategoryCodes().isEmpty()
+                    ? EnumSet.copyOf(library.getCategoryCodes())
+                    : EnumSet.noneOf(Category.class);
+            this.packageManager = library.getPackageManager();
+            this.githubStars = library.getGithubStars();
+            this.dependents = library.getDependentProjectsCount();
+            this.lastRepositoryReleaseDate = library.getLastRepositoryReleaseDate();
+            this.qualityGrade = library.getQualityGrade();
+            this.overallScore = library.getOverallScore();
+            this.deprecated = library.getIsDeprecated();
+            this.vulnerable = library.getHasSecurityVulnerabilities();
+        }
+
+        static IndexedLibrary of(Library library, Collator nameCollator) {
+            return new IndexedLibrary(library, nameCollator);
+        }
+
+        Comparable<?> sortValue(LibrarySortKey sortKey) {
+            switch (sortKey) {
+                case STARS: return githubStars;
+                case DEPENDENTS: return dependents;
+                case NAME: return nameKey;
+                case UPDATED: return lastRepositoryReleaseDate;
+                case SCORE: return overallScore;
+                default: return id;
+            }
+        }
+    }
+}
@@ -1,68 +1,191 @@
 package com.project.library_comparison_tool.service;
 
+import com.project.library_comparison_tool.dto.CursorPageDTO;
+import com.project.library_comparison_tool.dto.LibraryCursor;
 import com.project.library_comparison_tool.dto.LibraryDTO;
+import com.project.library_comparison_tool.dto.LibrarySummaryDTO;
+import com.project.library_comparison_tool.entity.Category;
 import com.project.library_comparison_tool.entity.Library;
+import com.project.library_comparison_tool.entity.Vulnerability;
 import com.project.library_comparison_tool.repository.LibraryRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.project.library_comparison_tool.dto.AdvancedSearchDTO;
+import com.project.library_comparison_tool.repository.LibrarySortKey;
 import com.project.library_comparison_tool.repository.LibrarySpecification;
 import org.springframework.data.jpa.domain.Specification;
-import java.util.Comparator;
-import java.util.stream.Collectors;
-
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 public class LibraryService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int SUMMARY_BATCH_SIZE = 1000; // ids per projection query (IN-list size)
+
     private final LibraryRepository libraryRepository;
     private final ComparisonService comparisonService;
+    private final LibraryRescoringService rescoringService;
+    private final LibrarySearchIndex searchIndex;
+
+    // Advanced-search results keyed by catalogue version + canonical criteria (+ page)
+    // Only the ranked ids are kept (bounded by count and bytes); rows are loaded per request
+    private final BoundedTtlCache<String, SearchHits> searchResultCache;
+
+    // Summary rows keyed by catalogue version + library id, projected from the table without loading entities
+    private final BoundedTtlCache<String, LibrarySummaryDTO> summaryCache;
 
-    public LibraryService(LibraryRepository libraryRepository, ComparisonService comparisonService) {
+    public LibraryService(LibraryRepository libraryRepository,
+                          ComparisonService comparisonService,
+                          LibraryRescoringService rescoringService,
+                          LibrarySearchIndex searchIndex,
+                          @Value("${app.search.cache.max-entries:1000}") int cacheMaxEntries,
+                          @Value("${app.search.cache.max-bytes:16777216}") long cacheMaxBytes,
+                          @Value("${app.search.cache.ttl-seconds:300}") long cacheTtlSeconds,
+                          @Value("${app.search.summary-cache.max-entries:20000}") int summaryCacheMaxEntries,
+                          @Value("${app.search.summary-cache.max-bytes:33554432}") long summaryCacheMaxBytes) {
         this.libraryRepository = libraryRepository;
         this.comparisonService = comparisonService;
+        this.rescoringService = rescoringService;
+        this.searchIndex = searchIndex;
+        this.searchResultCache = new BoundedTtlCache<>("advanced-search", cacheMaxEntries, cacheMaxBytes,
+                SearchHits::weight, Duration.ofSeconds(cacheTtlSeconds));
+        this.summaryCache = new BoundedTtlCache<>("search-summary", summaryCacheMaxEntries, summaryCacheMaxBytes,
+                LibraryService::summaryWeight, Duration.ofSeconds(cacheTtlSeconds));
     }
 
     //If we already have a given library (same name), update it. Otherwise insert it
+    @Transactional
     public Library addOrUpdateLibrary(Library library) {
         Optional<Library> existingOpt =
                 libraryRepository.findByNameIgnoreCase(library.getName());
 
         if (existingOpt.isPresent()) {
             Library existing = existingOpt.get();
+            copyMutableFields(library, existing);
 
-            // Update mutable fields
-            existing.setCategories(library.getCategories());
-            existing.setDescription(library.getDescription());
-            existing.setFramework(library.getFramework());
-            existing.setRuntimeEnvironment(library.getRuntimeEnvironment());
-            existing.setLicenseType(library.getLicenseType());
-            existing.setCost(library.getCost());
-            existing.setLatestVersion(library.getLatestVersion());
-            existing.setLastRegistryReleaseDate(library.getLastRegistryReleaseDate());
-            existing.setLastRepositoryReleaseDate(library.getLastRepositoryReleaseDate());
-            existing.setSupportedOs(library.getSupportedOs());
-            existing.setExampleCodeSnippet(library.getExampleCodeSnippet());
-            existing.setUseCase(library.getUseCase());
-            // NOTE: you could also merge dependencies here if you want
-
-            return libraryRepository.save(existing);
+            // Keep persisted scores/grade in sync (only recomputed if a scoring input changed)
+            rescoringService.rescoreIfChanged(existing);
+            Library saved = libraryRepository.save(existing);
+            searchIndex.indexAfterCommit(saved);
+            return saved;
         } else {
             // brand new library
-            return libraryRepository.save(library);
+            library.syncCategoryCodes();
+            rescoringService.rescoreIfChanged(library);
+            Library saved = libraryRepository.save(library);
+            searchIndex.indexAfterCommit(saved);
+            return saved;
+        }
+    }
+
+    // Update mutable fields
+    private void copyMutableFields(Library library, Library existing) {
+        existing.setCategories(library.getCategories());
+        existing.syncCategoryCodes();
+        existing.setDescription(library.getDescription());
+        existing.setFramework(library.getFramework());
+        existing.setRuntimeEnvironment(library.getRuntimeEnvironment());
+        existing.setLicenseType(library.getLicenseType());
+        existing.setCost(library.getCost());
+        existing.setLatestVersion(library.getLatestVersion());
+        existing.setLastRegistryReleaseDate(library.getLastRegistryReleaseDate());
+        existing.setLastRepositoryReleaseDate(library.getLastRepositoryReleaseDate());
+        existing.setSupportedOs(library.getSupportedOs());
+        existing.setExampleCodeSnippet(library.getExampleCodeSnippet());
+        existing.setUseCase(library.getUseCase());
+        existing.setUseCaseFromReadme(library.getUseCaseFromReadme());
+        existing.setRegistryKeywords(library.getRegistryKeywords());
+        copyVulnerabilities(library, existing);
+        // NOTE: you could also merge dependencies here if you want
+    }
+
+
+    // Ingestion's OSV + GitHub advisory results; if either lookup failed the stored ones are kept
+    private void copyVulnerabilities(Library library, Library existing) {
+        if (!library.isVulnerabilitiesChecked()) {
+            return;
         }
+        existing.clearVulnerabilities();
+        for (Vulnerability vulnerability : new ArrayList<>(library.getVulnerabilities())) {
+            existing.addVulnerability(vulnerability);
+        }
+    }
+
+    // True if a library with this name (any case) is already stored
+    public boolean libraryExists(String name) {
+        return libraryRepository.existsByNameIgnoreCase(name);
     }
 
+    /**
+     * Insert or update a batch of libraries in a single transaction
+     * Used by the ingestion pipeline's persistence stage
+     * - One name lookup for the whole batch instead of a select per library
+     * - New rows are written as JDBC batches (hibernate.jdbc.batch_size) with pooled sequence ids
+     * - Same name twice in a batch: the later one updates the first (same as calling addOrUpdateLibrary twice)
+     *
+     * @return The saved library for each input, in input order
+     */
+    @Transactional
+    public List<Library> addOrUpdateLibraries(List<Library> libraries) {
+        Map<String, Library> byName = new HashMap<>();
+        List<String> names = new ArrayList<>(libraries.size());
+        for (Library library : libraries) {
+            names.add(library.getName().toLowerCase(Locale.ROOT));
+        }
+        for (Library existing : libraryRepository.findByLowerNameIn(names)) {
+            byName.putIfAbsent(existing.getName().toLowerCase(Locale.ROOT), existing);
+        }
+
+        List<Library> result = new ArrayList<>(libraries.size());
+        Set<Library> toSave = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Library library : libraries) {
+            String key = library.getName().toLowerCase(Locale.ROOT);
+            Library existing = byName.get(key);
+            Library target;
+            if (existing != null) {
+                copyMutableFields(library, existing);
+                target = existing;
+            } else {
+                // brand new library
+                library.syncCategoryCodes();
+                byName.put(key, library);
+                target = library;
+            }
+            rescoringService.rescoreIfChanged(target);
+            toSave.add(target);
+            result.add(target);
+        }
+
+        libraryRepository.saveAll(toSave);
+        searchIndex.indexAfterCommit(toSave);
+        return result;
+    }
 
     // Create / Add new library
     public Library addLibrary(Library library) {
         // later you can validate fields, normalize casing, etc.
-        return libraryRepository.save(library);
+        library.syncCategoryCodes();
+        rescoringService.rescoreIfChanged(library);
+        Library saved = libraryRepository.save(library);
+        searchIndex.indexAfterCommit(saved);
+        return saved;
     }
 
     // Get all libraries
@@ -85,8 +208,30 @@ public class LibraryService {
         return libraryRepository.findByNameContainingIgnoreCase(namePart);
     }
 
+    // Ranked full-text search over name, tags, categories and description
+    public List<Library> fullTextSearch(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return libraryRepository.searchFullText(query.trim(), limit);
+    }
+
+    // Ranked suggestions from the in-memory index (no database access)
+    public List<Map<String, Object>> instantSearch(String query, int limit) {
+        return searchIndex.suggest(query, limit);
+    }
+
+    public boolean isSearchIndexReady() {
+        return searchIndex.isReady();
+    }
+
     // Filter by category (searches in categories comma-separated string)
     public List<Library> getLibrariesByCategory(String category) {
+        // Known categories use the indexed library_category table
+        Category code = Category.fromName(category);
+        if (code != null) {
+            return libraryRepository.findDistinctByCategoryCodes(code);
+        }
         return libraryRepository.findByCategoriesContainingIgnoreCase(category);
     }
 
@@ -96,103 +241,359 @@ public class LibraryService {
     }
 
     public List<LibraryDTO> advancedSearch(AdvancedSearchDTO criteria) {
-        // Build dynamic query specification
-        Specification<Library> spec = LibrarySpecification.withAdvancedSearch(criteria);
-
-        // Execute query
-        List<Library> libraries = libraryRepository.findAll(spec);
-
-        // Filter by quality grades (done in-memory since it's a calculated field)
-        if (criteria.getIncludeGrades() != null && !criteria.getIncludeGrades().isEmpty()) {
-            libraries = libraries.stream()
-                    .filter(lib -> {
-                        ComparisonService.ComparisonResult result = comparisonService.calculateComparison(lib);
-                        return criteria.getIncludeGrades().contains(result.getQualityGrade());
-                    })
-                    .collect(Collectors.toList());
-        }
-
-        // Apply sorting
-        if (criteria.getSortBy() != null) {
-            switch (criteria.getSortBy()) {
-                case "stars":
-                    libraries.sort(Comparator.comparing(Library::getGithubStars,
-                            Comparator.nullsLast(Comparator.reverseOrder())));
-                    break;
-                case "dependents":
-                    libraries.sort(Comparator.comparing(Library::getDependentProjectsCount,
-                            Comparator.nullsLast(Comparator.reverseOrder())));
-                    break;
-                case "name":
-                    libraries.sort(Comparator.comparing(Library::getName));
-                    break;
-                case "updated":
-                    libraries.sort(Comparator.comparing(Library::getLastRepositoryReleaseDate,
-                            Comparator.nullsLast(Comparator.reverseOrder())));
-                    break;
-            }
+        // Identical searches (e.g. the landing page defaults) skip the ranking and only reload their rows
+        String cacheKey = searchIndex.getVersion() + "#all#" + criteria.toCacheKey(true);
+        SearchHits cached = searchResultCache.get(cacheKey);
+        if (cached != null) {
+            return LibraryDTO.fromEntities(loadInOrder(cached.idList()), comparisonService);
         }
 
-        // Convert to DTOs
+        List<Library> libraries = runAdvancedSearch(criteria);
+        searchResultCache.put(cacheKey, SearchHits.of(libraries, libraries.size()));
         return LibraryDTO.fromEntities(libraries, comparisonService);
     }
 
     public Page<LibraryDTO> advancedSearchPaginated(AdvancedSearchDTO criteria, Pageable pageable) {
-        // Build dynamic query specification
+        String cacheKey = searchIndex.getVersion() + "#" + pageable.getPageNumber() + "x" + pageable.getPageSize()
+                + "#" + criteria.toCacheKey(true);
+        SearchHits cached = searchResultCache.get(cacheKey);
+        if (cached != null) {
+            List<Library> pageRows = loadInOrder(cached.idList());
+            return new PageImpl<>(LibraryDTO.fromEntities(pageRows, comparisonService), pageable, cached.total);
+        }
+
+        Page<Library> libraryPage = runAdvancedSearchPaginated(criteria, pageable);
+        searchResultCache.put(cacheKey, SearchHits.of(libraryPage.getContent(), libraryPage.getTotalElements()));
+        return new PageImpl<>(LibraryDTO.fromEntities(libraryPage.getContent(), comparisonService),
+                libraryPage.getPageable(), libraryPage.getTotalElements());
+    }
+
+    /**
+     * Advanced search for view=summary
+     * Shares the ranked-id cache with advancedSearch, then reads only the summary columns of the hits
+     */
+    public List<LibrarySummaryDTO> advancedSearchSummaries(AdvancedSearchDTO criteria) {
+        String cacheKey = searchIndex.getVersion() + "#all#" + criteria.toCacheKey(true);
+        SearchHits hits = searchResultCache.get(cacheKey);
+        if (hits == null) {
+            if (searchIndex.canAnswer(criteria)) {
+                hits = SearchHits.ofIds(searchIndex.search(criteria));
+            } else {
+                List<Library> libraries = runAdvancedSearch(criteria);
+                hits = SearchHits.of(libraries, libraries.size());
+            }
+            searchResultCache.put(cacheKey, hits);
+        }
+        return summariesInOrder(hits.idList());
+    }
+
+    public Page<LibrarySummaryDTO> advancedSearchSummariesPaginated(AdvancedSearchDTO criteria, Pageable pageable) {
+        String cacheKey = searchIndex.getVersion() + "#" + pageable.getPageNumber() + "x" + pageable.getPageSize()
+                + "#" + criteria.toCacheKey(true);
+        SearchHits hits = searchResultCache.get(cacheKey);
+        if (hits == null) {
+            if (searchIndex.canAnswer(criteria)) {
+                List<Long> ids = searchIndex.search(criteria);
+                int from = (int) Math.min(pageable.getOffset(), ids.size());
+                int to = Math.min(from + pageable.getPageSize(), ids.size());
+                hits = SearchHits.ofIds(ids.subList(from, to)).withTotal(ids.size());
+            } else {
+                Page<Library> libraryPage = runAdvancedSearchPaginated(criteria, pageable);
+                hits = SearchHits.of(libraryPage.getContent(), libraryPage.getTotalElements());
+            }
+            searchResultCache.put(cacheKey, hits);
+        }
+        return new PageImpl<>(summariesInOrder(hits.idList()), pageable, hits.total);
+    }
+
+    // Hit / miss / eviction counters for sizing the advanced-search cache
+    public Map<String, Object> getSearchCacheStats() {
+        return searchResultCache.getStats();
+    }
+
+    public Map<String, Object> getSummaryCacheStats() {
+        return summaryCache.getStats();
+    }
+
+    private List<Library> runAdvancedSearch(AdvancedSearchDTO criteria) {
+        // Answer from the in-memory index when it matches the database result - only the matching rows are read
+        if (searchIndex.canAnswer(criteria)) {
+            return loadInOrder(searchIndex.search(criteria));
+        }
+
+        // Build dynamic query specification (grade filter included)
+        Specification<Library> spec = LibrarySpecification.withAdvancedSearch(criteria);
+
+        // Execute query - filtering and sorting happen in the database
+        return libraryRepository.findAll(spec, buildSort(criteria));
+    }
+
+    private Page<Library> runAdvancedSearchPaginated(AdvancedSearchDTO criteria, Pageable pageable) {
+        // In-memory index: rank and count in the JVM, then load just this page by id
+        if (searchIndex.canAnswer(criteria)) {
+            List<Long> ids = searchIndex.search(criteria);
+            int from = (int) Math.min(pageable.getOffset(), ids.size());
+            int to = Math.min(from + pageable.getPageSize(), ids.size());
+            return new PageImpl<>(loadInOrder(ids.subList(from, to)), pageable, ids.size());
+        }
+
+        // Build dynamic query specification (grade filter included)
         Specification<Library> spec = LibrarySpecification.withAdvancedSearch(criteria);
 
-        // Execute query - get ALL matching results first for filtering
-        List<Library> libraries = libraryRepository.findAll(spec);
-
-        // Filter by quality grades (done in-memory since it's a calculated field)
-        if (criteria.getIncludeGrades() != null && !criteria.getIncludeGrades().isEmpty()) {
-            libraries = libraries.stream()
-                    .filter(lib -> {
-                        ComparisonService.ComparisonResult result = comparisonService.calculateComparison(lib);
-                        return criteria.getIncludeGrades().contains(result.getQualityGrade());
-                    })
-                    .collect(Collectors.toList());
-        }
-
-        // Apply sorting
-        if (criteria.getSortBy() != null) {
-            switch (criteria.getSortBy()) {
-                case "stars":
-                    libraries.sort(Comparator.comparing(Library::getGithubStars,
-                            Comparator.nullsLast(Comparator.reverseOrder())));
-                    break;
-                case "dependents":
-                    libraries.sort(Comparator.comparing(Library::getDependentProjectsCount,
-                            Comparator.nullsLast(Comparator.reverseOrder())));
-                    break;
-                case "name":
-                    libraries.sort(Comparator.comparing(Library::getName));
-                    break;
-                case "updated":
-                    libraries.sort(Comparator.comparing(Library::getLastRepositoryReleaseDate,
-                            Comparator.nullsLast(Comparator.reverseOrder())));
-                    break;
+        // Let the database filter, sort and apply LIMIT/OFFSET so only one page is loaded
+        Pageable sortedPageable = PageRequest.of(
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                buildSort(criteria)
+        );
+        return libraryRepository.findAll(spec, sortedPageable);
+    }
+
+    /**
+     * Keyset-paginated library list
+     * Seeks past the cursor on (sortKey, id) so every page costs the same as the first
+     *
+     * @param cursor Token from the previous page's nextCursor (null for the first page)
+     * @param sortBy "stars", "dependents", "name", "updated", "score" (default: id)
+     * @param size Page size (1-100)
+     * @param includeCount Whether to run the COUNT query for totalItems
+     * @throws IllegalArgumentException for an invalid cursor or page size
+     */
+    public CursorPageDTO<LibraryDTO> getLibrariesAfter(String cursor, String sortBy, int size, boolean includeCount) {
+        // Empty criteria = no filter
+        Specification<Library> filter = LibrarySpecification.withAdvancedSearch(new AdvancedSearchDTO());
+        return seek(filter, LibrarySortKey.from(sortBy), cursor, size, includeCount, this::toDtos);
+    }
+
+    // Same page as getLibrariesAfter, mapped to the slim summary view
+    public CursorPageDTO<LibrarySummaryDTO> getLibrarySummariesAfter(String cursor, String sortBy, int size, boolean includeCount) {
+        Specification<Library> filter = LibrarySpecification.withAdvancedSearch(new AdvancedSearchDTO());
+        return seek(filter, LibrarySortKey.from(sortBy), cursor, size, includeCount, this::toSummaries);
+    }
+
+    /**
+     * Keyset-paginated advanced search (same filters as advancedSearchPaginated)
+     */
+    public CursorPageDTO<LibraryDTO> advancedSearchAfter(AdvancedSearchDTO criteria, String cursor, int size, boolean includeCount) {
+        Specification<Library> filter = LibrarySpecification.withAdvancedSearch(criteria);
+        return seek(filter, LibrarySortKey.from(criteria.getSortBy()), cursor, size, includeCount, this::toDtos);
+    }
+
+    public CursorPageDTO<LibrarySummaryDTO> advancedSearchSummariesAfter(AdvancedSearchDTO criteria, String cursor,
+                                                                        int size, boolean includeCount) {
+        Specification<Library> filter = LibrarySpecification.withAdvancedSearch(criteria);
+        return seek(filter, LibrarySortKey.from(criteria.getSortBy()), cursor, size, includeCount, this::toSummaries);
+    }
+
+    private List<LibraryDTO> toDtos(List<Library> rows) {
+        return LibraryDTO.fromEntities(rows, comparisonService);
+    }
+
+    // The page's rows are already loaded, so map them directly (only tags are read beyond the row)
+    private List<LibrarySummaryDTO> toSummaries(List<Library> rows) {
+        return LibrarySummaryDTO.fromEntities(rows, comparisonService);
+    }
+
+    private <T> CursorPageDTO<T> seek(Specification<Library> filter, LibrarySortKey sortKey,
+                                      String cursor, int size, boolean includeCount,
+                                      Function<List<Library>, List<T>> view) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        LibraryCursor position = cursor != null && !cursor.isBlank() ? LibraryCursor.decode(cursor) : null;
+        if (position != null && position.getSortKey() != sortKey) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+
+        Specification<Library> spec = position != null ? filter.and(LibrarySpecification.after(position)) : filter;
+
+        // Fetch one extra row to know whether another page exists (no COUNT needed)
+        List<Library> rows = libraryRepository.findBy(spec, query -> query
+                .sortBy(sortKey.toSort())
+                .limit(size + 1)
+                .all());
+
+        boolean hasNext = rows.size() > size;
+        List<Library> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = hasNext
+                ? LibraryCursor.after(sortKey, pageRows.get(pageRows.size() - 1)).encode()
+                : null;
+
+        return CursorPageDTO.<T>builder()
+                .content(view.apply(pageRows))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .totalItems(includeCount ? libraryRepository.count(filter) : null)
+                .build();
+    }
+
+    /**
+     * Load libraries by id, keeping the order the search index ranked them in
+     */
+    private List<Library> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Library> byId = new HashMap<>();
+        for (Library library : libraryRepository.findAllById(ids)) {
+            byId.put(library.getId(), library);
+        }
+
+        List<Library> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Library library = byId.get(id);
+            if (library != null) {
+                ordered.add(library);
             }
         }
+        return ordered;
+    }
 
-        // Get total count before pagination
-        int totalElements = libraries.size();
+    /**
+     * Summary rows by id in the given order: cached rows first, the rest projected in batches
+     * Cache keys carry the catalogue version, so a committed write never serves a stale row
+     */
+    private List<LibrarySummaryDTO> summariesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
 
-        // Apply pagination manually
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), totalElements);
+        String prefix = searchIndex.getVersion() + "#";
+        Map<Long, LibrarySummaryDTO> byId = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            LibrarySummaryDTO cached = summaryCache.get(prefix + id);
+            if (cached != null) {
+                byId.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
 
-        List<Library> paginatedLibraries;
-        if (start > totalElements) {
-            paginatedLibraries = List.of();
-        } else {
-            paginatedLibraries = libraries.subList(start, end);
+        for (int from = 0; from < missing.size(); from += SUMMARY_BATCH_SIZE) {
+            List<Long> batch = missing.subList(from, Math.min(from + SUMMARY_BATCH_SIZE, missing.size()));
+            for (LibrarySummaryDTO row : loadSummaries(batch)) {
+                byId.put(row.getId(), row);
+                summaryCache.put(prefix + row.getId(), row);
+            }
+        }
+
+        List<LibrarySummaryDTO> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            LibrarySummaryDTO row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    private List<LibrarySummaryDTO> loadSummaries(List<Long> ids) {
+        List<LibrarySummaryDTO> rows = libraryRepository.findSummariesByIdIn(ids);
+
+        Map<Long, List<String>> tags = new HashMap<>();
+        for (Object[] pair : libraryRepository.findTagsByIdIn(ids)) {
+            tags.computeIfAbsent((Long) pair[0], id -> new ArrayList<>()).add((String) pair[1]);
+        }
+
+        List<Long> unscored = new ArrayList<>();
+        for (LibrarySummaryDTO row : rows) {
+            row.setTags(tags.getOrDefault(row.getId(), List.of()));
+            if (row.getQualityGrade() == null) {
+                unscored.add(row.getId());
+            }
+        }
+
+        // Rows the rescoring backfill has not reached yet: compute their scores like LibrarySummaryDTO.fromEntity
+        if (!unscored.isEmpty()) {
+            Map<Long, LibrarySummaryDTO> byId = new HashMap<>();
+            rows.forEach(row -> byId.put(row.getId(), row));
+            for (Library library : libraryRepository.findAllById(unscored)) {
+                ComparisonService.ComparisonResult comparison = comparisonService.calculateComparison(library);
+                LibrarySummaryDTO row = byId.get(library.getId());
+                row.setOverallScore(comparison.getOverallScore());
+                row.setQualityGrade(comparison.getQualityGrade());
+                row.setActivelyMaintained(comparison.isActivelyMaintained());
+            }
         }
+        return rows;
+    }
+
+    // Approximate heap size in bytes of a cached summary row (2 bytes per char plus object overhead)
+    private static long summaryWeight(LibrarySummaryDTO row) {
+        long chars = length(row.getName()) + length(row.getDescription()) + length(row.getCategories())
+                + length(row.getLanguage()) + length(row.getPackageManager()) + length(row.getLicenseType())
+                + length(row.getLatestVersion()) + length(row.getHomepageUrl()) + length(row.getRepositoryUrl())
+                + length(row.getQualityGrade()) + length(row.getPopularityDisplay());
+        long tagBytes = 0;
+        for (String tag : row.getTags()) {
+            tagBytes += 40 + 2L * tag.length();
+        }
+        return 400 + 2 * chars + tagBytes;
+    }
 
-        // Convert to DTOs
-        List<LibraryDTO> libraryDTOs = LibraryDTO.fromEntities(paginatedLibraries, comparisonService);
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    /**
+     * Map the advanced-search sortBy value to a database sort
+     * Always ends with id so pagination is stable between requests
+     * Keyword searches without a sortBy are ranked by relevance inside LibrarySpecification
+     */
+    private Sort buildSort(AdvancedSearchDTO criteria) {
+        boolean hasKeyword = criteria.getSearchQuery() != null && !criteria.getSearchQuery().isBlank();
+        if (hasKeyword && (criteria.getSortBy() == null || "relevance".equalsIgnoreCase(criteria.getSortBy()))) {
+            return Sort.unsorted();
+        }
+        return LibrarySortKey.from(criteria.getSortBy()).toSort();
+    }
 
-        // Return as Page
-        return new PageImpl<>(libraryDTOs, pageable, totalElements);
+    /**
+     * Ranked ids of one cached search result (the whole list, or one page plus the total count)
+     */
+    private static final class SearchHits {
+        private final long[] ids;
+        private final long total;
+
+        private SearchHits(long[] ids, long total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        static SearchHits ofIds(List<Long> ranked) {
+            long[] ids = new long[ranked.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = ranked.get(i);
+            }
+            return new SearchHits(ids, ids.length);
+        }
+
+        SearchHits withTotal(long total) {
+            return total == this.total ? this : new SearchHits(ids, total);
+        }
+
+        static SearchHits of(List<Library> libraries, long total) {
+            long[] ids = new long[libraries.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = libraries.get(i).getId();
+            }
+            return new SearchHits(ids, total);
+        }
+
+        List<Long> idList() {
+            List<Long> list = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                list.add(id);
+            }
+            return list;
+        }
+
+        // Approximate heap size in bytes
+        long weight() {
+            return 32 + 8L * ids.length;
+        }
     }
-}
\ No newline at end of file
+}
@@ -8,36 +8,22 @@ import org.springframework.stereotype.Service;
 @Service
 public class LicenseService {
 
+    // Open source license patterns live in rules/classification-rules.json
+    private final ClassificationRuleEngine ruleEngine;
+
+    public LicenseService(ClassificationRuleEngine ruleEngine) {
+        this.ruleEngine = ruleEngine;
+    }
+
     /**
      * Check if a license is an open source license
-     * Detects common open source licenses using pattern matching
+     * Detects common open source licenses using pattern matching (any pattern contained in the license string)
      * 
      * @param license License string
      * @return true if open source, false otherwise
      */
     public boolean isOpenSourceLicense(String license) {
-        if (license == null) return false;
-        
-        String lower = license.toLowerCase();
-        return lower.contains("apache") ||
-                lower.contains("mit") ||
-                lower.contains("bsd") ||
-                lower.contains("gpl") ||
-                lower.contains("lgpl") ||
-                lower.contains("mpl") ||
-                // Additional common open source licenses
-                lower.contains("isc") ||
-                lower.contains("unlicense") ||
-                lower.contains("cc0") ||
-                lower.contains("wtfpl") ||
-                lower.contains("artistic") ||
-                lower.contains("epl") ||
-                lower.contains("cddl") ||
-                lower.contains("zlib") ||
-                lower.contains("boost") ||
-                lower.contains("0bsd") ||
-                lower.contains("cc-by") ||
-                lower.contains("public domain");
+        return ruleEngine.isOpenSourceLicense(license);
     }
 
     /**
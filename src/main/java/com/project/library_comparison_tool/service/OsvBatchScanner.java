@@ -0,0 +1,280 @@
+package com.project.library_comparison_tool.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.library_comparison_tool.entity.Library;
+import com.project.library_comparison_tool.entity.Vulnerability;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Batched OSV vulnerability lookups for many libraries at once
+ *
+ * 1. Libraries are grouped by ecosystem and sent to /v1/querybatch, up to 1000 queries per request
+ *    (querybatch answers with vulnerability ids and modified timestamps only)
+ * 2. Full records are fetched from /v1/vulns/{id} only for ids not already cached at that modified
+ *    timestamp, in parallel on the enrichment pool
+ * 3. Each library gets its own Vulnerability entities, parsed exactly like a single /v1/query answer
+ *
+ * A library whose querybatch chunk or advisory records could not be fetched gets null instead of a list:
+ * an empty list always means OSV answered "no vulnerabilities", never "OSV was unreachable".
+ */
+@Service
+public class OsvBatchScanner {
+
+    private static final String OSV_QUERYBATCH_URL = "https://api.osv.dev/v1/querybatch";
+    private static final String OSV_VULN_URL = "https://api.osv.dev/v1/vulns/";
+    private static final int MAX_QUERIES_PER_BATCH = 1000; // OSV limit
+    private static final int MAX_PAGES_PER_QUERY = 10;
+
+    private final SecurityVulnerabilityService securityVulnerabilityService;
+    private final UpstreamHttpClient httpClient;
+    private final EnrichmentExecutor enrichmentExecutor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Full OSV records keyed by "id|modified", so an advisory is hydrated again only after it changed
+    private final BoundedTtlCache<String, JsonNode> vulnDetails;
+
+    public OsvBatchScanner(SecurityVulnerabilityService securityVulnerabilityService,
+                           UpstreamHttpClient httpClient,
+                           EnrichmentExecutor enrichmentExecutor,
+                           @Value("${app.osv.details-cache-size:20000}") int detailsCacheSize) {
+        this.securityVulnerabilityService = securityVulnerabilityService;
+        this.httpClient = httpClient;
+        this.enrichmentExecutor = enrichmentExecutor;
+        this.vulnDetails = new BoundedTtlCache<>("osv-vuln-details", detailsCacheSize, Duration.ofHours(24));
+    }
+
+    /**
+     * Look up OSV vulnerabilities for all libraries
+     *
+     * @param libraries Libraries to scan (not modified)
+     * @return One list per input library, in input order (empty if not covered by OSV);
+     *         null for a library whose result is unknown because a request failed
+     */
+    public List<List<Vulnerability>> scan(List<Library> libraries) {
+        long start = System.currentTimeMillis();
+        List<List<Vulnerability>> results = new ArrayList<>(libraries.size());
+        List<Set<String>> idsPerLibrary = new ArrayList<>(libraries.size());
+        boolean[] unknown = new boolean[libraries.size()];
+
+        // STEP 1: group the OSV queries by ecosystem (input index -> query)
+        Map<String, Map<Integer, Map<String, Object>>> queriesByEcosystem = new TreeMap<>();
+        for (int i = 0; i < libraries.size(); i++) {
+            results.add(new ArrayList<>());
+            idsPerLibrary.add(new LinkedHashSet<>());
+
+            Map<String, Object> query = securityVulnerabilityService.buildOsvQuery(libraries.get(i));
+            if (query != null) {
+                @SuppressWarnings("unchecked")
+                String ecosystem = ((Map<String, String>) query.get("package")).get("ecosystem");
+                queriesByEcosystem.computeIfAbsent(ecosystem, e -> new LinkedHashMap<>()).put(i, query);
+            }
+        }
+
+        // STEP 2: querybatch per ecosystem, in chunks of 1000 -> vuln id + modified per library
+        Map<String, String> modifiedById = new HashMap<>();
+        int requests = 0;
+        for (Map<Integer, Map<String, Object>> queries : queriesByEcosystem.values()) {
+            List<Integer> indexes = new ArrayList<>(queries.keySet());
+            for (int from = 0; from < indexes.size(); from += MAX_QUERIES_PER_BATCH) {
+                List<Integer> chunk = indexes.subList(from, Math.min(indexes.size(), from + MAX_QUERIES_PER_BATCH));
+                requests += queryBatch(chunk, queries, idsPerLibrary, modifiedById, unknown);
+            }
+        }
+
+        // STEP 3: hydrate only ids whose record is not cached at this modified timestamp
+        Map<String, JsonNode> details = hydrate(modifiedById);
+
+        // STEP 4: build per-library entities
+        int found = 0;
+        int unknownCount = 0;
+        for (int i = 0; i < libraries.size(); i++) {
+            // A missing record would silently shorten the list, so the whole result is unknown
+            if (!unknown[i] && !details.keySet().containsAll(idsPerLibrary.get(i))) {
+                unknown[i] = true;
+            }
+            if (unknown[i]) {
+                results.set(i, null);
+                unknownCount++;
+                continue;
+            }
+            for (String id : idsPerLibrary.get(i)) {
+                JsonNode record = details.get(id);
+                Vulnerability vulnerability = securityVulnerabilityService.parseOsvVulnerability(record, libraries.get(i));
+                if (vulnerability != null) {
+                    results.get(i).add(vulnerability);
+                    found++;
+                }
+            }
+        }
+
+        System.out.println("[osv] Scanned " + libraries.size() + " libraries with " + requests + " querybatch request(s), "
+                + modifiedById.size() + " distinct vulnerabilities, " + found + " matches, "
+                + unknownCount + " unknown (failed lookups) in " + (System.currentTimeMillis() - start) + "ms");
+        return results;
+    }
+
+    /**
+     * scan() plus storeVulnerabilities() for libraries enriched with the OSV lookup deferred
+     * (LibraryIOMapperDTO.enrichWithDetailedInfo(library, details, true)): merges each OSV result with the
+     * GitHub advisories the library already holds, caches it and replaces the library's vulnerabilities
+     *
+     * A library whose OSV result is unknown keeps what it has and nothing is cached, so the next load asks again
+     *
+     * @param tag Log prefix of the caller (e.g. "ingest")
+     */
+    public void scanAndStore(List<Library> libraries, String tag) {
+        if (libraries.isEmpty()) {
+            return;
+        }
+        try {
+            List<List<Vulnerability>> osvResults = scan(libraries);
+            for (int i = 0; i < libraries.size(); i++) {
+                Library library = libraries.get(i);
+                if (osvResults.get(i) == null) {
+                    System.err.println("  ⚠ [" + tag + "] OSV result unknown for " + library.getName() + ", not cached");
+                    continue;
+                }
+                // The library holds its GitHub advisories so far (unless that lookup failed); merge, cache and update the flags
+                List<Vulnerability> advisories = library.isAdvisoriesLookupFailed()
+                        ? null
+                        : new ArrayList<>(library.getVulnerabilities());
+                List<Vulnerability> merged = securityVulnerabilityService.storeVulnerabilities(
+                        library, osvResults.get(i), advisories);
+                library.getVulnerabilities().clear();
+                library.getVulnerabilities().addAll(merged);
+            }
+        } catch (Exception e) {
+            System.err.println("  ⚠ [" + tag + "] OSV batch scan failed, saving without OSV results: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One querybatch request (plus follow-up pages for queries OSV truncated)
+     * Libraries whose answer is missing or incomplete are flagged in unknown
+     *
+     * @return Number of HTTP requests made
+     */
+    private int queryBatch(List<Integer> indexes, Map<Integer, Map<String, Object>> queries,
+                           List<Set<String>> idsPerLibrary, Map<String, String> modifiedById, boolean[] unknown) {
+        int requests = 0;
+        List<Integer> pending = new ArrayList<>(indexes);
+        Map<Integer, String> pageTokens = new HashMap<>();
+
+        for (int page = 0; page < MAX_PAGES_PER_QUERY && !pending.isEmpty(); page++) {
+            List<Map<String, Object>> body = new ArrayList<>(pending.size());
+            for (Integer index : pending) {
+                Map<String, Object> query = new HashMap<>(queries.get(index));
+                String token = pageTokens.get(index);
+                if (token != null) {
+                    query.put("page_token", token);
+                }
+                body.add(query);
+            }
+
+            JsonNode results;
+            try {
+                UpstreamHttpClient.UpstreamResponse response = httpClient.postJson(OSV_QUERYBATCH_URL,
+                        objectMapper.writeValueAsString(Map.of("queries", body)), Map.of("Accept", "application/json"));
+                requests++;
+                if (!response.isOk()) {
+                    System.err.println("[osv] querybatch failed: " + (response.getStatus() == 0
+                            ? response.getError() : "HTTP " + response.getStatus()));
+                    pending.forEach(index -> unknown[index] = true);
+                    return requests;
+                }
+                results = objectMapper.readTree(response.getBody()).path("results");
+            } catch (Exception e) {
+                System.err.println("[osv] querybatch failed: " + e.getMessage());
+                pending.forEach(index -> unknown[index] = true);
+                return requests;
+            }
+
+            // OSV answers one result per query; anything short of that is a broken answer
+            for (int i = results.size(); i < pending.size(); i++) {
+                unknown[pending.get(i)] = true;
+            }
+
+            List<Integer> nextPending = new ArrayList<>();
+            for (int i = 0; i < pending.size() && i < results.size(); i++) {
+                Integer index = pending.get(i);
+                JsonNode result = results.get(i);
+                for (JsonNode vuln : result.path("vulns")) {
+                    String id = vuln.path("id").asText(null);
+                    if (id != null) {
+                        idsPerLibrary.get(index).add(id);
+                        modifiedById.put(id, vuln.path("modified").asText(""));
+                    }
+                }
+                String nextToken = result.path("next_page_token").asText(null);
+                if (nextToken != null && !nextToken.isEmpty()) {
+                    pageTokens.put(index, nextToken);
+                    nextPending.add(index);
+                }
+            }
+            pending = nextPending;
+        }
+        // Still paginating after MAX_PAGES_PER_QUERY: the id list is incomplete
+        pending.forEach(index -> unknown[index] = true);
+        return requests;
+    }
+
+    private Map<String, JsonNode> hydrate(Map<String, String> modifiedById) {
+        Map<String, JsonNode> details = new HashMap<>();
+        Map<String, CompletableFuture<JsonNode>> fetches = new LinkedHashMap<>();
+
+        modifiedById.forEach((id, modified) -> {
+            String cacheKey = id + "|" + modified;
+            JsonNode cached = vulnDetails.get(cacheKey);
+            if (cached != null) {
+                details.put(id, cached);
+            } else {
+                fetches.put(id, enrichmentExecutor.submit("OSV record " + id, () -> fetchVulnerability(id), null));
+            }
+        });
+
+        if (!fetches.isEmpty()) {
+            enrichmentExecutor.joinAll(fetches.values().toArray(new CompletableFuture<?>[0]));
+            fetches.forEach((id, fetch) -> {
+                JsonNode record = fetch.join();
+                if (record != null) {
+                    details.put(id, record);
+                    vulnDetails.put(id + "|" + modifiedById.get(id), record);
+                }
+            });
+            System.out.println("[osv] Hydrated " + fetches.size() + " new vulnerability records ("
+                    + (modifiedById.size() - fetches.size()) + " cached)");
+        }
+        return details;
+    }
+
+    private JsonNode fetchVulnerability(String id) {
+        UpstreamHttpClient.UpstreamResponse response =
+                httpClient.get(OSV_VULN_URL + id, Map.of("Accept", "application/json"));
+        if (!response.isOk()) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(response.getBody());
+        } catch (Exception e) {
+            System.err.println("[osv] Could not parse " + id + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public Map<String, Object> getCacheStats() {
+        return vulnDetails.getStats();
+    }
+}
@@ -0,0 +1,464 @@
+package com.project.library_comparison_tool.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The one HTTP client for every external call (libraries.io, GitHub, OSV, package registries)
+ *
+ * - A single java.net.http.HttpClient: keeps connections alive and pooled per host and negotiates HTTP/2,
+ *   so TLS handshakes are paid once per host instead of once per request
+ * - Asks for gzip and decompresses transparently
+ * - Goes through UpstreamRateLimiter before and after every request
+ * - A short connect timeout, and a separate, longer response timeout (per host: app.http.timeouts) for the
+ *   exchange itself, plus per-host request / error / latency / byte counters
+ * - URLs with characters a URI does not allow (spaces, non-ASCII package names) are percent-encoded
+ * - getConditional() remembers ETag / Last-Modified per URL and revalidates with If-None-Match /
+ *   If-Modified-Since; a 304 comes back with the remembered body and isNotModified() set
+ *
+ * - Answers from captured hosts are kept in UpstreamPayloadStore; in replay / offline mode a replay job's calls are
+ *   served from there without touching the network or the rate limiter
+ *
+ * Never throws: network errors, skipped calls (rate limit) and non-2xx answers all come back as an
+ * UpstreamResponse, so callers keep their "null / empty on failure" style.
+ */
+@Service
+public class UpstreamHttpClient {
+
+    private static final String USER_AGENT = "LibraryComparisonTool/1.0";
+
+    private final HttpClient client;
+    private final UpstreamRateLimiter rateLimiter;
+    private final UpstreamPayloadStore payloadStore;
+    private final Duration defaultTimeout;
+    private final Map<String, Duration> hostTimeouts = new ConcurrentHashMap<>();
+    private final Map<String, HostMetrics> metrics = new ConcurrentHashMap<>();
+
+    // Validators + last body per URL for conditional GETs, bounded by entries and by total body bytes
+    private final BoundedTtlCache<String, Validators> validators;
+    private final int maxValidatedBodyBytes;
+
+    public UpstreamHttpClient(UpstreamRateLimiter rateLimiter,
+                              UpstreamPayloadStore payloadStore,
+                              @Value("${app.http.connect-timeout-ms:3000}") long connectTimeoutMillis,
+                              @Value("${app.http.response-timeout-ms:30000}") long responseTimeoutMillis,
+                              @Value("${app.http.timeouts:}") String hostTimeoutOverrides,
+                              @Value("${app.http.conditional.max-entries:10000}") int conditionalMaxEntries,
+                              @Value("${app.http.conditional.ttl-hours:168}") long conditionalTtlHours,
+                              @Value("${app.http.conditional.max-body-bytes:262144}") int maxValidatedBodyBytes,
+                              @Value("${app.http.conditional.max-total-bytes:67108864}") long maxValidatedTotalBytes) {
+        this(HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)            // falls back to HTTP/1.1 where not offered
+                        .followRedirects(HttpClient.Redirect.NORMAL)
+                        .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                        .build(),
+                rateLimiter, payloadStore, responseTimeoutMillis, hostTimeoutOverrides,
+                conditionalMaxEntries, conditionalTtlHours, maxValidatedBodyBytes, maxValidatedTotalBytes);
+    }
+
+    // Tests: the same client on a stubbed transport
+    UpstreamHttpClient(HttpClient client, UpstreamRateLimiter rateLimiter, UpstreamPayloadStore payloadStore) {
+        this(client, rateLimiter, payloadStore, 30000, "", 10000, 168, 262144, 67108864);
+    }
+
+    private UpstreamHttpClient(HttpClient client,
+                               UpstreamRateLimiter rateLimiter,
+                               UpstreamPayloadStore payloadStore,
+                               long responseTimeoutMillis,
+                               String hostTimeoutOverrides,
+                               int conditionalMaxEntries,
+                               long conditionalTtlHours,
+                               int maxValidatedBodyBytes,
+                               long maxValidatedTotalBytes) {
+        this.client = client;
+        this.rateLimiter = rateLimiter;
+        this.payloadStore = payloadStore;
+        this.validators = new BoundedTtlCache<>("http-validators", conditionalMaxEntries, maxValidatedTotalBytes,
+                v -> v.bodyBytes, Duration.ofHours(conditionalTtlHours));
+        this.maxValidatedBodyBytes = maxValidatedBodyBytes;
+        this.defaultTimeout = Duration.ofMillis(responseTimeoutMillis);
+
+        // A querybatch of up to 1000 packages, and single queries for popular packages, return large payloads
+        hostTimeouts.put("api.osv.dev", Duration.ofSeconds(60));
+        parseTimeouts(hostTimeoutOverrides);
+    }
+
+    /**
+     * GET a URL
+     *
+     * @param url Absolute URL
+     * @param headers Extra request headers (may be empty)
+     */
+    public UpstreamResponse get(String url, Map<String, String> headers) {
+        return send(url, "GET", null, headers);
+    }
+
+    /**
+     * GET a URL, revalidating the previous answer for it if the server sent an ETag or Last-Modified
+     * Use for data that is re-read on every refresh (registry metadata, libraries.io, GitHub)
+     *
+     * @return On 304 the previous body with isNotModified() true, otherwise the same as get()
+     */
+    public UpstreamResponse getConditional(String url, Map<String, String> headers) {
+        Validators previous = validators.get(url);
+        if (previous == null) {
+            return remember(url, send(url, "GET", null, headers));
+        }
+
+        Map<String, String> conditionalHeaders = new LinkedHashMap<>(headers);
+        if (previous.etag != null) {
+            conditionalHeaders.put("If-None-Match", previous.etag);
+        }
+        if (previous.lastModified != null) {
+            conditionalHeaders.put("If-Modified-Since", previous.lastModified);
+        }
+
+        UpstreamResponse response = send(url, "GET", null, conditionalHeaders);
+        if (response.getStatus() == 304) {
+            validators.put(url, previous); // refresh the TTL
+            return response.withBody(previous.body);
+        }
+        return remember(url, response);
+    }
+
+    private UpstreamResponse remember(String url, UpstreamResponse response) {
+        if (!response.isOk() || response.getBody() == null) {
+            return response;
+        }
+        String etag = response.getHeader("ETag");
+        String lastModified = response.getHeader("Last-Modified");
+        if (etag == null && lastModified == null) {
+            return response;
+        }
+        long bodyBytes = utf8Length(response.getBody());
+        if (bodyBytes <= maxValidatedBodyBytes) {
+            validators.put(url, new Validators(etag, lastModified, response.getBody(), bodyBytes));
+        }
+        return response;
+    }
+
+    // Encoded size without encoding (String.length() counts UTF-16 chars, not bytes)
+    static long utf8Length(String text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isSurrogate(c)) {
+                bytes += 2; // a pair encodes to 4 bytes
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * POST a JSON body
+     */
+    public UpstreamResponse postJson(String url, String jsonBody, Map<String, String> headers) {
+        Map<String, String> withContentType = new LinkedHashMap<>(headers);
+        withContentType.put("Content-Type", "application/json");
+        return send(url, "POST", jsonBody, withContentType);
+    }
+
+    private UpstreamResponse send(String url, String method, String body, Map<String, String> headers) {
+        String host = hostOf(url);
+        HostMetrics hostMetrics = metrics.computeIfAbsent(host, h -> new HostMetrics());
+
+        if (payloadStore.replays(host)) {
+            String stored = payloadStore.find(method, url, body);
+            if (stored != null) {
+                hostMetrics.replayed.incrementAndGet();
+                return new UpstreamResponse(200, stored, null, null);
+            }
+            if (payloadStore.isOffline()) {
+                return UpstreamResponse.failed("offline: no stored answer for " + host);
+            }
+        }
+
+        URI uri;
+        try {
+            uri = toUri(url);
+        } catch (IllegalArgumentException e) {
+            hostMetrics.recordError(0);
+            return UpstreamResponse.failed("invalid URL: " + e.getMessage());
+        }
+
+        if (!rateLimiter.acquire(url)) {
+            hostMetrics.skipped.incrementAndGet();
+            return UpstreamResponse.failed("rate limit wait exceeded for " + host);
+        }
+
+        long start = System.nanoTime();
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                    .timeout(hostTimeouts.getOrDefault(host, defaultTimeout))
+                    .header("User-Agent", USER_AGENT)
+                    .header("Accept-Encoding", "gzip");
+            headers.forEach(request::header);
+            request.method(method, body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            rateLimiter.onResponse(url, response.statusCode(), name -> response.headers().firstValue(name).orElse(null));
+
+            byte[] raw = response.body();
+            String text = decode(raw, response.headers());
+            hostMetrics.record(response.statusCode(), raw.length, System.nanoTime() - start);
+            if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                payloadStore.record(host, method, url, body, text);
+            }
+            return new UpstreamResponse(response.statusCode(), text, response.headers(), null);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            hostMetrics.recordError(System.nanoTime() - start);
+            return UpstreamResponse.failed("interrupted");
+        } catch (IOException | IllegalArgumentException e) {
+            hostMetrics.recordError(System.nanoTime() - start);
+            return UpstreamResponse.failed(e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Per-host request counts, status classes, errors, average latency and bytes received
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        stats.put("validators", validators.getStats());
+        metrics.forEach((host, hostMetrics) -> {
+            Map<String, Object> hostStats = hostMetrics.snapshot();
+            hostStats.put("timeoutMs", hostTimeouts.getOrDefault(host, defaultTimeout).toMillis());
+            stats.put(host, hostStats);
+        });
+        return stats;
+    }
+
+    private static String decode(byte[] raw, HttpHeaders headers) throws IOException {
+        boolean gzip = headers.firstValue("Content-Encoding")
+                .map(encoding -> encoding.toLowerCase(Locale.ROOT).contains("gzip"))
+                .orElse(false);
+        if (!gzip) {
+            return new String(raw, StandardCharsets.UTF_8);
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(raw))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * The URL as a URI, percent-encoding (as UTF-8) every character a URI may not contain; existing escapes,
+     * reserved characters and the query structure are kept
+     *
+     * @throws IllegalArgumentException if the URL is still not a valid absolute URI
+     */
+    static URI toUri(String url) {
+        StringBuilder encoded = new StringBuilder(url.length() + 16);
+        for (int i = 0; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '%' ? isEscape(url, i) : (c > 0x20 && c < 0x7F && "\"<>\\^`{|}".indexOf(c) < 0)) {
+                encoded.append(c);
+                continue;
+            }
+            int end = Character.isHighSurrogate(c) && i + 1 < url.length() ? i + 2 : i + 1;
+            for (byte b : url.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                encoded.append('%')
+                        .append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
+            i = end - 1;
+        }
+        URI uri = URI.create(encoded.toString());
+        if (!uri.isAbsolute() || uri.getHost() == null) {
+            throw new IllegalArgumentException("not an absolute URL: " + url);
+        }
+        return uri;
+    }
+
+    // "%" followed by two hex digits is already an escape; any other "%" is literal
+    private static boolean isEscape(String url, int at) {
+        return at + 2 < url.length()
+                && Character.digit(url.charAt(at + 1), 16) >= 0
+                && Character.digit(url.charAt(at + 2), 16) >= 0;
+    }
+
+    private static String hostOf(String url) {
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = start;
+        while (end < url.length() && "/:?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return url.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+
+    // Format: host=millis,host=millis (e.g. "api.osv.dev=15000,libraries.io=8000")
+    private void parseTimeouts(String overrides) {
+        if (overrides == null || overrides.isBlank()) {
+            return;
+        }
+        for (String entry : overrides.split(",")) {
+            String[] hostAndMillis = entry.trim().split("=", 2);
+            if (hostAndMillis.length != 2) {
+                continue;
+            }
+            try {
+                hostTimeouts.put(hostAndMillis[0].trim().toLowerCase(Locale.ROOT),
+                        Duration.ofMillis(Long.parseLong(hostAndMillis[1].trim())));
+            } catch (NumberFormatException e) {
+                System.err.println("[http] Ignoring malformed timeout '" + entry + "'");
+            }
+        }
+    }
+
+    private static final class Validators {
+        private final String etag;
+        private final String lastModified;
+        private final String body;
+        private final long bodyBytes;
+
+        private Validators(String etag, String lastModified, String body, long bodyBytes) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = body;
+            this.bodyBytes = bodyBytes;
+        }
+    }
+
+    /**
+     * Result of an outbound call; status 0 means no HTTP answer (network error, timeout or skipped by the rate limiter)
+     */
+    public static final class UpstreamResponse {
+        private final int status;
+        private final String body;
+        private final HttpHeaders headers;
+        private final String error;
+        private final boolean notModified;
+
+        private UpstreamResponse(int status, String body, HttpHeaders headers, String error) {
+            this(status, body, headers, error, false);
+        }
+
+        private UpstreamResponse(int status, String body, HttpHeaders headers, String error, boolean notModified) {
+            this.status = status;
+            this.body = body;
+            this.headers = headers;
+            this.error = error;
+            this.notModified = notModified;
+        }
+
+        private static UpstreamResponse failed(String error) {
+            return new UpstreamResponse(0, null, null, error);
+        }
+
+        // 304 answered with the body remembered from the previous 200
+        private UpstreamResponse withBody(String previousBody) {
+            return new UpstreamResponse(status, previousBody, headers, error, true);
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * 2xx, or a 304 from getConditional() (the body is then the previous one)
+         */
+        public boolean isOk() {
+            return (status >= 200 && status < 300) || notModified;
+        }
+
+        /**
+         * True if the server confirmed the previous answer is still current (nothing changed upstream)
+         */
+        public boolean isNotModified() {
+            return notModified;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public String getHeader(String name) {
+            return headers != null ? headers.firstValue(name).orElse(null) : null;
+        }
+
+        /**
+         * Why there is no HTTP status (null when the server answered)
+         */
+        public String getError() {
+            return error;
+        }
+    }
+
+    private static final class HostMetrics {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong success = new AtomicLong();
+        private final AtomicLong notModified = new AtomicLong();
+        private final AtomicLong clientErrors = new AtomicLong();
+        private final AtomicLong serverErrors = new AtomicLong();
+        private final AtomicLong networkErrors = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong replayed = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+
+        private void record(int status, long byteCount, long nanos) {
+            requests.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            bytes.addAndGet(byteCount);
+            if (status >= 500) {
+                serverErrors.incrementAndGet();
+            } else if (status >= 400) {
+                clientErrors.incrementAndGet();
+            } else if (status == 304) {
+                notModified.incrementAndGet();
+            } else {
+                success.incrementAndGet();
+            }
+        }
+
+        private void recordError(long nanos) {
+            requests.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            networkErrors.incrementAndGet();
+        }
+
+        private Map<String, Object> snapshot() {
+            long count = requests.get();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", count);
+            stats.put("success", success.get());
+            stats.put("notModified", notModified.get());
+            stats.put("clientErrors", clientErrors.get());
+            stats.put("serverErrors", serverErrors.get());
+            stats.put("networkErrors", networkErrors.get());
+            stats.put("skippedByRateLimit", skipped.get());
+            stats.put("replayedFromStore", replayed.get());
+            stats.put("avgLatencyMs", count == 0 ? 0 : totalNanos.get() / count / 1_000_000);
+            stats.put("bytesReceived", bytes.get());
+            return stats;
+        }
+    }
+}
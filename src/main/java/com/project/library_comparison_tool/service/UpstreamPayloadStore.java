@@ -0,0 +1,452 @@
+package com.project.library_comparison_tool.service;
+
+import com.project.library_comparison_tool.entity.UpstreamPayload;
+import com.project.library_comparison_tool.entity.UpstreamPayloadRef;
+import com.project.library_comparison_tool.repository.UpstreamPayloadRefRepository;
+import com.project.library_comparison_tool.repository.UpstreamPayloadRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Local copy of the raw upstream responses that mapping and enrichment are built from
+ *
+ * UpstreamHttpClient hands every 2xx answer from a captured host (libraries.io, OSV, package registries, GitHub)
+ * to record(); a single writer thread compresses and saves them in batches, off the ingestion threads.
+ * Bodies are deflate-compressed and stored once per content hash; each request (method + URL without the
+ * libraries.io api_key + request body) points at its latest body.
+ *
+ * Modes (app.payloads.mode, switchable at runtime):
+ * - off: nothing is stored or replayed
+ * - record: network as usual, answers are stored
+ * - replay: a replay job gets stored answers without touching the network; its misses go upstream and are stored
+ * - offline: a replay job gets stored answers only; a miss fails like a network error
+ *
+ * Stored answers are only served inside inReplayScope() (LibraryReplayService). Schedulers, ingestion and user
+ * requests always use the network, so they never write stale bodies back; in replay mode they are still recorded.
+ */
+@Service
+public class UpstreamPayloadStore {
+
+    public enum Mode { OFF, RECORD, REPLAY, OFFLINE }
+
+    // True on the threads of a replay job and the enrichment calls they start
+    private static final ThreadLocal<Boolean> REPLAY_SCOPE = ThreadLocal.withInitial(() -> false);
+
+    // Everything mapping and enrichment read: libraries.io, OSV, the registries DeprecationService checks, GitHub READMEs
+    private static final String DEFAULT_HOSTS = "libraries.io,api.osv.dev,registry.npmjs.org,pypi.org,api.nuget.org,"
+            + "crates.io,rubygems.org,api.github.com,raw.githubusercontent.com";
+
+    private final UpstreamPayloadRepository payloadRepository;
+    private final UpstreamPayloadRefRepository refRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<String> hosts;
+    private final int maxBodyBytes;
+    private final int writeBatchSize;
+    private volatile Mode mode;
+
+    private final BlockingQueue<Capture> queue;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payload-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong captured = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong newPayloads = new AtomicLong();
+    private final AtomicLong duplicatePayloads = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+    private final AtomicLong replayHits = new AtomicLong();
+    private final AtomicLong replayMisses = new AtomicLong();
+
+    public UpstreamPayloadStore(UpstreamPayloadRepository payloadRepository,
+                                UpstreamPayloadRefRepository refRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.payloads.mode:record}") String mode,
+                                @Value("${app.payloads.hosts:" + DEFAULT_HOSTS + "}") String hosts,
+                                @Value("${app.payloads.max-body-bytes:4194304}") int maxBodyBytes,
+                                @Value("${app.payloads.queue-capacity:10000}") int queueCapacity,
+                                @Value("${app.payloads.write-batch-size:100}") int writeBatchSize) {
+        this.payloadRepository = payloadRepository;
+        this.refRepository = refRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = parseMode(mode);
+        this.hosts = Arrays.stream(hosts.split(","))
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toSet());
+        this.maxBodyBytes = maxBodyBytes;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.writeBatchSize = Math.max(1, writeBatchSize);
+        writer.submit(this::writeLoop);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+        System.out.println("[payloads] Mode set to " + mode.name().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown mode name
+     */
+    public static Mode parseMode(String mode) {
+        try {
+            return Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Unknown payload store mode '" + mode + "' (off, record, replay, offline)");
+        }
+    }
+
+    /**
+     * Run a replay job's work with its upstream calls answered from the store (in replay / offline mode)
+     */
+    public static <T> T inReplayScope(Supplier<T> work) {
+        boolean previous = REPLAY_SCOPE.get();
+        REPLAY_SCOPE.set(true);
+        try {
+            return work.get();
+        } finally {
+            REPLAY_SCOPE.set(previous);
+        }
+    }
+
+    /**
+     * The call, carrying the current thread's replay scope to whichever thread runs it (see EnrichmentExecutor)
+     */
+    public static <T> Supplier<T> withCurrentScope(Supplier<T> call) {
+        return REPLAY_SCOPE.get() ? () -> inReplayScope(call) : call;
+    }
+
+    /**
+     * True if this call should be answered from the store first (a replay job calling a captured host)
+     */
+    public boolean replays(String host) {
+        return (mode == Mode.REPLAY || mode == Mode.OFFLINE) && REPLAY_SCOPE.get() && hosts.contains(host);
+    }
+
+    public boolean isOffline() {
+        return mode == Mode.OFFLINE;
+    }
+
+    /**
+     * Queue a 2xx answer for storage (never blocks; dropped if the writer is behind)
+     */
+    public void record(String host, String method, String url, String requestBody, String responseBody) {
+        if ((mode != Mode.RECORD && mode != Mode.REPLAY) || !hosts.contains(host)
+                || responseBody == null || UpstreamHttpClient.utf8Length(responseBody) > maxBodyBytes) {
+            return;
+        }
+        String storedUrl = withoutCredentials(url);
+        Capture capture = new Capture(requestKey(method, storedUrl, requestBody), method, storedUrl, host,
+                responseBody, LocalDateTime.now());
+        if (queue.offer(capture)) {
+            captured.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Stored answer for a request
+     *
+     * @return The response body, or null if this request was never stored
+     */
+    public String find(String method, String url, String requestBody) {
+        Optional<UpstreamPayload> payload = payloadRepository.findByRequestKey(
+                requestKey(method, withoutCredentials(url), requestBody));
+        if (payload.isEmpty()) {
+            replayMisses.incrementAndGet();
+            return null;
+        }
+        replayHits.incrementAndGet();
+        return inflate(payload.get());
+    }
+
+    /**
+     * One keyset page of the stored answers for a host (replay jobs)
+     *
+     * @param afterKey Request key of the last answer of the previous page ("" for the first page)
+     */
+    public List<StoredResponse> page(String host, String afterKey, int size) {
+        List<UpstreamPayloadRef> refs = refRepository.findByHostAfter(host, afterKey, PageRequest.of(0, size));
+        Map<String, UpstreamPayload> payloads = new HashMap<>();
+        payloadRepository.findAllById(refs.stream().map(UpstreamPayloadRef::getContentHash).distinct().toList())
+                .forEach(payload -> payloads.put(payload.getContentHash(), payload));
+
+        List<StoredResponse> responses = new ArrayList<>(refs.size());
+        for (UpstreamPayloadRef ref : refs) {
+            UpstreamPayload payload = payloads.get(ref.getContentHash());
+            if (payload != null) {
+                responses.add(new StoredResponse(ref.getRequestKey(), ref.getUrl(), inflate(payload)));
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Drop bodies no request points at any more (replaced by a newer answer)
+     */
+    @Scheduled(cron = "${app.payloads.prune-cron:0 45 3 * * *}")
+    public void pruneUnreferenced() {
+        try {
+            int removed = payloadRepository.deleteUnreferenced();
+            if (removed > 0) {
+                System.out.println("[payloads] Pruned " + removed + " unreferenced payloads");
+            }
+        } catch (Exception e) {
+            System.err.println("[payloads] ⚠ Prune failed: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", mode.name().toLowerCase(Locale.ROOT));
+        stats.put("hosts", hosts);
+        stats.put("queued", queue.size());
+        stats.put("captured", captured.get());
+        stats.put("dropped", dropped.get());
+        stats.put("newPayloads", newPayloads.get());
+        stats.put("duplicatePayloads", duplicatePayloads.get());
+        stats.put("writeErrors", writeErrors.get());
+        stats.put("replayHits", replayHits.get());
+        stats.put("replayMisses", replayMisses.get());
+        try {
+            long rawBytes = payloadRepository.sumRawSize();
+            long storedBytes = payloadRepository.sumStoredSize();
+            stats.put("requests", refRepository.count());
+            stats.put("payloads", payloadRepository.count());
+            stats.put("rawBytes", rawBytes);
+            stats.put("storedBytes", storedBytes);
+            stats.put("compressionRatio", storedBytes == 0 ? 0 : Math.round(rawBytes * 100.0 / storedBytes) / 100.0);
+        } catch (Exception e) {
+            stats.put("error", e.getMessage());
+        }
+        return stats;
+    }
+
+    // Single writer: batches of captures -> one transaction each
+    private void writeLoop() {
+        List<Capture> batch = new ArrayList<>(writeBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Capture first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, writeBatchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                writeErrors.incrementAndGet();
+                System.err.println("[payloads] ⚠ Could not store " + batch.size() + " payloads: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Capture> batch) {
+        // Hash and compress outside the transaction; identical bodies in one batch are compressed once
+        Map<String, Capture> byHash = new LinkedHashMap<>();
+        Map<String, String> hashByRequest = new LinkedHashMap<>();
+        Map<String, Capture> latestByRequest = new LinkedHashMap<>();
+        for (Capture capture : batch) {
+            String hash = sha256(capture.body.getBytes(StandardCharsets.UTF_8));
+            byHash.putIfAbsent(hash, capture);
+            hashByRequest.put(capture.requestKey, hash);
+            latestByRequest.put(capture.requestKey, capture);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> known = payloadRepository.findAllById(byHash.keySet()).stream()
+                    .map(UpstreamPayload::getContentHash)
+                    .collect(Collectors.toSet());
+            List<UpstreamPayload> created = new ArrayList<>();
+            byHash.forEach((hash, capture) -> {
+                if (known.contains(hash)) {
+                    duplicatePayloads.incrementAndGet();
+                    return;
+                }
+                byte[] raw = capture.body.getBytes(StandardCharsets.UTF_8);
+                byte[] compressed = deflate(raw);
+                created.add(UpstreamPayload.builder()
+                        .contentHash(hash)
+                        .body(compressed)
+                        .rawSize(raw.length)
+                        .storedSize(compressed.length)
+                        .storedAt(capture.fetchedAt)
+                        .build());
+            });
+            payloadRepository.saveAll(created);
+            newPayloads.addAndGet(created.size());
+
+            Map<String, UpstreamPayloadRef> refs = new HashMap<>();
+            refRepository.findAllById(latestByRequest.keySet()).forEach(ref -> refs.put(ref.getRequestKey(), ref));
+            List<UpstreamPayloadRef> changed = new ArrayList<>();
+            latestByRequest.forEach((requestKey, capture) -> {
+                UpstreamPayloadRef ref = refs.get(requestKey);
+                if (ref == null) {
+                    ref = UpstreamPayloadRef.builder()
+                            .requestKey(requestKey)
+                            .method(capture.method)
+                            .url(capture.url.length() > 2000 ? capture.url.substring(0, 2000) : capture.url)
+                            .host(capture.host)
+                            .build();
+                }
+                ref.setContentHash(hashByRequest.get(requestKey));
+                ref.setFetchedAt(capture.fetchedAt);
+                changed.add(ref);
+            });
+            refRepository.saveAll(changed);
+        });
+    }
+
+    // libraries.io authenticates with an api_key query parameter; it must not end up in the store
+    static String withoutCredentials(String url) {
+        int query = url.indexOf('?');
+        if (query < 0) {
+            return url;
+        }
+        String kept = Arrays.stream(url.substring(query + 1).split("&"))
+                .filter(param -> !param.startsWith("api_key="))
+                .collect(Collectors.joining("&"));
+        return kept.isEmpty() ? url.substring(0, query) : url.substring(0, query + 1) + kept;
+    }
+
+    private static String requestKey(String method, String url, String requestBody) {
+        String request = method + " " + url + "\n" + (requestBody != null ? requestBody : "");
+        return sha256(request.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // The raw size is stored, so the body inflates straight into a buffer of the right size
+    private static String inflate(UpstreamPayload payload) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(payload.getBody());
+            byte[] raw = new byte[payload.getRawSize()];
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int read = inflater.inflate(raw, length, raw.length - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != raw.length) {
+                throw new IllegalStateException("Truncated payload " + payload.getContentHash());
+            }
+            return new String(raw, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt payload " + payload.getContentHash() + ": " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Capture {
+        private final String requestKey;
+        private final String method;
+        private final String url;
+        private final String host;
+        private final String body;
+        private final LocalDateTime fetchedAt;
+
+        private Capture(String requestKey, String method, String url, String host, String body,
+                        LocalDateTime fetchedAt) {
+            this.requestKey = requestKey;
+            this.method = method;
+            this.url = url;
+            this.host = host;
+            this.body = body;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    /**
+     * A stored answer read back for replay
+     */
+    public static final class StoredResponse {
+        private final String requestKey;
+        private final String url;
+        private final String body;
+
+        private StoredResponse(String requestKey, String url, String body) {
+            this.requestKey = requestKey;
+            this.url = url;
+            this.body = body;
+        }
+
+        public String getRequestKey() {
+            return requestKey;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getBody() {
+            return body;
+        }
+    }
+}
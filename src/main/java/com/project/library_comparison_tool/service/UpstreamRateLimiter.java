@@ -0,0 +1,342 @@
+package com.project.library_comparison_tool.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Token-bucket rate limiter per upstream host (libraries.io, GitHub, OSV, package registries...)
+ *
+ * Every outbound call does acquire(url) before the request and onResponse(url, status, headers) after it:
+ * - Buckets refill continuously at the host's documented rate, so callers run at the allowed throughput
+ *   instead of sleeping a guessed fixed delay
+ * - Retry-After and X-RateLimit-Remaining / X-RateLimit-Reset from the server pause or shrink the bucket,
+ *   so a quota shared with other clients (same GitHub token) is respected too
+ * - A caller never waits longer than max-wait-ms; it gets false and skips the call instead
+ *   (unauthenticated GitHub has 60 requests/hour, blocking ingestion for that long is worse than a gap)
+ */
+@Service
+public class UpstreamRateLimiter {
+
+    private static final String DEFAULT_HOST = "*";
+
+    private final Map<String, Limit> limits = new LinkedHashMap<>();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final long maxWaitMillis;
+
+    public UpstreamRateLimiter(@Value("${github.api.token:}") String githubToken,
+                               @Value("${app.ratelimit.hosts:}") String hostOverrides,
+                               @Value("${app.ratelimit.max-wait-ms:30000}") long maxWaitMillis) {
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+
+        // Documented limits where the provider publishes one, polite defaults otherwise
+        limits.put("libraries.io", new Limit(60, 60, 5));                   // 60/minute per API key
+        boolean githubAuthenticated = githubToken != null && !githubToken.trim().isEmpty();
+        limits.put("api.github.com", githubAuthenticated
+                ? new Limit(5000, 3600, 100)                                 // 5,000/hour with token
+                : new Limit(60, 3600, 60));                                  // 60/hour unauthenticated
+        limits.put("raw.githubusercontent.com", new Limit(10, 1, 10));
+        limits.put("api.osv.dev", new Limit(25, 1, 25));
+        limits.put("registry.npmjs.org", new Limit(20, 1, 20));
+        limits.put("pypi.org", new Limit(10, 1, 10));
+        limits.put("api.nuget.org", new Limit(10, 1, 10));
+        limits.put("crates.io", new Limit(1, 1, 1));                         // crawler policy: 1 request/second
+        limits.put("rubygems.org", new Limit(10, 1, 10));
+        limits.put(DEFAULT_HOST, new Limit(5, 1, 5));
+
+        parseOverrides(hostOverrides);
+    }
+
+    /**
+     * Wait for a permit to call the URL's host
+     *
+     * @param url Full request URL (or bare host)
+     * @return true if the call may proceed, false if the wait would exceed max-wait-ms or the thread was interrupted
+     */
+    public boolean acquire(String url) {
+        TokenBucket bucket = bucketFor(url);
+        long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        long deadline = System.nanoTime() + maxWaitNanos;
+        long waitNanos = bucket.reserve(maxWaitNanos);
+        if (waitNanos < 0) {
+            bucket.skipped.incrementAndGet();
+            return false;
+        }
+        if (waitNanos > 0) {
+            bucket.waits.incrementAndGet();
+        }
+        // A 429 or exhausted quota seen by another caller while we slept pauses the host again: hand the token
+        // back and queue up behind the pause (so the calls owed after it stay spaced out)
+        while (waitNanos > 0) {
+            bucket.waitedNanos.addAndGet(waitNanos);
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                bucket.release();
+                return false;
+            }
+            if (bucket.pausedNanos() == 0) {
+                break;
+            }
+            bucket.release();
+            waitNanos = bucket.reserve(Math.max(0, deadline - System.nanoTime()));
+            if (waitNanos < 0) {
+                bucket.skipped.incrementAndGet();
+                return false;
+            }
+        }
+        bucket.granted.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * True while the host has told us to back off for longer than callers are willing to wait
+     * Lets a caller skip a multi-request strategy up front instead of failing on every call
+     */
+    public boolean isPaused(String url) {
+        TokenBucket bucket = bucketFor(url);
+        return bucket.pausedNanos() > TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    }
+
+    /**
+     * Feed response status and rate-limit headers back into the host's bucket
+     *
+     * @param url Request URL
+     * @param status HTTP status code
+     * @param header Header lookup by name (case-insensitive on the caller's side), returning null if absent
+     */
+    public void onResponse(String url, int status, Function<String, String> header) {
+        TokenBucket bucket = bucketFor(url);
+        long nowMillis = System.currentTimeMillis();
+
+        Long retryAfterMillis = parseRetryAfter(header.apply("Retry-After"), nowMillis);
+        Long remaining = parseLong(header.apply("X-RateLimit-Remaining"));
+        Long resetEpochSeconds = parseLong(header.apply("X-RateLimit-Reset"));
+
+        boolean throttled = status == 429 || (status == 403 && remaining != null && remaining == 0);
+        if (throttled || status == 503) {
+            bucket.throttled.incrementAndGet();
+        }
+
+        if (retryAfterMillis != null && (throttled || status == 503)) {
+            bucket.pauseFor(retryAfterMillis);
+            System.err.println("[rate-limit] " + bucket.host + " asked to retry after " + retryAfterMillis / 1000 + "s");
+        } else if (remaining != null && remaining == 0 && resetEpochSeconds != null) {
+            long pauseMillis = resetEpochSeconds * 1000 - nowMillis;
+            bucket.pauseFor(pauseMillis);
+            System.err.println("[rate-limit] " + bucket.host + " quota exhausted, resuming in " + Math.max(0, pauseMillis) / 1000 + "s");
+        } else if (status == 429) {
+            // Throttled without a hint - back off for one refill interval of the whole burst
+            bucket.pauseFor((long) (bucket.limit.burst / bucket.limit.permitsPerSecond() * 1000));
+        } else if (remaining != null) {
+            bucket.capTokens(remaining);
+        }
+    }
+
+    /**
+     * Sustained rate configured for the URL's host, for callers that plan background work within it
+     */
+    public double getPermitsPerSecond(String url) {
+        return bucketFor(url).limit.permitsPerSecond();
+    }
+
+    /**
+     * Per-host counters and current bucket state
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        buckets.forEach((host, bucket) -> stats.put(host, bucket.snapshot()));
+        return stats;
+    }
+
+    private TokenBucket bucketFor(String url) {
+        String host = hostOf(url);
+        return buckets.computeIfAbsent(host, h -> new TokenBucket(h, limits.getOrDefault(h, limits.get(DEFAULT_HOST))));
+    }
+
+    private static String hostOf(String url) {
+        if (url == null) {
+            return DEFAULT_HOST;
+        }
+        // Plain string scan - request URLs here are not always strictly encoded (spaces in search terms)
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = start;
+        while (end < url.length() && "/:?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return end > start ? url.substring(start, end).toLowerCase(Locale.ROOT) : DEFAULT_HOST;
+    }
+
+    // Format: host=permits/seconds[:burst],host=... (e.g. "libraries.io=60/60:5,api.osv.dev=50/1")
+    private void parseOverrides(String overrides) {
+        if (overrides == null || overrides.isBlank()) {
+            return;
+        }
+        for (String entry : overrides.split(",")) {
+            String[] hostAndLimit = entry.trim().split("=", 2);
+            if (hostAndLimit.length != 2) {
+                continue;
+            }
+            try {
+                String[] rateAndBurst = hostAndLimit[1].trim().split(":", 2);
+                String[] permitsAndSeconds = rateAndBurst[0].split("/", 2);
+                double permits = Double.parseDouble(permitsAndSeconds[0].trim());
+                double seconds = permitsAndSeconds.length > 1 ? Double.parseDouble(permitsAndSeconds[1].trim()) : 1;
+                double burst = rateAndBurst.length > 1 ? Double.parseDouble(rateAndBurst[1].trim()) : Math.max(1, permits / seconds);
+                limits.put(hostAndLimit[0].trim().toLowerCase(Locale.ROOT), new Limit(permits, seconds, burst));
+            } catch (NumberFormatException e) {
+                System.err.println("[rate-limit] Ignoring malformed limit '" + entry + "'");
+            }
+        }
+    }
+
+    private static Long parseRetryAfter(String value, long nowMillis) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Long seconds = parseLong(value);
+        if (seconds != null) {
+            return seconds * 1000;
+        }
+        try {
+            // HTTP-date form, e.g. "Wed, 21 Oct 2015 07:28:00 GMT"
+            long at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, at - nowMillis);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Limit {
+        private final double permits;
+        private final double seconds;
+        private final double burst;
+
+        private Limit(double permits, double seconds, double burst) {
+            this.permits = permits;
+            this.seconds = seconds;
+            this.burst = Math.max(1, burst);
+        }
+
+        private double permitsPerSecond() {
+            return permits / seconds;
+        }
+    }
+
+    /**
+     * Reservation-style bucket: a caller takes its token up front (the balance may go negative)
+     * and sleeps outside the lock until the refill covers it, so waiters are served in arrival order
+     */
+    private static final class TokenBucket {
+        private final String host;
+        private final Limit limit;
+        private final double permitsPerNano;
+
+        private double tokens;
+        private long lastRefillNanos;   // may lie in the future while the host asked us to pause
+
+        private final AtomicLong granted = new AtomicLong();
+        private final AtomicLong waits = new AtomicLong();
+        private final AtomicLong waitedNanos = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong throttled = new AtomicLong();
+
+        private TokenBucket(String host, Limit limit) {
+            this.host = host;
+            this.limit = limit;
+            this.permitsPerNano = limit.permitsPerSecond() / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = limit.burst;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        /**
+         * @return Nanoseconds to wait before calling, or -1 if that would exceed maxWaitNanos (nothing reserved)
+         */
+        private synchronized long reserve(long maxWaitNanos) {
+            long now = System.nanoTime();
+            refill(now);
+
+            long pausedNanos = Math.max(0, lastRefillNanos - now);
+            double balance = tokens - 1;
+            long waitNanos = pausedNanos + (balance >= 0 ? 0 : (long) Math.ceil(-balance / permitsPerNano));
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+            tokens = balance;
+            return waitNanos;
+        }
+
+        private synchronized long pausedNanos() {
+            return Math.max(0, lastRefillNanos - System.nanoTime());
+        }
+
+        /**
+         * Stop refilling until the host's pause ends; reservations already handed out stay owed
+         * (a positive balance is dropped, a negative one is kept and refilled from the resume time)
+         */
+        private synchronized void pauseFor(long millis) {
+            long now = System.nanoTime();
+            refill(now);
+            long resumeAt = now + TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+            if (resumeAt > lastRefillNanos) {
+                lastRefillNanos = resumeAt;
+            }
+            tokens = Math.min(tokens, 0);
+        }
+
+        // Hand back a reserved token that was not used
+        private synchronized void release() {
+            tokens = Math.min(limit.burst, tokens + 1);
+        }
+
+        private synchronized void capTokens(long remaining) {
+            refill(System.nanoTime());
+            tokens = Math.min(tokens, remaining);
+        }
+
+        private void refill(long now) {
+            if (now > lastRefillNanos) {
+                tokens = Math.min(limit.burst, tokens + (now - lastRefillNanos) * permitsPerNano);
+                lastRefillNanos = now;
+            }
+        }
+
+        private synchronized Map<String, Object> snapshot() {
+            refill(System.nanoTime());
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("permitsPerSecond", Math.round(limit.permitsPerSecond() * 10000) / 10000.0);
+            stats.put("burst", limit.burst);
+            stats.put("availableTokens", Math.round(tokens * 100) / 100.0);
+            stats.put("pausedForMs", Math.max(0, TimeUnit.NANOSECONDS.toMillis(lastRefillNanos - System.nanoTime())));
+            stats.put("granted", granted.get());
+            stats.put("waited", waits.get());
+            stats.put("totalWaitMs", TimeUnit.NANOSECONDS.toMillis(waitedNanos.get()));
+            stats.put("skipped", skipped.get());
+            stats.put("throttledResponses", throttled.get());
+            return stats;
+        }
+    }
+}
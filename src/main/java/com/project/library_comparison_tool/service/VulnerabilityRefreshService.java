@@ -0,0 +1,220 @@
+package com.project.library_comparison_tool.service;
+
+import com.project.library_comparison_tool.entity.Library;
+import com.project.library_comparison_tool.entity.Vulnerability;
+import com.project.library_comparison_tool.repository.LibraryRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Full-catalogue OSV security refresh, run in the background
+ * Pages through the catalogue, scans each page with one OSV querybatch (see OsvBatchScanner)
+ * and rewrites a library's OSV vulnerabilities only when its set of advisory ids changed.
+ * Vulnerabilities from other sources (GitHub advisories) are left alone, and so are libraries whose
+ * OSV result is unknown because the lookup failed.
+ * Each page is read in one short transaction and written in another; the OSV calls in between hold
+ * no database connection.
+ */
+@Service
+public class VulnerabilityRefreshService {
+
+    private static final int BATCH_SIZE = 1000; // one OSV querybatch per page
+    private static final String OSV_SOURCE = "OSV";
+
+    private final LibraryRepository libraryRepository;
+    private final OsvBatchScanner osvBatchScanner;
+    private final LibraryRescoringService rescoringService;
+    private final LibrarySearchIndex searchIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    // Runs are started from the API and walk the catalogue on this thread
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "osv-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile Counters current;
+    private volatile LocalDateTime startedAt;
+    private volatile Map<String, Object> lastRun;
+
+    public VulnerabilityRefreshService(LibraryRepository libraryRepository,
+                                       OsvBatchScanner osvBatchScanner,
+                                       LibraryRescoringService rescoringService,
+                                       LibrarySearchIndex searchIndex,
+                                       PlatformTransactionManager transactionManager) {
+        this.libraryRepository = libraryRepository;
+        this.osvBatchScanner = osvBatchScanner;
+        this.rescoringService = rescoringService;
+        this.searchIndex = searchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Start re-checking every library against OSV in the background
+     *
+     * @return false if a refresh is already running
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        current = new Counters();
+        startedAt = LocalDateTime.now();
+        coordinator.submit(() -> {
+            try {
+                lastRun = run(current);
+            } catch (RuntimeException e) {
+                System.err.println("[osv] ❌ Refresh failed: " + e.getMessage());
+                Map<String, Object> failed = current.toMap();
+                failed.put("error", e.getMessage());
+                lastRun = failed;
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Live counters of the current refresh (if any) and the result of the last finished one
+     * Counters: scanned, changed, unknown (OSV lookup failed, left as they were), vulnerabilities
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        if (running.get() && current != null) {
+            Map<String, Object> progress = current.toMap();
+            progress.put("startedAt", startedAt.toString());
+            status.put("current", progress);
+        }
+        status.put("lastRun", lastRun);
+        return status;
+    }
+
+    private Map<String, Object> run(Counters counters) {
+        long start = System.currentTimeMillis();
+        System.out.println("[osv] Refreshing vulnerabilities for the whole catalogue...");
+
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = libraryRepository.findIdsAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            refreshPage(ids, counters);
+        }
+
+        Map<String, Object> result = counters.toMap();
+        result.put("startedAt", startedAt.toString());
+        result.put("durationMs", System.currentTimeMillis() - start);
+        System.out.println("[osv] Refreshed " + counters.scanned.get() + " libraries (" + counters.changed.get()
+                + " changed, " + counters.unknown.get() + " unknown) in " + result.get("durationMs") + "ms");
+        return result;
+    }
+
+    private void refreshPage(List<Long> ids, Counters counters) {
+        // 1. Read the page; the entities are detached once the transaction ends (the scan only reads them)
+        List<Library> libraries = transactionTemplate.execute(status -> libraryRepository.findAllById(ids));
+
+        // 2. OSV querybatch + hydration without a transaction
+        List<List<Vulnerability>> osvResults = osvBatchScanner.scan(libraries);
+        Map<Long, List<Vulnerability>> osvById = new HashMap<>();
+        for (int i = 0; i < libraries.size(); i++) {
+            List<Vulnerability> osv = osvResults.get(i);
+            if (osv == null) {
+                counters.unknown.incrementAndGet();
+                continue;
+            }
+            counters.vulnerabilities.addAndGet(osv.size());
+            osvById.put(libraries.get(i).getId(), osv);
+        }
+        counters.scanned.addAndGet(libraries.size());
+
+        // 3. Short write transaction: apply the results to freshly loaded rows
+        if (osvById.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Library> updated = new ArrayList<>();
+            for (Library library : libraryRepository.findAllById(osvById.keySet())) {
+                if (replaceOsvVulnerabilities(library, osvById.get(library.getId()))) {
+                    rescoringService.rescoreIfChanged(library);
+                    updated.add(library);
+                }
+            }
+            libraryRepository.saveAll(updated);
+            searchIndex.indexAfterCommit(updated);
+            counters.changed.addAndGet(updated.size());
+        });
+    }
+
+    /**
+     * Swap the library's OSV vulnerabilities for the fresh ones if the advisory ids differ
+     *
+     * @return true if the library changed
+     */
+    private boolean replaceOsvVulnerabilities(Library library, List<Vulnerability> fresh) {
+        List<Vulnerability> current = new ArrayList<>();
+        List<Vulnerability> otherSources = new ArrayList<>();
+        for (Vulnerability vulnerability : library.getVulnerabilities()) {
+            (OSV_SOURCE.equals(vulnerability.getSource()) ? current : otherSources).add(vulnerability);
+        }
+
+        // GitHub advisories may already cover an id OSV reports - keep the existing one
+        Set<String> otherIds = ids(otherSources);
+        List<Vulnerability> additions = fresh.stream()
+                .filter(v -> v.getVulnerabilityId() == null || !otherIds.contains(v.getVulnerabilityId()))
+                .collect(Collectors.toList());
+
+        if (ids(current).equals(ids(additions))) {
+            return false;
+        }
+
+        current.forEach(library::removeVulnerability);
+        additions.forEach(library::addVulnerability);
+        return true;
+    }
+
+    private static Set<String> ids(List<Vulnerability> vulnerabilities) {
+        Set<String> ids = new HashSet<>();
+        for (Vulnerability vulnerability : vulnerabilities) {
+            ids.add(Objects.toString(vulnerability.getVulnerabilityId(), ""));
+        }
+        return ids;
+    }
+
+    private static final class Counters {
+        final AtomicLong scanned = new AtomicLong();
+        final AtomicLong changed = new AtomicLong();
+        final AtomicLong unknown = new AtomicLong();
+        final AtomicLong vulnerabilities = new AtomicLong();
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("scanned", scanned.get());
+            map.put("changed", changed.get());
+            map.put("unknown", unknown.get());
+            map.put("vulnerabilities", vulnerabilities.get());
+            return map;
+        }
+    }
+}
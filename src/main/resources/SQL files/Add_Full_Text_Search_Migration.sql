@@ -0,0 +1,30 @@
+-- ==========================================
+-- Full-Text Search Migration
+-- Applied automatically on startup by StartupMigrationRunner (idempotent)
+-- ==========================================
+
+-- Tags + categories as one text column (maintained by Library on save)
+ALTER TABLE library ADD COLUMN IF NOT EXISTS search_keywords TEXT;
+
+-- Backfill rows saved before the column existed
+UPDATE library l
+SET search_keywords = lower(concat_ws(' ', l.categories,
+        (SELECT string_agg(t.tag, ' ') FROM library_tags t WHERE t.library_id = l.id)))
+WHERE l.search_keywords IS NULL;
+
+-- Weighted full-text index: name (A) > tags/categories (B) > description (C)
+-- Expression must match LibrarySearchFunctionContributor.SEARCH_VECTOR exactly
+CREATE INDEX IF NOT EXISTS idx_library_search_vector ON library USING GIN (
+    (setweight(to_tsvector('english', coalesce(name, '')), 'A')
+     || setweight(to_tsvector('english', coalesce(search_keywords, '')), 'B')
+     || setweight(to_tsvector('english', coalesce(description, '')), 'C'))
+);
+
+-- Trigram indexes so partial-name LIKE '%q%' searches stop being sequential scans
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_library_name_lower_trgm ON library USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_library_name_upper_trgm ON library USING GIN (upper(name) gin_trgm_ops);
+
+-- ==========================================
+-- End of Migration
+-- ==========================================
@@ -0,0 +1,51 @@
+-- ==========================================
+-- Normalized Library Categories Migration
+-- Applied automatically on startup by StartupMigrationRunner (idempotent)
+-- ==========================================
+
+-- One row per (library, category); category holds the Category enum (entity package) name
+-- (hibernate ddl-auto=update also creates this table)
+CREATE TABLE IF NOT EXISTS library_category (
+    library_id BIGINT NOT NULL REFERENCES library(id),
+    category VARCHAR(32) NOT NULL,
+    PRIMARY KEY (library_id, category)
+);
+
+-- Category filters and facet counts look up by category first
+CREATE INDEX IF NOT EXISTS idx_library_category_category ON library_category(category, library_id);
+
+-- Backfill from the comma-separated display names in library.categories
+INSERT INTO library_category (library_id, category)
+SELECT DISTINCT l.id, m.code
+FROM library l
+CROSS JOIN LATERAL unnest(string_to_array(l.categories, ',')) AS c(display_name)
+JOIN (VALUES
+    ('ui framework', 'UI_FRAMEWORK'),
+    ('web framework', 'WEB_FRAMEWORK'),
+    ('database/orm', 'DATABASE'),
+    ('data processing', 'DATA_PROCESSING'),
+    ('testing', 'TESTING'),
+    ('build tools', 'BUILD_TOOLS'),
+    ('code quality', 'CODE_QUALITY'),
+    ('http client', 'HTTP_CLIENT'),
+    ('messaging', 'MESSAGING'),
+    ('machine learning', 'MACHINE_LEARNING'),
+    ('data visualization', 'DATA_VISUALIZATION'),
+    ('utilities', 'UTILITIES'),
+    ('logging', 'LOGGING'),
+    ('security', 'SECURITY'),
+    ('serialization', 'SERIALIZATION'),
+    ('mobile', 'MOBILE'),
+    ('gaming', 'GAMING'),
+    ('iot', 'IOT'),
+    ('other', 'OTHER')
+) AS m(display_name, code) ON m.display_name = lower(trim(c.display_name))
+WHERE l.categories IS NOT NULL
+  AND NOT EXISTS (
+      SELECT 1 FROM library_category lc
+      WHERE lc.library_id = l.id AND lc.category = m.code
+  );
+
+-- ==========================================
+-- End of Migration
+-- ==========================================
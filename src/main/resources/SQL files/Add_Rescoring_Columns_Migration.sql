@@ -0,0 +1,18 @@
+-- ==========================================
+-- Incremental Rescoring Columns Migration
+-- ==========================================
+
+ALTER TABLE library ADD COLUMN IF NOT EXISTS actively_maintained BOOLEAN;
+ALTER TABLE library ADD COLUMN IF NOT EXISTS vulnerability_severity_score INTEGER;
+ALTER TABLE library ADD COLUMN IF NOT EXISTS score_inputs_hash INTEGER;
+ALTER TABLE library ADD COLUMN IF NOT EXISTS scores_valid_until DATE;
+
+COMMENT ON COLUMN library.score_inputs_hash IS 'Fingerprint of the fields the persisted scores were computed from';
+COMMENT ON COLUMN library.scores_valid_until IS 'Date the time-based maintenance score next changes (NULL = never)';
+
+-- Nightly rescoring job only reads rows whose scores have expired
+CREATE INDEX IF NOT EXISTS idx_library_scores_valid_until ON library(scores_valid_until);
+
+-- ==========================================
+-- End of Migration
+-- ==========================================
@@ -0,0 +1,29 @@
+-- ==========================================
+-- Persisted Comparison Scores Migration
+-- ==========================================
+
+-- Add score columns to library table (hibernate ddl-auto=update also creates these)
+ALTER TABLE library ADD COLUMN IF NOT EXISTS popularity_score DOUBLE PRECISION;
+ALTER TABLE library ADD COLUMN IF NOT EXISTS maintenance_score DOUBLE PRECISION;
+ALTER TABLE library ADD COLUMN IF NOT EXISTS security_score DOUBLE PRECISION;
+ALTER TABLE library ADD COLUMN IF NOT EXISTS community_score DOUBLE PRECISION;
+ALTER TABLE library ADD COLUMN IF NOT EXISTS quality_score DOUBLE PRECISION;
+ALTER TABLE library ADD COLUMN IF NOT EXISTS overall_score DOUBLE PRECISION;
+ALTER TABLE library ADD COLUMN IF NOT EXISTS quality_grade VARCHAR(2);
+
+COMMENT ON COLUMN library.quality_grade IS 'Quality grade (A-F) computed by ComparisonService on every write';
+
+-- Indexes for advanced search grade filter and sorting
+CREATE INDEX IF NOT EXISTS idx_library_quality_grade ON library(quality_grade);
+CREATE INDEX IF NOT EXISTS idx_library_overall_score ON library(overall_score DESC NULLS LAST);
+CREATE INDEX IF NOT EXISTS idx_library_dependents ON library(dependent_projects_count DESC NULLS LAST);
+CREATE INDEX IF NOT EXISTS idx_library_repo_release ON library(last_repository_release_date DESC NULLS LAST);
+
+-- Existing rows get their scores from LibraryService.backfillMissingScores() on startup
+SELECT COUNT(*) AS libraries_missing_scores
+FROM library
+WHERE quality_grade IS NULL;
+
+-- ==========================================
+-- End of Migration
+-- ==========================================
@@ -0,0 +1,13 @@
+-- ==========================================
+-- Pooled Sequence Allocation Migration
+-- Applied automatically on startup by StartupMigrationRunner (idempotent)
+-- ==========================================
+
+-- Library, Vulnerability and LibraryDependency ids use allocationSize = 50 (pooled optimizer):
+-- Hibernate fetches one sequence value per 50 inserts, so the database increment must match.
+-- Hibernate (ddl-auto=update) creates new sequences with INCREMENT 50 but never alters existing ones.
+-- Until this has run, hibernate.id.sequence.increment_size_mismatch_strategy=FIX keeps
+-- Hibernate on the database increment, so ids never collide; the larger blocks apply after a restart.
+ALTER SEQUENCE IF EXISTS library_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS vulnerability_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS libdep_seq INCREMENT BY 50;
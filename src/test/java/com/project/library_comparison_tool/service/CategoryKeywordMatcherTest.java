@@ -0,0 +1,191 @@
+package com.project.library_comparison_tool.service;
+
+import com.project.library_comparison_tool.service.CategoryKeywordMatcher.Field;
+import com.project.library_comparison_tool.service.CategoryKeywordMatcher.Matches;
+import com.project.library_comparison_tool.service.CategoryKeywordMatcher.SearchText;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The automaton must answer exactly like a String.contains check per pattern and part of the library
+ */
+class CategoryKeywordMatcherTest {
+
+    // Same offsets CategoryService uses (name lower-cased first)
+    private static SearchText text(String name, String description, List<String> keywords) {
+        String nameLower = name != null ? name.toLowerCase() : null;
+        return SearchText.of(nameLower, CategoryService.artifactStart(nameLower), CategoryService.artifactEnd(nameLower),
+                description, keywords);
+    }
+
+    @Test
+    void overlappingPatternsAllHit() {
+        CategoryKeywordMatcher.Builder builder = CategoryKeywordMatcher.builder();
+        int http = builder.group(Field.SEARCH_TEXT, "http");
+        int httpClient = builder.group(Field.SEARCH_TEXT, "http client");
+        int client = builder.group(Field.SEARCH_TEXT, "client");
+        int ent = builder.group(Field.SEARCH_TEXT, "ent");
+        int log = builder.group(Field.SEARCH_TEXT, "log");
+        int blog = builder.group(Field.SEARCH_TEXT, "blog");
+        int missing = builder.group(Field.SEARCH_TEXT, "http server");
+        CategoryKeywordMatcher matcher = builder.build();
+
+        Matches matches = matcher.match(text("blog-http", "An HTTP client", List.of()));
+
+        assertTrue(matches.has(http));
+        assertTrue(matches.has(httpClient));
+        assertTrue(matches.has(client));
+        assertTrue(matches.has(ent));   // suffix of "client", reached through a failure link
+        assertTrue(matches.has(log));   // suffix of "blog"
+        assertTrue(matches.has(blog));
+        assertFalse(matches.has(missing));
+    }
+
+    @Test
+    void patternSharedByGroupsIsCreditedPerField() {
+        CategoryKeywordMatcher.Builder builder = CategoryKeywordMatcher.builder();
+        int inName = builder.group(Field.NAME, "json");
+        int inDescription = builder.group(Field.DESCRIPTION, "json");
+        int inKeyword = builder.group(Field.KEYWORD, "json");
+        CategoryKeywordMatcher matcher = builder.build();
+
+        Matches matches = matcher.match(text("fast-json", "A parser", List.of("parser")));
+
+        assertTrue(matches.has(inName));
+        assertFalse(matches.has(inDescription));
+        assertFalse(matches.has(inKeyword));
+    }
+
+    @Test
+    void matchesDoNotCrossPartBoundaries() {
+        CategoryKeywordMatcher.Builder builder = CategoryKeywordMatcher.builder();
+        int nameGroup = builder.group(Field.NAME, "orm data");
+        int descriptionGroup = builder.group(Field.DESCRIPTION, "orm data", "access");
+        int keywordGroup = builder.group(Field.KEYWORD, "db orm");
+        int anywhere = builder.group(Field.SEARCH_TEXT, "orm data", "db orm");
+        CategoryKeywordMatcher matcher = builder.build();
+
+        // "...orm" + " " + "data..." spans name and description; "db" + " " + "orm" spans two keywords
+        Matches matches = matcher.match(text("tiny-orm", "data access", List.of("db", "orm")));
+
+        assertFalse(matches.has(nameGroup));
+        assertTrue(matches.has(descriptionGroup));
+        assertFalse(matches.has(keywordGroup));
+        assertTrue(matches.has(anywhere));
+    }
+
+    @Test
+    void keywordCountCountsDistinctKeywords() {
+        CategoryKeywordMatcher.Builder builder = CategoryKeywordMatcher.builder();
+        int testing = builder.group(Field.KEYWORD, "test", "mock");
+        CategoryKeywordMatcher matcher = builder.build();
+
+        // "testtest" and "test-mock" each count once, however many patterns they contain
+        Matches matches = matcher.match(text("x", null, List.of("testtest", "json", "test-mock", "mocking")));
+
+        assertTrue(matches.has(testing));
+        assertEquals(3, matches.keywordCount(testing));
+    }
+
+    @Test
+    void nullKeywordsAreSkipped() {
+        CategoryKeywordMatcher.Builder builder = CategoryKeywordMatcher.builder();
+        int keywordGroup = builder.group(Field.KEYWORD, "cli");
+        CategoryKeywordMatcher matcher = builder.build();
+
+        SearchText searchText = text(null, null, Arrays.asList(null, "", "cli"));
+
+        assertEquals(" cli", searchText.getText());
+        assertEquals(1, matcher.match(searchText).keywordCount(keywordGroup));
+    }
+
+    @Test
+    void artifactGroupOnlySeesTheArtifactName() {
+        CategoryKeywordMatcher.Builder builder = CategoryKeywordMatcher.builder();
+        int spring = builder.group(Field.ARTIFACT, "spring");
+        int boot = builder.group(Field.ARTIFACT, "boot");
+        CategoryKeywordMatcher matcher = builder.build();
+
+        // group id "org.springframework.boot" is outside the artifact "starter-web"
+        Matches matches = matcher.match(text("org.springframework.boot:starter-web", null, List.of()));
+
+        assertFalse(matches.has(spring));
+        assertFalse(matches.has(boot));
+    }
+
+    @Test
+    void trailingSeparatorIsIgnoredForTheArtifact() {
+        CategoryKeywordMatcher.Builder builder = CategoryKeywordMatcher.builder();
+        int a = builder.group(Field.ARTIFACT, "a");
+        int b = builder.group(Field.ARTIFACT, "b");
+        CategoryKeywordMatcher matcher = builder.build();
+
+        Matches matches = matcher.match(text("a:b:", null, List.of()));
+
+        assertFalse(matches.has(a));
+        assertTrue(matches.has(b));
+    }
+
+    @Test
+    void scopeWithoutPackageIsItsOwnArtifact() {
+        CategoryKeywordMatcher.Builder builder = CategoryKeywordMatcher.builder();
+        int scope = builder.group(Field.ARTIFACT, "@scope/");
+        CategoryKeywordMatcher matcher = builder.build();
+
+        assertTrue(matcher.match(text("@scope/", null, List.of())).has(scope));
+    }
+
+    @Test
+    void patternsAndTextAreLowerCased() {
+        CategoryKeywordMatcher.Builder builder = CategoryKeywordMatcher.builder();
+        int json = builder.group(Field.DESCRIPTION, "JSON");
+        int uber = builder.group(Field.KEYWORD, "Über");
+        CategoryKeywordMatcher matcher = builder.build();
+
+        Matches matches = matcher.match(text("Lib", "Fast Json Parser", List.of("ÜBERFAST")));
+
+        assertTrue(matches.has(json));
+        assertTrue(matches.has(uber));
+    }
+
+    @Test
+    void nameThatGrowsWhenLowerCasedStillMatches() {
+        CategoryKeywordMatcher.Builder builder = CategoryKeywordMatcher.builder();
+        int artifact = builder.group(Field.ARTIFACT, "x");
+        int groupId = builder.group(Field.ARTIFACT, "foo");
+        int name = builder.group(Field.NAME, "i̇x");
+        CategoryKeywordMatcher matcher = builder.build();
+
+        // "İ" lower-cases to "i" + combining dot, so the lower-cased name is longer than the original
+        String original = "Foo:İx";
+        assertEquals(original.length() + 1, original.toLowerCase().length());
+
+        // CategoryService lower-cases before computing offsets, so the artifact is still "i̇x"
+        Matches viaService = matcher.match(text(original, null, List.of()));
+        assertTrue(viaService.has(artifact));
+        assertFalse(viaService.has(groupId));
+        assertTrue(viaService.has(name));
+
+        // Offsets computed on the original name no longer fit; the whole name is then used as the artifact
+        Matches direct = matcher.match(SearchText.of(original, CategoryService.artifactStart(original),
+                CategoryService.artifactEnd(original), null, List.of()));
+        assertTrue(direct.has(groupId));
+        assertTrue(direct.has(artifact));
+    }
+
+    @Test
+    void charactersOutsideEveryPatternResetTheMatch() {
+        CategoryKeywordMatcher.Builder builder = CategoryKeywordMatcher.builder();
+        int group = builder.group(Field.SEARCH_TEXT, "ab");
+        CategoryKeywordMatcher matcher = builder.build();
+
+        assertFalse(matcher.match(text("a_b", null, List.of())).has(group));
+        assertTrue(matcher.match(text("a_ab", null, List.of())).has(group));
+    }
+}
@@ -0,0 +1,90 @@
+package com.project.library_comparison_tool.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * CategoryService.artifactStart / artifactEnd must cut the same artifact name the old split-based parser did
+ */
+class CategoryServiceArtifactTest {
+
+    private static String artifact(String name) {
+        return name.substring(CategoryService.artifactStart(name), CategoryService.artifactEnd(name));
+    }
+
+    // The parser these offsets replaced: last non-empty part after ':' (or '/' for "@scope/..."), else the whole name
+    private static String splitArtifact(String name) {
+        if (name.contains(":")) {
+            String[] parts = name.split(":");
+            return parts.length >= 2 ? parts[parts.length - 1] : name;
+        }
+        if (name.startsWith("@") && name.contains("/")) {
+            String[] parts = name.split("/");
+            return parts.length >= 2 ? parts[parts.length - 1] : name;
+        }
+        return name;
+    }
+
+    @Test
+    void mavenCoordinates() {
+        assertEquals("spring-boot", artifact("org.springframework.boot:spring-boot"));
+        assertEquals("jackson-databind", artifact("com.fasterxml.jackson.core:jackson-databind"));
+        assertEquals("c", artifact("a:b:c"));
+    }
+
+    @Test
+    void scopedNpmPackages() {
+        assertEquals("core", artifact("@angular/core"));
+        assertEquals("sub", artifact("@scope/pkg/sub"));
+    }
+
+    @Test
+    void plainNames() {
+        assertEquals("lodash", artifact("lodash"));
+        assertEquals("scope/pkg", artifact("scope/pkg"));  // '/' only separates for "@scope/..."
+        assertEquals("a@b/c", artifact("a@b/c"));
+    }
+
+    @Test
+    void trailingSeparatorsAreIgnored() {
+        assertEquals("b", artifact("a:b:"));
+        assertEquals("b", artifact("a:b:::"));
+        assertEquals("pkg", artifact("@scope/pkg/"));
+    }
+
+    @Test
+    void nothingAfterTheOnlySeparatorKeepsTheWholeName() {
+        assertEquals("a:", artifact("a:"));
+        assertEquals("a::", artifact("a::"));
+        assertEquals(":", artifact(":"));
+        assertEquals("@scope/", artifact("@scope/"));
+        assertEquals("@/", artifact("@/"));
+    }
+
+    @Test
+    void emptySegmentsBeforeTheArtifact() {
+        assertEquals("b", artifact(":b"));
+        assertEquals("b", artifact("a::b"));
+        assertEquals("b", artifact("@//b"));
+    }
+
+    @Test
+    void nullAndEmptyNames() {
+        assertEquals(0, CategoryService.artifactStart(null));
+        assertEquals(0, CategoryService.artifactEnd(null));
+        assertEquals("", artifact(""));
+    }
+
+    @Test
+    void sameAsSplitParser() {
+        String[] names = {
+                "org.springframework.boot:spring-boot", "a:b:c", "a:b:", "a:", "a::", ":", "::", ":b", "a::b",
+                "@angular/core", "@scope/", "@scope/pkg/", "@/", "@//b", "@", "/", "lodash", "scope/pkg",
+                "a@b/c", "@scope:pkg/x", "g:a:1.0", "é:ü", "@ü/ß"
+        };
+        for (String name : names) {
+            assertEquals(splitArtifact(name), artifact(name), name);
+        }
+    }
+}
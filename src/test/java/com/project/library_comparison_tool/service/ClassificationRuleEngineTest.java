@@ -0,0 +1,145 @@
+package com.project.library_comparison_tool.service;
+
+import com.project.library_comparison_tool.entity.Category;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Signal conditions, first-match rule order and hot reload of the rule engine, on the fixture files in test/resources/rules
+ */
+class ClassificationRuleEngineTest {
+
+    private final ClassificationRuleEngine engine =
+            new ClassificationRuleEngine(new DefaultResourceLoader(), "classpath:rules/engine-v1.json");
+
+    private int score(Category category, String name, String description, List<String> keywords, String language) {
+        String nameLower = name.toLowerCase();
+        CategoryKeywordMatcher.SearchText text = CategoryKeywordMatcher.SearchText.of(nameLower,
+                CategoryService.artifactStart(nameLower), CategoryService.artifactEnd(nameLower), description, keywords);
+        return engine.scoreCategories(text, description, keywords, language, "NPM").get(category);
+    }
+
+    // ==================== SIGNALS ====================
+
+    @Test
+    void onlyIfNeedsTheNamedSignalToHaveApplied() {
+        assertEquals(0, score(Category.TESTING, "mocker", "mock everything", List.of(), null));
+        assertEquals(14, score(Category.TESTING, "jest", "mock everything", List.of(), null));
+    }
+
+    @Test
+    void ifScorePositiveOnlyAddsToAPositiveScore() {
+        assertEquals(8, score(Category.DATABASE, "pg", "sql client", List.of(), "Java"));
+        assertEquals(5, score(Category.DATABASE, "pg", "sql client", List.of(), "Python"));  // language condition
+        assertEquals(0, score(Category.DATABASE, "pg", "a client", List.of(), "Java"));
+        // "nosql" also contains "sql": 5 - 8 = -3, no bonus, clamped to 0
+        assertEquals(0, score(Category.DATABASE, "mongo", "nosql store", List.of(), "Java"));
+    }
+
+    @Test
+    void keywordSignalsCountEachKeywordUpToMax() {
+        assertEquals(2, score(Category.DATABASE, "pg", "client", List.of("db"), null));
+        assertEquals(4, score(Category.DATABASE, "pg", "client", List.of("db", "orm", "sql"), null));
+    }
+
+    @Test
+    void nameOnlyBonusNeedsMissingMetadataAndTheMinimumScore() {
+        assertEquals(15, score(Category.TESTING, "jest", null, List.of(), null));
+        assertEquals(10, score(Category.TESTING, "jest", "runner", List.of(), null));
+        assertEquals(0, score(Category.DATABASE, "pg", null, List.of(), null));
+    }
+
+    // ==================== RULE ORDER ====================
+
+    @Test
+    void firstMatchingRuleWins() {
+        assertEquals("react-native", engine.inferFramework("react-native-maps"));
+        assertEquals("react", engine.inferFramework("react-dom"));
+        assertEquals("none", engine.inferFramework("vue"));
+
+        assertEquals("nodejs", engine.inferRuntime("JavaScript", "express"));
+        assertEquals("browser", engine.inferRuntime("JavaScript", "react"));
+        assertEquals("unknown", engine.inferRuntime("Go", "none"));
+
+        assertEquals(List.of("Browser (all OS)"), engine.inferSupportedOs("JavaScript", "NPM", "react-dom"));
+        assertEquals(List.of("Linux", "macOS", "Windows"), engine.inferSupportedOs("TypeScript", "NPM", "react-dom"));
+        assertEquals(List.of("Platform-dependent"), engine.inferSupportedOs("Go", "Go", "gin"));
+        assertEquals(List.of("Unknown"), engine.inferSupportedOs(null, null, "gin"));
+    }
+
+    @Test
+    void licensesMatchBySubstring() {
+        assertTrue(engine.isOpenSourceLicense("apache-2.0"));
+        assertFalse(engine.isOpenSourceLicense("Proprietary"));
+        assertFalse(engine.isOpenSourceLicense(null));
+    }
+
+    // ==================== HOT RELOAD ====================
+
+    @Test
+    void changedFileIsPickedUp(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("rules.json");
+        copyFixture("engine-v1.json", file, 1_000);
+        ClassificationRuleEngine reloading = new ClassificationRuleEngine(new DefaultResourceLoader(), file.toUri().toString());
+        assertEquals("fixture-1", reloading.getVersion());
+
+        reloading.reloadIfChanged();  // unchanged file: nothing to do
+        assertEquals("fixture-1", reloading.getVersion());
+
+        copyFixture("engine-v2.json", file, 2_000);
+        reloading.reloadIfChanged();
+        assertEquals("fixture-2", reloading.getVersion());
+        assertEquals("vue", reloading.inferFramework("vue"));
+        assertEquals("none", reloading.inferFramework("react-dom"));
+    }
+
+    @Test
+    void invalidFileKeepsThePreviousRules(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("rules.json");
+        copyFixture("engine-v1.json", file, 1_000);
+        ClassificationRuleEngine reloading = new ClassificationRuleEngine(new DefaultResourceLoader(), file.toUri().toString());
+
+        // onlyIf names a later signal
+        copyFixture("engine-invalid.json", file, 2_000);
+        reloading.reloadIfChanged();
+        assertEquals("fixture-1", reloading.getVersion());
+        assertEquals("react", reloading.inferFramework("react-dom"));
+        assertNotNull(reloading.getStatus().get("lastReloadError"));
+        assertThrows(IllegalStateException.class, reloading::reload);
+
+        copyFixture("engine-v2.json", file, 3_000);
+        reloading.reloadIfChanged();
+        assertEquals("fixture-2", reloading.getVersion());
+        assertNull(reloading.getStatus().get("lastReloadError"));
+    }
+
+    @Test
+    void invalidFileFailsStartup() {
+        assertThrows(IllegalStateException.class,
+                () -> new ClassificationRuleEngine(new DefaultResourceLoader(), "classpath:rules/engine-invalid.json"));
+    }
+
+    // Explicit modification times: two writes within the file system's timestamp resolution would look unchanged
+    private static void copyFixture(String fixture, Path target, long modifiedMillis) throws IOException {
+        try (InputStream in = ClassificationRuleEngineTest.class.getResourceAsStream("/rules/" + fixture)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.setLastModifiedTime(target, FileTime.fromMillis(modifiedMillis));
+    }
+}
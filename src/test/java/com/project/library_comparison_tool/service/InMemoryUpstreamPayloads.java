@@ -0,0 +1,112 @@
+package com.project.library_comparison_tool.service;
+
+import com.project.library_comparison_tool.entity.UpstreamPayload;
+import com.project.library_comparison_tool.entity.UpstreamPayloadRef;
+import com.project.library_comparison_tool.repository.UpstreamPayloadRefRepository;
+import com.project.library_comparison_tool.repository.UpstreamPayloadRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * UpstreamPayloadStore on map-backed repositories and a stubbed HTTP transport, so recording and replay run
+ * without a database or network
+ */
+final class InMemoryUpstreamPayloads {
+
+    final Map<String, UpstreamPayload> payloads = new ConcurrentHashMap<>();
+    final Map<String, UpstreamPayloadRef> refs = new ConcurrentHashMap<>();
+
+    UpstreamPayloadStore store(String mode) {
+        UpstreamPayloadRepository payloadRepository = mock(UpstreamPayloadRepository.class);
+        when(payloadRepository.findAllById(any())).thenAnswer(call -> present(payloads, call.getArgument(0)));
+        when(payloadRepository.saveAll(any())).thenAnswer(call -> saveAll(payloads, call.getArgument(0),
+                UpstreamPayload::getContentHash));
+        when(payloadRepository.findByRequestKey(anyString())).thenAnswer(call ->
+                Optional.ofNullable(refs.get((String) call.getArgument(0)))
+                        .map(ref -> payloads.get(ref.getContentHash())));
+
+        UpstreamPayloadRefRepository refRepository = mock(UpstreamPayloadRefRepository.class);
+        when(refRepository.findAllById(any())).thenAnswer(call -> present(refs, call.getArgument(0)));
+        when(refRepository.saveAll(any())).thenAnswer(call -> saveAll(refs, call.getArgument(0),
+                UpstreamPayloadRef::getRequestKey));
+        when(refRepository.findByHostAfter(anyString(), anyString(), any())).thenAnswer(call -> refs.values().stream()
+                .filter(ref -> ref.getHost().equals(call.getArgument(0)))
+                .filter(ref -> ref.getRequestKey().compareTo(call.getArgument(1)) > 0)
+                .sorted((a, b) -> a.getRequestKey().compareTo(b.getRequestKey()))
+                .limit(((Pageable) call.getArgument(2)).getPageSize())
+                .toList());
+
+        return new UpstreamPayloadStore(payloadRepository, refRepository, mock(PlatformTransactionManager.class),
+                mode, "libraries.io,api.osv.dev", 4194304, 1000, 100);
+    }
+
+    /**
+     * Transport answering 200 with the body stored for the URL (query string ignored), 404 otherwise
+     */
+    static HttpClient upstream(Map<String, String> bodies) throws Exception {
+        HttpClient client = mock(HttpClient.class);
+        when(client.send(any(HttpRequest.class), any())).thenAnswer(call -> {
+            String url = ((HttpRequest) call.getArgument(0)).uri().toString();
+            String body = bodies.get(url.split("\\?", 2)[0]);
+            return body != null ? response(200, body) : response(404, "");
+        });
+        return client;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<byte[]> response(int status, String body) {
+        HttpResponse<byte[]> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(body.getBytes(StandardCharsets.UTF_8));
+        when(response.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        return response;
+    }
+
+    /**
+     * Wait for the store's writer thread to save this many requests
+     */
+    void awaitRequests(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (refs.size() < expected) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Only " + refs.size() + " of " + expected + " requests were stored");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static <T> List<T> present(Map<String, T> rows, Iterable<String> ids) {
+        List<T> found = new ArrayList<>();
+        ids.forEach(id -> {
+            T row = rows.get(id);
+            if (row != null) {
+                found.add(row);
+            }
+        });
+        return found;
+    }
+
+    private static <T> List<T> saveAll(Map<String, T> rows, Collection<T> saved, Function<T, String> id) {
+        saved.forEach(row -> rows.put(id.apply(row), row));
+        return new ArrayList<>(saved);
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.library_comparison_tool.service;
+
+import com.project.library_comparison_tool.dto.AdvancedSearchDTO;
+import com.project.library_comparison_tool.dto.SearchFacetsDTO;
+import com.project.library_comparison_tool.entity.Category;
+import com.project.library_comparison_tool.repository.LibraryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Database facets: every count but categories comes from one grouped query over the same filtered set
+ */
+class LibraryFacetServiceTest {
+
+    private final LibraryRepository repository = mock(LibraryRepository.class);
+    private final LibrarySearchIndex searchIndex = mock(LibrarySearchIndex.class);
+    private final LibraryFacetService service = new LibraryFacetService(repository, searchIndex, 10, 300);
+
+    @Test
+    void platformAndGradeFacetsKeepTheOtherFilter() {
+        Map<List<Object>, Long> groups = new LinkedHashMap<>();
+        groups.put(Arrays.asList("NPM", "A", false, true), 5L);
+        groups.put(Arrays.asList("NPM", "C", true, false), 2L);
+        groups.put(Arrays.asList("Maven", "A", null, null), 7L);
+        groups.put(Arrays.asList("PyPI", null, false, false), 4L);
+        when(repository.countByAttributes(any(), anyList())).thenReturn(groups);
+        when(repository.countByCategory(any())).thenReturn(Map.of(Category.TESTING, 3L));
+
+        AdvancedSearchDTO criteria = new AdvancedSearchDTO();
+        criteria.setPlatforms(List.of("NPM"));
+        criteria.setIncludeGrades(List.of("A", "B"));
+        SearchFacetsDTO facets = service.getFacets(criteria);
+
+        assertEquals(Map.of("Testing", 3L), facets.getCategories());
+        // Grade A only, any platform; largest first
+        assertEquals(List.of("Maven", "NPM"), List.copyOf(facets.getPlatforms().keySet()));
+        assertEquals(Map.of("Maven", 7L, "NPM", 5L), facets.getPlatforms());
+        // NPM only, any grade
+        assertEquals(Map.of("A", 5L, "C", 2L), facets.getGrades());
+        // NPM and grade A
+        assertEquals(5, facets.getTotal());
+        assertEquals(0, facets.getDeprecated());
+        assertEquals(5, facets.getWithVulnerabilities());
+
+        verify(repository, times(1)).countByAttributes(any(), anyList());
+        verify(repository, never()).count(any(Specification.class));
+    }
+}
@@ -0,0 +1,114 @@
+package com.project.library_comparison_tool.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.library_comparison_tool.dto.LibraryIOMapperDTO;
+import com.project.library_comparison_tool.entity.Library;
+import com.project.library_comparison_tool.entity.Vulnerability;
+import com.project.library_comparison_tool.repository.VulnerabilityCacheRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * A recorded ingest replays offline: project details and the batched OSV answers all come from the store
+ */
+class LibraryReplayServiceTest {
+
+    private static final String DETAILS_URL = "https://libraries.io/api/NPM/left-pad?api_key=secret";
+    private static final String DETAILS = "{\"name\":\"left-pad\",\"platform\":\"NPM\",\"latest_release_number\":\"1.1.0\"}";
+    private static final String QUERYBATCH = "{\"results\":[{\"vulns\":[{\"id\":\"GHSA-0001\",\"modified\":\"2024-01-01T00:00:00Z\"}]}]}";
+    private static final String RECORD = "{\"id\":\"GHSA-0001\",\"summary\":\"Prototype pollution\",\"modified\":\"2024-01-01T00:00:00Z\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EnrichmentExecutor enrichmentExecutor = new EnrichmentExecutor(4, 5000);
+    private final UpstreamRateLimiter rateLimiter = mock(UpstreamRateLimiter.class);
+
+    @Test
+    void recordedIngestReplaysOfflineWithOsvResults() throws Exception {
+        when(rateLimiter.acquire(anyString())).thenReturn(true);
+        InMemoryUpstreamPayloads payloads = new InMemoryUpstreamPayloads();
+        UpstreamPayloadStore store = payloads.store("record");
+
+        // Record: the details fetch, then the ingestion writer's OSV querybatch + record hydration
+        UpstreamHttpClient recording = new UpstreamHttpClient(InMemoryUpstreamPayloads.upstream(Map.of(
+                "https://libraries.io/api/NPM/left-pad", DETAILS,
+                "https://api.osv.dev/v1/querybatch", QUERYBATCH,
+                "https://api.osv.dev/v1/vulns/GHSA-0001", RECORD)), rateLimiter, store);
+        JsonNode details = objectMapper.readTree(recording.get(DETAILS_URL, Map.of()).getBody());
+        Library ingested = library(details);
+        scanner(recording).scanAndStore(List.of(ingested), "ingest");
+        assertEquals(List.of("GHSA-0001"), vulnerabilityIds(ingested));
+        payloads.awaitRequests(3);
+
+        // Replay after a restart (cold caches), with the network gone
+        store.setMode(UpstreamPayloadStore.Mode.OFFLINE);
+        HttpClient network = mock(HttpClient.class);
+        UpstreamHttpClient offline = new UpstreamHttpClient(network, rateLimiter, store);
+        LibraryIOMapperDTO mapper = mock(LibraryIOMapperDTO.class);
+        when(mapper.mapToLibrary(any(JsonNode.class), isNull())).thenAnswer(call -> library(call.getArgument(0)));
+        when(mapper.enrichWithDetailedInfo(any(Library.class), any(JsonNode.class), eq(true)))
+                .thenAnswer(call -> call.getArgument(0));
+        LibraryService libraryService = mock(LibraryService.class);
+
+        OsvBatchScanner offlineScanner = scanner(offline);
+        LibraryReplayService replay = new LibraryReplayService(store, mapper, libraryService,
+                vulnerabilityService(offline), offlineScanner, 2, 50, true);
+        assertTrue(replay.start());
+        awaitFinished(replay);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Library>> saved = ArgumentCaptor.forClass(List.class);
+        verify(libraryService).addOrUpdateLibraries(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        Library replayed = saved.getValue().get(0);
+        assertEquals("left-pad", replayed.getName());
+        assertEquals(List.of("GHSA-0001"), vulnerabilityIds(replayed));
+        assertEquals(1, replayed.getVulnerabilityCount());
+        assertTrue(replayed.isVulnerabilitiesChecked());
+        verifyNoInteractions(network);
+    }
+
+    private SecurityVulnerabilityService vulnerabilityService(UpstreamHttpClient httpClient) {
+        return new SecurityVulnerabilityService("", httpClient, mock(VulnerabilityCacheRepository.class), 100, 24);
+    }
+
+    private OsvBatchScanner scanner(UpstreamHttpClient httpClient) {
+        return new OsvBatchScanner(vulnerabilityService(httpClient), httpClient, enrichmentExecutor, 100);
+    }
+
+    // What mapping + deferred enrichment leave behind: no OSV results, no GitHub advisories (not a GitHub repo)
+    private static Library library(JsonNode details) {
+        return Library.builder()
+                .name(details.path("name").asText())
+                .packageManager(details.path("platform").asText())
+                .latestVersion(details.path("latest_release_number").asText())
+                .build();
+    }
+
+    private static List<String> vulnerabilityIds(Library library) {
+        return library.getVulnerabilities().stream().map(Vulnerability::getVulnerabilityId).toList();
+    }
+
+    private static void awaitFinished(LibraryReplayService replay) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (Boolean.TRUE.equals(replay.getStatus().get("running")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(false, replay.getStatus().get("running"));
+    }
+}
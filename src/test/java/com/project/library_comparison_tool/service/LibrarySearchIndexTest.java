@@ -0,0 +1,296 @@
+package com.project.library_comparison_tool.service;
+
+import com.project.library_comparison_tool.dto.AdvancedSearchDTO;
+import com.project.library_comparison_tool.entity.Library;
+import com.project.library_comparison_tool.repository.LibraryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ranking, prefix expansion, tombstone compaction, sort order and database fallback of the in-memory search index
+ */
+class LibrarySearchIndexTest {
+
+    private final LibrarySearchIndex index = new LibrarySearchIndex(mock(LibraryRepository.class), true, true, "en-US");
+
+    private static Library library(long id, String name, String description) {
+        return Library.builder().id(id).name(name).description(description).packageManager("NPM").build();
+    }
+
+    private List<Long> search(String query) {
+        AdvancedSearchDTO criteria = new AdvancedSearchDTO();
+        criteria.setSearchQuery(query);
+        return index.search(criteria);
+    }
+
+    private List<Long> sortedBy(String sortBy) {
+        AdvancedSearchDTO criteria = new AdvancedSearchDTO();
+        criteria.setSortBy(sortBy);
+        return index.search(criteria);
+    }
+
+    // ==================== BM25 ====================
+
+    @Test
+    void nameMatchOutranksDescriptionMatch() {
+        index.indexAfterCommit(List.of(
+                library(1, "fast-xml", "A json parser"),
+                library(2, "json-parser", "Parses documents")));
+
+        assertEquals(List.of(2L, 1L), search("json "));
+    }
+
+    @Test
+    void shorterDocumentRanksHigherForTheSameTerm() {
+        index.indexAfterCommit(List.of(
+                library(1, "alpha", "http client with retries pooling metrics tracing and compression"),
+                library(2, "beta", "http client")));
+
+        assertEquals(List.of(2L, 1L), search("http "));
+    }
+
+    @Test
+    void rareTermOutweighsCommonTerm() {
+        // "c" expands to both words; "cobra" is in one library, "client" in four, so the cobra match counts for more
+        index.indexAfterCommit(List.of(
+                library(1, "lib", "client"),
+                library(2, "lib", "client"),
+                library(3, "lib", "cobra"),
+                library(4, "lib", "client"),
+                library(5, "lib", "client")));
+
+        assertEquals(List.of(3L, 1L, 2L, 4L, 5L), search("c"));
+    }
+
+    @Test
+    void everyQueryWordMustMatch() {
+        index.indexAfterCommit(List.of(
+                library(1, "json", "yaml support"),
+                library(2, "json", "xml support"),
+                library(3, "toml", "yaml support")));
+
+        assertEquals(List.of(1L), search("json yaml "));
+        assertEquals(List.of(), search("json csv "));
+    }
+
+    @Test
+    void equalScoresFallBackToIdOrder() {
+        index.indexAfterCommit(List.of(
+                library(7, "logger", null),
+                library(3, "logger", null),
+                library(5, "logger", null)));
+
+        assertEquals(List.of(3L, 5L, 7L), search("logger "));
+    }
+
+    @Test
+    void stopWordsAndPunctuationAreIgnored() {
+        index.indexAfterCommit(library(1, "@scope/react-dom", "The DOM bindings for React"));
+
+        assertEquals(List.of("scope", "react", "dom"), LibrarySearchIndex.tokenize("@scope/react-dom"));
+        assertEquals(List.of(1L), search("the react of dom "));
+        assertEquals(List.of(), search("the of "));
+    }
+
+    // ==================== PREFIXES ====================
+
+    @Test
+    void unfinishedLastWordMatchesAsPrefix() {
+        index.indexAfterCommit(List.of(
+                library(1, "one", "reactive streams"),
+                library(2, "two", "redux store")));
+
+        assertEquals(List.of(1L), search("rea"));
+        assertEquals(List.of(1L, 2L), search("re"));
+        assertEquals(List.of(), search("rea "));  // trailing space: the word is finished
+    }
+
+    @Test
+    void onlyTheLastWordIsAPrefix() {
+        index.indexAfterCommit(library(1, "react-router", null));
+
+        assertEquals(List.of(1L), search("react rou"));
+        assertEquals(List.of(), search("rea router"));
+    }
+
+    @Test
+    void exactTermAndItsExtensionsBothMatch() {
+        index.indexAfterCommit(List.of(
+                library(1, "one", "parser"),
+                library(2, "two", "parsers")));
+
+        assertEquals(List.of(1L, 2L), search("parser"));
+        assertEquals(List.of(1L), search("parser "));  // no stemming
+    }
+
+    @Test
+    void prefixExpandsToAtMostFiftyTerms() {
+        List<Library> libraries = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            libraries.add(library(i + 1, "lib", String.format("term%02d", i)));
+        }
+        index.indexAfterCommit(libraries);
+
+        // Dictionary order: term00..term49 are expanded, term50..term59 are not
+        List<Long> ids = search("term");
+        assertEquals(50, ids.size());
+        assertTrue(ids.contains(1L));
+        assertFalse(ids.contains(51L));
+        assertEquals(List.of(60L), search("term59"));
+    }
+
+    // ==================== PARTIAL NAMES ====================
+
+    @Test
+    void namesContainingTheQueryMatchAfterScoredHits() {
+        index.indexAfterCommit(List.of(
+                library(1, "react", null),
+                library(2, "preact", "Fast 3kB alternative"),
+                library(3, "actions", null),
+                library(4, "vue", "reactive")));
+
+        // "actions" matches the prefix (scored); "react" / "preact" only contain "act", like LIKE '%act%'
+        assertEquals(List.of(3L, 1L, 2L), search("act"));
+        // Finished word: nothing is scored, every name containing "act" still matches (id order)
+        assertEquals(List.of(1L, 2L, 3L), search("act "));
+    }
+
+    // ==================== DATABASE FALLBACK ====================
+
+    @Test
+    void websearchSyntaxAndLikeWildcardsAreOperators() {
+        assertTrue(LibrarySearchIndex.hasSearchOperators("\"http client\""));
+        assertTrue(LibrarySearchIndex.hasSearchOperators("react -native"));
+        assertTrue(LibrarySearchIndex.hasSearchOperators("vue or react"));
+        assertTrue(LibrarySearchIndex.hasSearchOperators("100%"));
+        assertTrue(LibrarySearchIndex.hasSearchOperators("snake_case"));
+        assertFalse(LibrarySearchIndex.hasSearchOperators("react-native"));
+        assertFalse(LibrarySearchIndex.hasSearchOperators("orm tools"));
+    }
+
+    @Test
+    void keywordQueriesNeedTheOptIn() {
+        LibraryRepository repository = mock(LibraryRepository.class);
+        when(repository.findAllWithTags()).thenReturn(List.of(library(1, "react", null)));
+        LibrarySearchIndex databaseKeywords = new LibrarySearchIndex(repository, true, false, "en-US");
+        LibrarySearchIndex indexKeywords = new LibrarySearchIndex(repository, true, true, "en-US");
+
+        assertFalse(indexKeywords.canAnswer(criteria("react", null)));  // not loaded yet
+        databaseKeywords.rebuild();
+        indexKeywords.rebuild();
+
+        assertTrue(databaseKeywords.canAnswer(criteria(null, "name")));
+        assertFalse(databaseKeywords.canAnswer(criteria("react", null)));
+        assertTrue(indexKeywords.canAnswer(criteria("react", null)));
+        assertFalse(indexKeywords.canAnswer(criteria("react -vue", null)));
+    }
+
+    private static AdvancedSearchDTO criteria(String query, String sortBy) {
+        AdvancedSearchDTO criteria = new AdvancedSearchDTO();
+        criteria.setSearchQuery(query);
+        criteria.setSortBy(sortBy);
+        return criteria;
+    }
+
+    // ==================== UPDATES ====================
+
+    @Test
+    void updateReplacesTheOldDocument() {
+        index.indexAfterCommit(List.of(
+                library(1, "alpha", null),
+                library(2, "beta", null),
+                library(3, "gamma", null),
+                library(4, "delta", null)));
+
+        index.indexAfterCommit(library(1, "omega", null));
+
+        assertEquals(List.of(), search("alpha "));
+        assertEquals(List.of(1L), search("omega "));
+        assertEquals(4, index.getStats().get("libraries"));
+        assertEquals(5, index.getStats().get("docIds"));  // one tombstone, below the compaction threshold
+    }
+
+    @Test
+    void compactsOnceAQuarterOfDocIdsAreDead() {
+        index.indexAfterCommit(List.of(
+                library(1, "alpha", null),
+                library(2, "beta", null),
+                library(3, "gamma", null),
+                library(4, "delta", null)));
+
+        index.indexAfterCommit(library(1, "omega", null));
+        index.indexAfterCommit(library(2, "sigma", null));
+
+        // 2 dead of 6 doc ids -> rebuilt from the 4 live documents
+        assertEquals(4, index.getStats().get("libraries"));
+        assertEquals(4, index.getStats().get("docIds"));
+        assertEquals(List.of(), search("alpha "));
+        assertEquals(List.of(), search("beta "));
+        assertEquals(List.of(1L), search("omega "));
+        assertEquals(List.of(2L), search("sigma "));
+        assertEquals(List.of(3L), search("gamma "));
+    }
+
+    @Test
+    void tombstonedDocumentsDoNotScore() {
+        index.indexAfterCommit(List.of(
+                library(1, "cache", null),
+                library(2, "store", "cache"),
+                library(3, "queue", null),
+                library(4, "stream", null),
+                library(5, "mailer", null)));
+
+        // Library 2 no longer mentions "cache"; its old posting must not bring it back
+        index.indexAfterCommit(library(2, "store", "key value"));
+
+        assertEquals(List.of(1L), search("cache "));
+    }
+
+    // ==================== SORTING ====================
+
+    @Test
+    void nameSortUsesCollationWithNullsLast() {
+        index.indexAfterCommit(List.of(
+                library(1, "lodash", null),
+                library(2, null, "no name"),
+                library(3, "axios", null),
+                library(4, "Zod", null),
+                library(5, "lodash", null)));
+
+        // Case-insensitive like the column collation (String order would put "Zod" first); ties by id
+        assertEquals(List.of(3L, 1L, 5L, 4L, 2L), sortedBy("name"));
+    }
+
+    @Test
+    void explicitSortOverridesRelevance() {
+        index.indexAfterCommit(List.of(
+                library(1, "zeta-http", null),
+                library(2, "alpha", "http")));
+
+        assertEquals(List.of(1L, 2L), search("http "));
+
+        AdvancedSearchDTO criteria = new AdvancedSearchDTO();
+        criteria.setSearchQuery("http ");
+        criteria.setSortBy("name");
+        assertEquals(List.of(2L, 1L), index.search(criteria));
+    }
+
+    @Test
+    void descendingSortPutsNullsLast() {
+        index.indexAfterCommit(List.of(
+                Library.builder().id(1L).name("a").githubStars(10).build(),
+                Library.builder().id(2L).name("b").build(),
+                Library.builder().id(3L).name("c").githubStars(500).build(),
+                Library.builder().id(4L).name("d").githubStars(10).build()));
+
+        assertEquals(List.of(3L, 1L, 4L, 2L), sortedBy("stars"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.project.library_comparison_tool.service;
+
+import com.project.library_comparison_tool.dto.AdvancedSearchDTO;
+import com.project.library_comparison_tool.dto.LibrarySummaryDTO;
+import com.project.library_comparison_tool.entity.Library;
+import com.project.library_comparison_tool.repository.LibraryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * view=summary search results: projected summary rows in rank order, cached per catalogue version
+ */
+class LibraryServiceSummaryTest {
+
+    private final LibraryRepository repository = mock(LibraryRepository.class);
+    private final ComparisonService comparisonService = mock(ComparisonService.class);
+    private final LibrarySearchIndex searchIndex = mock(LibrarySearchIndex.class);
+    private final LibraryService service = new LibraryService(repository, comparisonService,
+            mock(LibraryRescoringService.class), searchIndex, 100, 1_000_000, 300, 100, 1_000_000);
+
+    private final Map<Long, LibrarySummaryDTO> table = Map.of(
+            1L, row(1L, "react", 230_000, "A"),
+            2L, row(2L, "vue", 1_500, "B"),
+            3L, row(3L, "left-pad", 12, null));
+
+    @BeforeEach
+    void setUp() {
+        when(searchIndex.canAnswer(any())).thenReturn(true);
+        when(searchIndex.search(any())).thenReturn(List.of(3L, 1L, 2L));
+        when(searchIndex.getVersion()).thenReturn(1L);
+        // Fresh rows on every query, in table order rather than rank order
+        when(repository.findSummariesByIdIn(anyList())).thenAnswer(call -> call.<Collection<Long>>getArgument(0)
+                .stream().sorted().map(id -> copy(table.get(id))).toList());
+        when(repository.findTagsByIdIn(anyList())).thenReturn(List.of(
+                new Object[]{1L, "ui"}, new Object[]{1L, "frontend"}, new Object[]{3L, "strings"}));
+    }
+
+    @Test
+    void rowsComeBackInRankOrderWithTagsAndPopularity() {
+        when(repository.findAllById(List.of(3L))).thenReturn(List.of(Library.builder().id(3L).name("left-pad").build()));
+        ComparisonService.ComparisonResult comparison = mock(ComparisonService.ComparisonResult.class);
+        when(comparison.getQualityGrade()).thenReturn("D");
+        when(comparison.getOverallScore()).thenReturn(3.5);
+        when(comparisonService.calculateComparison(any(Library.class))).thenReturn(comparison);
+
+        List<LibrarySummaryDTO> rows = service.advancedSearchSummaries(new AdvancedSearchDTO());
+
+        assertEquals(List.of("left-pad", "react", "vue"), rows.stream().map(LibrarySummaryDTO::getName).toList());
+        assertEquals(List.of("ui", "frontend"), rows.get(1).getTags());
+        assertEquals(List.of(), rows.get(2).getTags());
+        assertEquals("230.0K stars", rows.get(1).getPopularityDisplay());
+        // Only the unscored row is loaded as an entity, to compute its grade
+        assertEquals("D", rows.get(0).getQualityGrade());
+        assertEquals("A", rows.get(1).getQualityGrade());
+        verify(comparisonService, times(1)).calculateComparison(any(Library.class));
+    }
+
+    @Test
+    void cachedRowsAreSharedAcrossSearchesUntilTheCatalogueChanges() {
+        table.get(3L).setQualityGrade("C");
+
+        service.advancedSearchSummaries(new AdvancedSearchDTO());
+        Page<LibrarySummaryDTO> page = service.advancedSearchSummariesPaginated(new AdvancedSearchDTO(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(3L, 1L), page.getContent().stream().map(LibrarySummaryDTO::getId).toList());
+        assertEquals(3, page.getTotalElements());
+        verify(repository, times(1)).findSummariesByIdIn(anyList());
+        verify(repository, never()).findAllById(any());
+
+        // A committed write bumps the version: rows are projected again
+        when(searchIndex.getVersion()).thenReturn(2L);
+        service.advancedSearchSummaries(new AdvancedSearchDTO());
+        verify(repository, times(2)).findSummariesByIdIn(anyList());
+    }
+
+    private static LibrarySummaryDTO row(long id, String name, int stars, String grade) {
+        return new LibrarySummaryDTO(id, name, null, null, "JavaScript", "NPM", "MIT", "1.0.0",
+                stars, null, null, null, false, false, 0, null, null,
+                grade != null ? 8.0 : null, grade, null);
+    }
+
+    private static LibrarySummaryDTO copy(LibrarySummaryDTO row) {
+        return row(row.getId(), row.getName(), row.getGithubStars(), row.getQualityGrade());
+    }
+}
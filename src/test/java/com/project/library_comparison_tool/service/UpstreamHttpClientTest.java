@@ -0,0 +1,79 @@
+package com.project.library_comparison_tool.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * URL encoding and per-host response timeouts of outbound requests
+ */
+class UpstreamHttpClientTest {
+
+    @Test
+    void charactersAUriMayNotContainArePercentEncoded() {
+        assertEquals("https://libraries.io/api/search?q=http%20client&platforms=NPM",
+                UpstreamHttpClient.toUri("https://libraries.io/api/search?q=http client&platforms=NPM").toString());
+        assertEquals("https://pypi.org/pypi/caf%C3%A9/json",
+                UpstreamHttpClient.toUri("https://pypi.org/pypi/café/json").toString());
+        assertEquals("https://registry.npmjs.org/%40scope%2Fpkg",
+                UpstreamHttpClient.toUri("https://registry.npmjs.org/%40scope%2Fpkg").toString());  // already encoded
+        assertEquals("https://libraries.io/api/search?q=100%25%7Cfast",
+                UpstreamHttpClient.toUri("https://libraries.io/api/search?q=100%|fast").toString());
+        assertEquals("https://crates.io/api/v1/crates/%F0%9F%A6%80",
+                UpstreamHttpClient.toUri("https://crates.io/api/v1/crates/🦀").toString());
+
+        assertThrows(IllegalArgumentException.class, () -> UpstreamHttpClient.toUri("not a url"));
+    }
+
+    @Test
+    void invalidUrlFailsWithoutTouchingTheNetworkOrTheRateLimiter() {
+        HttpClient network = mock(HttpClient.class);
+        UpstreamRateLimiter rateLimiter = mock(UpstreamRateLimiter.class);
+        UpstreamHttpClient client = new UpstreamHttpClient(network, rateLimiter,
+                new InMemoryUpstreamPayloads().store("off"));
+
+        UpstreamHttpClient.UpstreamResponse response = client.get("relative/path?q=a b", Map.of());
+
+        assertFalse(response.isOk());
+        assertEquals(0, response.getStatus());
+        assertTrue(response.getError().startsWith("invalid URL"));
+        verifyNoInteractions(network, rateLimiter);
+    }
+
+    @Test
+    void responseTimeoutIsPerHost() throws Exception {
+        HttpClient network = InMemoryUpstreamPayloads.upstream(Map.of(
+                "https://libraries.io/api/NPM/react", "{}",
+                "https://api.osv.dev/v1/querybatch", "{}"));
+        UpstreamRateLimiter rateLimiter = mock(UpstreamRateLimiter.class);
+        when(rateLimiter.acquire(anyString())).thenReturn(true);
+        UpstreamHttpClient client = new UpstreamHttpClient(network, rateLimiter,
+                new InMemoryUpstreamPayloads().store("off"));
+
+        client.get("https://libraries.io/api/NPM/react", Map.of());
+        client.postJson("https://api.osv.dev/v1/querybatch", "{\"queries\":[]}", Map.of());
+
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(network, times(2)).send(requests.capture(), any());
+        List<Optional<Duration>> timeouts = requests.getAllValues().stream().map(HttpRequest::timeout).toList();
+        assertEquals(List.of(Optional.of(Duration.ofSeconds(30)), Optional.of(Duration.ofSeconds(60))), timeouts);
+    }
+}
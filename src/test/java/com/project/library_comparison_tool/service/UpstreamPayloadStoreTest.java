@@ -0,0 +1,88 @@
+package com.project.library_comparison_tool.service;
+
+import com.project.library_comparison_tool.entity.UpstreamPayload;
+import com.project.library_comparison_tool.entity.UpstreamPayloadRef;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stored bodies survive compression and drop the libraries.io api_key; only a replay job is answered from the store
+ */
+class UpstreamPayloadStoreTest {
+
+    private static final String PROJECT = "https://libraries.io/api/NPM/left-pad";
+
+    @Test
+    void withoutCredentialsDropsOnlyTheApiKey() {
+        assertEquals(PROJECT, UpstreamPayloadStore.withoutCredentials(PROJECT));
+        assertEquals(PROJECT, UpstreamPayloadStore.withoutCredentials(PROJECT + "?api_key=secret"));
+        assertEquals(PROJECT + "?page=2", UpstreamPayloadStore.withoutCredentials(PROJECT + "?api_key=secret&page=2"));
+        assertEquals(PROJECT + "?page=2&per_page=100",
+                UpstreamPayloadStore.withoutCredentials(PROJECT + "?page=2&api_key=secret&per_page=100"));
+    }
+
+    @Test
+    void recordedBodyRoundTripsCompressedAndWithoutCredentials() throws Exception {
+        InMemoryUpstreamPayloads payloads = new InMemoryUpstreamPayloads();
+        UpstreamPayloadStore store = payloads.store("record");
+        String body = "{\"name\":\"left-pad\",\"description\":\"Zero-padding ✓ für Strings 🚀\",\"versions\":["
+                + "{\"number\":\"1.0.0\"},".repeat(200) + "{\"number\":\"1.1.0\"}]}";
+
+        store.record("libraries.io", "GET", PROJECT + "?api_key=secret&page=1", null, body);
+        store.record("libraries.io", "GET", PROJECT + "?api_key=secret&page=2", null, body);
+        payloads.awaitRequests(2);
+
+        // Two requests, one compressed body
+        assertEquals(1, payloads.payloads.size());
+        UpstreamPayload payload = payloads.payloads.values().iterator().next();
+        assertEquals(body.getBytes(StandardCharsets.UTF_8).length, payload.getRawSize());
+        assertTrue(payload.getStoredSize() < payload.getRawSize() / 4);
+        assertTrue(payloads.refs.values().stream().map(UpstreamPayloadRef::getUrl).noneMatch(url -> url.contains("api_key")));
+
+        // Looked up with another key (or none): the key is not part of the request
+        assertEquals(body, store.find("GET", PROJECT + "?api_key=other&page=1", null));
+        assertEquals(body, store.find("GET", PROJECT + "?page=2", null));
+        assertNull(store.find("GET", PROJECT + "?page=3", null));
+    }
+
+    @Test
+    void onlyTheReplayJobIsAnsweredFromTheStore() throws Exception {
+        InMemoryUpstreamPayloads payloads = new InMemoryUpstreamPayloads();
+        UpstreamPayloadStore store = payloads.store("record");
+        store.record("libraries.io", "GET", PROJECT, null, "stored");
+        payloads.awaitRequests(1);
+        store.setMode(UpstreamPayloadStore.Mode.OFFLINE);
+
+        UpstreamRateLimiter rateLimiter = mock(UpstreamRateLimiter.class);
+        when(rateLimiter.acquire(anyString())).thenReturn(true);
+        HttpClient network = InMemoryUpstreamPayloads.upstream(Map.of(PROJECT, "fresh"));
+        UpstreamHttpClient client = new UpstreamHttpClient(network, rateLimiter, store);
+        EnrichmentExecutor enrichmentExecutor = new EnrichmentExecutor(2, 5000);
+
+        // Schedulers, ingestion and user requests: network, even in offline mode
+        assertEquals("fresh", client.get(PROJECT, Map.of()).getBody());
+        assertEquals("fresh", enrichmentExecutor.submit("outside", () -> client.get(PROJECT, Map.of()).getBody(), null).join());
+
+        // The replay job, including the enrichment calls it starts on the pool
+        assertEquals("stored", UpstreamPayloadStore.inReplayScope(() -> client.get(PROJECT, Map.of()).getBody()));
+        assertEquals("stored", UpstreamPayloadStore.inReplayScope(() -> enrichmentExecutor.submit("inside",
+                () -> client.get(PROJECT, Map.of()).getBody(), null).join()));
+        assertEquals(0, UpstreamPayloadStore.inReplayScope(() -> client.get(PROJECT + "/dependencies", Map.of()).getStatus()));
+
+        verify(network, times(2)).send(any(HttpRequest.class), any());
+    }
+}